@@ -0,0 +1,104 @@
+package systems.project.benchmarks;
+
+import systems.project.models.Color;
+import systems.project.models.Coordinates;
+import systems.project.models.Country;
+import systems.project.models.Event;
+import systems.project.models.EventType;
+import systems.project.models.Location;
+import systems.project.models.Person;
+import systems.project.models.Ticket;
+import systems.project.models.TicketType;
+import systems.project.models.Venue;
+import systems.project.models.VenueType;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Билеты с полным графом связей, как после загрузки по Ticket.GRAPH_FULL. Мероприятие и площадка
+ * общие для всех билетов, покупатели повторяются - как в реальном списке, где справочников меньше, чем билетов.
+ */
+final class BenchmarkData {
+
+    private static final int PERSONS = 100;
+
+    private static final LocalDateTime CREATED = LocalDateTime.of(2025, 1, 1, 12, 0);
+
+    private BenchmarkData() { }
+
+    static List<Ticket> tickets(int n) {
+        Event event = event();
+        Venue venue = venue();
+        List<Person> persons = new ArrayList<>(PERSONS);
+        for (int i = 1; i <= PERSONS; i++) {
+            persons.add(person(i));
+        }
+        List<Ticket> tickets = new ArrayList<>(n);
+        for (int i = 1; i <= n; i++) {
+            Ticket t = ticket(i);
+            t.setEvent(event);
+            t.setVenue(venue);
+            t.setPerson(persons.get(i % PERSONS));
+            tickets.add(t);
+        }
+        return tickets;
+    }
+
+    static Ticket ticket(int id) {
+        var coordinates = new Coordinates();
+        coordinates.setId((long) id);
+        coordinates.setX(id % 500);
+        coordinates.setY(id * 0.5f);
+
+        var t = new Ticket();
+        t.setId(id);
+        t.setVersion(0L);
+        t.setName("ticket " + id);
+        t.setCoordinates(coordinates);
+        t.setCreationDate(CREATED);
+        t.setPrice(100f + id % 50);
+        t.setType(TicketType.values()[id % TicketType.values().length]);
+        t.setDiscount(id % 3 == 0 ? 10f : null);
+        t.setNumber(id);
+        t.setComment("row " + id % 40);
+        return t;
+    }
+
+    static Person person(int id) {
+        var location = new Location();
+        location.setId((long) id);
+        location.setX(id);
+        location.setY(id);
+        location.setZ((float) id);
+
+        var person = new Person();
+        person.setId((long) id);
+        person.setEyeColor(Color.GREEN);
+        person.setHairColor(Color.BROWN);
+        person.setLocation(location);
+        person.setWeight(60.0 + id % 40);
+        person.setPassportID("P" + id);
+        person.setNationality(Country.JAPAN);
+        return person;
+    }
+
+    private static Event event() {
+        var event = new Event();
+        event.setId(1);
+        event.setName("concert");
+        event.setTicketsCount(100_000);
+        event.setEventType(EventType.CONCERT);
+        return event;
+    }
+
+    private static Venue venue() {
+        var venue = new Venue();
+        venue.setId(1L);
+        venue.setName("stadium");
+        venue.setCapacity(100_000);
+        venue.setType(VenueType.STADIUM);
+        return venue;
+    }
+}
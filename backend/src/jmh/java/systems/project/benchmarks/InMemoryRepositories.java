@@ -0,0 +1,56 @@
+package systems.project.benchmarks;
+
+import systems.project.models.Person;
+import systems.project.models.Ticket;
+import systems.project.repositories.PersonRepository;
+import systems.project.repositories.TicketRepository;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+
+/**
+ * Репозитории поверх Map: бенчмарк сервиса меряет его собственную работу без БД и без накладных
+ * расходов моков. Реализованы только методы, которые вызывают продажа и клонирование;
+ * остальные бросают UnsupportedOperationException.
+ */
+final class InMemoryRepositories {
+
+    private InMemoryRepositories() { }
+
+    static TicketRepository tickets(Map<Integer, Ticket> store) {
+        AtomicInteger ids = new AtomicInteger(store.keySet().stream().mapToInt(Integer::intValue).max().orElse(0));
+        return proxy(TicketRepository.class, (method, args) -> switch (method.getName()) {
+            case "findById" -> CompletableFuture.completedFuture(Optional.ofNullable(store.get((Integer) args[0])));
+            case "save" -> {
+                Ticket t = (Ticket) args[0];
+                if (t.getId() == null) t.setId(ids.incrementAndGet());
+                store.put(t.getId(), t);
+                yield t;
+            }
+            default -> throw new UnsupportedOperationException(method.getName());
+        });
+    }
+
+    static PersonRepository persons(Map<Integer, Person> store) {
+        return proxy(PersonRepository.class, (method, args) -> switch (method.getName()) {
+            case "findById" -> CompletableFuture.completedFuture(Optional.ofNullable(store.get((Integer) args[0])));
+            default -> throw new UnsupportedOperationException(method.getName());
+        });
+    }
+
+    private static <R> R proxy(Class<R> type, BiFunction<Method, Object[], Object> handler) {
+        InvocationHandler dispatch = (self, method, args) -> switch (method.getName()) {
+            case "toString" -> "in-memory " + type.getSimpleName();
+            case "hashCode" -> System.identityHashCode(self);
+            case "equals" -> self == args[0];
+            default -> handler.apply(method, args);
+        };
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, dispatch));
+    }
+}
@@ -0,0 +1,55 @@
+package systems.project.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import systems.project.models.api.AbstractResponse;
+import systems.project.models.api.TicketDTO;
+import systems.project.models.envelopes.TicketsEnvelope;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сериализация ответа GET /get_tickets: AbstractResponse со списком билетов и всеми связями.
+ * Пишется в пустой поток, как в сокет, - без копии всего тела в массив.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ResponseSerializationBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int tickets;
+
+    private ObjectMapper mapper;
+
+    private AbstractResponse<TicketsEnvelope> response;
+
+    @Setup
+    public void setUp() {
+        // тот же построитель, на котором Spring Boot собирает ObjectMapper для контроллеров
+        mapper = Jackson2ObjectMapperBuilder.json().build();
+        var envelope = new TicketsEnvelope();
+        envelope.setTicketList(TicketDTO.fromAll(BenchmarkData.tickets(tickets)));
+        response = AbstractResponse.<TicketsEnvelope>builder()
+                .title("Успех")
+                .message("Список билетов")
+                .status("ok")
+                .data(envelope)
+                .build();
+    }
+
+    @Benchmark
+    public void writeTicketList() throws IOException {
+        mapper.writeValue(OutputStream.nullOutputStream(), response);
+    }
+}
@@ -0,0 +1,86 @@
+package systems.project.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import systems.project.configuratons.TicketsProperties;
+import systems.project.models.api.TicketDTO;
+import systems.project.services.CollectionVersions;
+import systems.project.services.SseBroadcaster;
+import systems.project.services.TicketEventService;
+import systems.project.services.TicketReadModel;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Рассылка одного изменения билета всем подписчикам SSE: сериализация, кольцевой буфер
+ * и очередь каждого подписчика. Окно склейки выключено, рассылка выполняется в вызывающем потоке,
+ * поэтому время операции включает отправку каждому подписчику.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TicketFanOutBenchmark {
+
+    @Param({"10", "1000", "10000"})
+    public int subscribers;
+
+    private SseBroadcaster broadcaster;
+
+    private TicketEventService events;
+
+    private TicketDTO ticket;
+
+    private List<Integer> ids;
+
+    // эмиттер без соединения: отправка никуда не пишет, меряется только путь до send
+    static final class NullEmitter extends SseEmitter {
+        @Override
+        public void send(SseEventBuilder builder) { }
+    }
+
+    @Setup
+    public void setUp() {
+        var properties = new TicketsProperties();
+        properties.getSse().setCoalesceWindow(Duration.ZERO);
+        properties.getSse().setMaxSubscribers(subscribers);
+        var registry = new SimpleMeterRegistry();
+        var logger = Logger.getAnonymousLogger();
+        ObjectMapper mapper = Jackson2ObjectMapperBuilder.json().build();
+
+        broadcaster = new SseBroadcaster(properties, logger, null, registry, Runnable::run);
+        for (int i = 0; i < subscribers; i++) {
+            broadcaster.register(new NullEmitter(), List.of());
+        }
+        // модель чтения выключена по умолчанию: apply сразу возвращается, БД не нужна
+        var readModel = new TicketReadModel(null, null, null, null, logger, registry, properties);
+        events = new TicketEventService(broadcaster, readModel, new CollectionVersions(), logger,
+                mapper, null, registry, properties);
+
+        ticket = TicketDTO.from(BenchmarkData.tickets(1).get(0));
+        ids = List.of(ticket.getId());
+    }
+
+    @TearDown
+    public void tearDown() {
+        broadcaster.shutdown();
+    }
+
+    @Benchmark
+    public void publishChange() {
+        events.publishChange("update", ids, List.of(ticket));
+    }
+}
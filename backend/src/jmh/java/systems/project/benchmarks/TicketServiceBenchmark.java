@@ -0,0 +1,70 @@
+package systems.project.benchmarks;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import systems.project.configuratons.TicketsProperties;
+import systems.project.models.Person;
+import systems.project.models.Ticket;
+import systems.project.models.api.SellOutcome;
+import systems.project.models.api.TicketDTO;
+import systems.project.services.CollectionVersions;
+import systems.project.services.TicketHolds;
+import systems.project.services.TicketService;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Продажа и VIP-клонирование на репозиториях в памяти: проверки, копирование графа, метрики
+ * и версии коллекции без стоимости БД. Вызовы синхронные - @Async вне Spring не действует.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TicketServiceBenchmark {
+
+    private static final int TICKET_ID = 1;
+
+    private static final int BUYER_ID = 7;
+
+    private Map<Integer, Ticket> tickets;
+
+    private TicketService service;
+
+    @Setup
+    public void setUp() {
+        tickets = new ConcurrentHashMap<>();
+        Ticket source = BenchmarkData.ticket(TICKET_ID);
+        source.setPerson(BenchmarkData.person(1));
+        tickets.put(TICKET_ID, source);
+        Map<Integer, Person> persons = new ConcurrentHashMap<>();
+        persons.put(BUYER_ID, BenchmarkData.person(BUYER_ID));
+
+        var properties = new TicketsProperties();
+        var registry = new SimpleMeterRegistry();
+        // без брони на билете TicketHolds ничего не публикует и не планирует - события и планировщик не нужны
+        var holds = new TicketHolds(null, null, registry, properties);
+        service = new TicketService(InMemoryRepositories.tickets(tickets), InMemoryRepositories.persons(persons),
+                null, holds, properties, new CollectionVersions(), registry);
+    }
+
+    @Benchmark
+    public SellOutcome sellTicket() {
+        return service.sellTicket(TICKET_ID, BUYER_ID, 150f).join();
+    }
+
+    @Benchmark
+    public TicketDTO cloneVip() {
+        TicketDTO copy = service.cloneVip(TICKET_ID).join();
+        // копия удаляется сразу, иначе хранилище растёт на каждую операцию
+        tickets.remove(copy.getId());
+        return copy;
+    }
+}
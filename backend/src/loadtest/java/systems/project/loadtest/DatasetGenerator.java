@@ -0,0 +1,227 @@
+package systems.project.loadtest;
+
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.stereotype.Component;
+import systems.project.models.Color;
+import systems.project.models.Country;
+import systems.project.models.EventType;
+import systems.project.models.TicketType;
+import systems.project.models.VenueType;
+
+import javax.sql.DataSource;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.SplittableRandom;
+import java.util.logging.Logger;
+
+/**
+ * Заполняет пустую БД профиля loadtest синтетическими данными с распределениями, похожими на продажи:
+ * популярность мероприятий, вместимость площадок и покупки по людям - степенные (немного крупных и длинный
+ * хвост), цены - логнормальные, типы билетов и национальности - с весами. Строки пишутся батчами JDBC
+ * в обход JPA, иначе миллионы билетов генерировались бы дольше самого прогона. Id идут подряд с 1 -
+ * драйвер нагрузки выбирает билеты и покупателей из того же диапазона.
+ */
+@Component
+@Profile("loadtest")
+public class DatasetGenerator implements ApplicationRunner {
+
+    private static final int BATCH = 5_000;
+
+    private static final String[] COMMENTS = {
+        "партер", "балкон", "танцпол", "фан-зона", "амфитеатр", "бельэтаж",
+        "ложа", "vip-ложа", "сектор A", "сектор B", "сектор C", "у сцены"
+    };
+
+    private static final TicketType[] TICKET_TYPES = {
+        TicketType.USUAL, TicketType.CHEAP, TicketType.BUDGETARY, TicketType.VIP
+    };
+    private static final double[] TICKET_TYPE_WEIGHTS = {0.55, 0.20, 0.17, 0.08};
+    private static final double[] BASE_PRICES = {60, 20, 35, 250};
+
+    private static final Country[] COUNTRIES = Country.values();
+    private static final double[] COUNTRY_WEIGHTS = {0.15, 0.35, 0.15, 0.15, 0.20};
+
+    private static final int MAX_AGE_SECONDS = 180 * 24 * 3600;
+
+    @FunctionalInterface
+    private interface RowWriter {
+        void write(PreparedStatement ps, int id) throws SQLException;
+    }
+
+    private final JdbcTemplate jdbc;
+    private final DataSource dataSource;
+    private final DatasetProperties dataset;
+    private final Logger logger;
+
+    public DatasetGenerator(JdbcTemplate jdbc, DataSource dataSource, DatasetProperties dataset, Logger logger) {
+        this.jdbc = jdbc;
+        this.dataSource = dataSource;
+        this.dataset = dataset;
+        this.logger = logger;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        Integer existing = jdbc.queryForObject("select count(*) from ticket", Integer.class);
+        if (existing != null && existing > 0) {
+            logger.info("loadtest dataset: ticket table is not empty, generation skipped");
+            return;
+        }
+
+        long began = System.nanoTime();
+        var random = new SplittableRandom(dataset.getSeed());
+        int[] venueCapacity = insertVenues(random);
+        int[] eventVenue = insertEvents(random, venueCapacity);
+        insertPersons(random);
+        insertTickets(random, venueCapacity, eventVenue);
+
+        restart("venue_seq", dataset.getVenues());
+        restart("event_seq", dataset.getEvents());
+        restart("location_seq", dataset.getPersons());
+        restart("person_seq", dataset.getPersons());
+        restart("coordinates_seq", dataset.getTickets());
+        restart("ticket_seq", dataset.getTickets());
+        // индексы после загрузки: так быстрее, и набор тот же, что у рабочей БД
+        new ResourceDatabasePopulator(new ClassPathResource("db/migration/V2__ticket_indexes.sql")).execute(dataSource);
+
+        logger.info(String.format("loadtest dataset: %d tickets, %d persons, %d events, %d venues in %.1fs",
+                dataset.getTickets(), dataset.getPersons(), dataset.getEvents(), dataset.getVenues(),
+                (System.nanoTime() - began) / 1e9));
+    }
+
+    private int[] insertVenues(SplittableRandom random) {
+        int[] capacity = new int[dataset.getVenues() + 1];
+        insert("insert into venue (id, name, capacity, type) values (?, ?, ?, ?)", dataset.getVenues(), (ps, id) -> {
+            // от 100 до 80 000 мест, маленьких площадок больше
+            int c = (int) (100 * Math.pow(800, Math.pow(random.nextDouble(), 2)));
+            capacity[id] = c;
+            VenueType type = c > 20_000 ? VenueType.STADIUM : c > 3_000 ? VenueType.OPEN_AREA : VenueType.LOFT;
+            ps.setLong(1, id);
+            ps.setString(2, "Площадка " + id);
+            ps.setInt(3, c);
+            ps.setString(4, type.name());
+        });
+        return capacity;
+    }
+
+    private int[] insertEvents(SplittableRandom random, int[] venueCapacity) {
+        int[] venue = new int[dataset.getEvents() + 1];
+        EventType[] types = EventType.values();
+        String sql = "insert into event (id, name, tickets_count, event_type) values (?, ?, ?, ?)";
+        insert(sql, dataset.getEvents(), (ps, id) -> {
+            venue[id] = 1 + random.nextInt(dataset.getVenues());
+            ps.setInt(1, id);
+            ps.setString(2, "Мероприятие " + id);
+            ps.setInt(3, venueCapacity[venue[id]]);
+            ps.setString(4, types[random.nextInt(types.length)].name());
+        });
+        return venue;
+    }
+
+    private void insertPersons(SplittableRandom random) {
+        Color[] colors = Color.values();
+        insert("insert into location (id, x, y, z) values (?, ?, ?, ?)", dataset.getPersons(), (ps, id) -> {
+            ps.setLong(1, id);
+            ps.setInt(2, random.nextInt(-1000, 1000));
+            ps.setFloat(3, (float) random.nextDouble(-1000, 1000));
+            ps.setFloat(4, (float) random.nextDouble(-1000, 1000));
+        });
+        String sql = "insert into person (id, eye_color, hair_color, location_id, weight, passportid, nationality)"
+                + " values (?, ?, ?, ?, ?, ?, ?)";
+        insert(sql, dataset.getPersons(), (ps, id) -> {
+            ps.setLong(1, id);
+            if (random.nextDouble() < 0.2) ps.setNull(2, Types.VARCHAR);
+            else ps.setString(2, colors[random.nextInt(colors.length)].name());
+            ps.setString(3, colors[random.nextInt(colors.length)].name());
+            ps.setLong(4, id);
+            ps.setDouble(5, Math.max(40, 75 + 12 * random.nextGaussian()));
+            ps.setString(6, String.format("P%09d", id));
+            ps.setString(7, COUNTRIES[weighted(random, COUNTRY_WEIGHTS)].name());
+        });
+    }
+
+    private void insertTickets(SplittableRandom random, int[] venueCapacity, int[] eventVenue) {
+        insert("insert into coordinates (id, x, y) values (?, ?, ?)", dataset.getTickets(), (ps, id) -> {
+            ps.setLong(1, id);
+            ps.setInt(2, random.nextInt(-500, 500));
+            ps.setFloat(3, (float) random.nextDouble(-500, 500));
+        });
+
+        LocalDateTime now = LocalDateTime.now();
+        String sql = "insert into ticket (id, version, name, coordinates_id, creation_date, person_id, event_id,"
+                + " price, type, discount, number, comment, venue_id) values (?, 0, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        insert(sql, dataset.getTickets(), (ps, id) -> {
+            boolean withEvent = random.nextDouble() < dataset.getEventShare();
+            Integer event = withEvent ? skewed(random, dataset.getEvents(), 2) : null;
+            int venue = event != null ? eventVenue[event] : 1 + random.nextInt(dataset.getVenues());
+            int type = weighted(random, TICKET_TYPE_WEIGHTS);
+            double price = BASE_PRICES[type] * Math.exp(0.5 * random.nextGaussian());
+
+            ps.setInt(1, id);
+            ps.setString(2, (event != null ? "Мероприятие " + event : "Площадка " + venue) + ", билет " + id);
+            ps.setLong(3, id);
+            ps.setTimestamp(4, Timestamp.valueOf(now.minusSeconds(random.nextInt(MAX_AGE_SECONDS))));
+            if (random.nextDouble() < dataset.getSoldShare()) {
+                ps.setLong(5, skewed(random, dataset.getPersons(), 1.5));
+            } else {
+                ps.setNull(5, Types.BIGINT);
+            }
+            if (event != null) ps.setInt(6, event);
+            else ps.setNull(6, Types.INTEGER);
+            ps.setFloat(7, (float) Math.max(1, Math.round(price * 100) / 100.0));
+            ps.setString(8, TICKET_TYPES[type].name());
+            if (random.nextDouble() < 0.25) ps.setFloat(9, 5 * (1 + random.nextInt(10)));
+            else ps.setNull(9, Types.REAL);
+            ps.setInt(10, 1 + random.nextInt(venueCapacity[venue]));
+            if (random.nextBoolean()) ps.setString(11, COMMENTS[skewed(random, COMMENTS.length, 2) - 1]);
+            else ps.setNull(11, Types.VARCHAR);
+            ps.setLong(12, venue);
+        });
+    }
+
+    private void insert(String sql, int rows, RowWriter writer) {
+        for (int from = 1; from <= rows; from += BATCH) {
+            int first = from;
+            int size = Math.min(BATCH, rows - from + 1);
+            jdbc.batchUpdate(sql, new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    writer.write(ps, first + i);
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return size;
+                }
+            });
+        }
+    }
+
+    // следующий id после сгенерированных: Hibernate продолжит выдавать блоки без пересечений
+    private void restart(String sequence, int lastId) {
+        jdbc.execute("alter sequence " + sequence + " restart with " + (lastId + 1));
+    }
+
+    // 1..n, малые значения встречаются чаще: чем больше skew, тем сильнее перекос
+    static int skewed(SplittableRandom random, int n, double skew) {
+        return 1 + (int) (n * Math.pow(random.nextDouble(), skew));
+    }
+
+    private static int weighted(SplittableRandom random, double[] weights) {
+        double u = random.nextDouble();
+        for (int i = 0; i < weights.length - 1; i++) {
+            u -= weights[i];
+            if (u < 0) return i;
+        }
+        return weights.length - 1;
+    }
+}
@@ -0,0 +1,30 @@
+package systems.project.loadtest;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@Profile("loadtest")
+@ConfigurationProperties(prefix = "loadtest.dataset")
+public class DatasetProperties {
+
+    private int tickets = 1_000_000;
+
+    private int persons = 200_000;
+
+    private int events = 2_000;
+
+    private int venues = 500;
+
+    // доля билетов с покупателем
+    private double soldShare = 0.4;
+
+    // доля билетов, привязанных к мероприятию; остальные - только к площадке
+    private double eventShare = 0.9;
+
+    // одинаковый seed - одинаковые данные между прогонами
+    private long seed = 42;
+}
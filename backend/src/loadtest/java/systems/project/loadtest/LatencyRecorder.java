@@ -0,0 +1,57 @@
+package systems.project.loadtest;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Все задержки одной операции и коды ответов. Хранятся точные значения, перцентили считаются
+ * сортировкой при отчёте: при сотнях тысяч запросов за прогон это дешевле и точнее гистограммы.
+ */
+final class LatencyRecorder {
+
+    // код вместо HTTP-статуса: запрос не получил ответа (таймаут, обрыв соединения)
+    static final int NO_RESPONSE = -1;
+
+    private long[] nanos = new long[1 << 14];
+    private int count;
+    private final Map<Integer, Integer> statuses = new TreeMap<>();
+
+    synchronized void record(long latencyNanos, int status) {
+        if (count == nanos.length) nanos = Arrays.copyOf(nanos, count * 2);
+        nanos[count++] = latencyNanos;
+        statuses.merge(status, 1, Integer::sum);
+    }
+
+    synchronized int count() {
+        return count;
+    }
+
+    synchronized int errors() {
+        int errors = 0;
+        for (Map.Entry<Integer, Integer> e : statuses.entrySet()) {
+            if (e.getKey() == NO_RESPONSE || e.getKey() >= 500) errors += e.getValue();
+        }
+        return errors;
+    }
+
+    synchronized Map<Integer, Integer> statuses() {
+        return new TreeMap<>(statuses);
+    }
+
+    /**
+     * @return задержки в миллисекундах для каждого перцентиля из percentiles (0..100); пустой массив,
+     *         если запросов не было
+     */
+    synchronized double[] percentilesMillis(double... percentiles) {
+        if (count == 0) return new double[0];
+        long[] sorted = Arrays.copyOf(nanos, count);
+        Arrays.sort(sorted);
+        double[] result = new double[percentiles.length];
+        for (int i = 0; i < percentiles.length; i++) {
+            int rank = (int) Math.ceil(percentiles[i] / 100.0 * count) - 1;
+            result[i] = sorted[Math.max(0, Math.min(count - 1, rank))] / 1e6;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,293 @@
+package systems.project.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Драйвер нагрузки для приложения с профилем loadtest: смесь /get_tickets, /sell_ticket и /clone_vip
+ * с заданной частотой плюс подписчики /tickets/stream. Модель открытая: запросы отправляются
+ * по расписанию независимо от ответов, задержка считается от запланированного момента. Поэтому
+ * медленный сервер не "замедляет" нагрузку и не прячет свои задержки (coordinated omission).
+ *
+ * <p>Параметры {@code --name=value}: base, rate (запросов в секунду), duration и warmup (60s, 5m),
+ * mix (get:10,sell:60,clone:30), subscribers, tickets и persons (диапазоны id, как у генератора),
+ * skew (перекос популярности билетов), max-in-flight, ready-timeout.
+ *
+ * <p>Кроме задержек печатается среднее время удержания соединения с БД за время замера - по нему
+ * сравниваются изменения, влияющие на то, как долго запрос держит соединение.
+ */
+public final class LoadDriver {
+
+    enum Operation { GET, SELL, CLONE }
+
+    private final Map<String, String> options;
+    private final URI base;
+    private final HttpClient client;
+    private final ExecutorService executor;
+    private final Map<Operation, LatencyRecorder> stats = new EnumMap<>(Operation.class);
+
+    private final AtomicInteger streamsOpen = new AtomicInteger();
+    private final AtomicInteger streamsFailed = new AtomicInteger();
+    private final AtomicLong streamEvents = new AtomicLong();
+    // события, полученные за прогрев, в отчёт не входят
+    private long streamEventsBeforeMeasure;
+
+    private CompletableFuture<double[]> connectionsBeforeMeasure;
+
+    private LoadDriver(Map<String, String> options) {
+        this.options = options;
+        this.base = URI.create(option("base", "http://localhost:8080"));
+        // потоки-демоны: открытые SSE-потоки не держат JVM после отчёта
+        this.executor = Executors.newFixedThreadPool(intOption("client-threads", 8), r -> {
+            Thread t = new Thread(r, "load-driver");
+            t.setDaemon(true);
+            return t;
+        });
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .executor(executor)
+                .build();
+        for (Operation op : Operation.values()) {
+            stats.put(op, new LatencyRecorder());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Ожидается --name=value: " + arg);
+            }
+            options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+        new LoadDriver(options).run();
+    }
+
+    private void run() throws InterruptedException {
+        awaitReady(durationOption("ready-timeout", "10m"));
+        openStreams(intOption("subscribers", 100));
+
+        Duration warmup = durationOption("warmup", "10s");
+        Duration duration = durationOption("duration", "60s");
+        drive(warmup, duration);
+
+        report(duration);
+        executor.shutdownNow();
+    }
+
+    // готовность наступает после генерации данных: DatasetGenerator выполняется до ReadinessState.ACCEPTING_TRAFFIC
+    private void awaitReady(Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        HttpRequest probe = HttpRequest.newBuilder(base.resolve("/actuator/health/readiness")).GET().build();
+        while (true) {
+            try {
+                if (client.send(probe, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) return;
+            } catch (IOException e) {
+                // сервер ещё не слушает порт
+            }
+            if (System.nanoTime() > deadline) throw new IllegalStateException("Сервер не готов за " + timeout);
+            Thread.sleep(1000);
+        }
+    }
+
+    private void openStreams(int subscribers) {
+        HttpRequest request = HttpRequest.newBuilder(base.resolve("/tickets/stream"))
+                .header("Accept", "text/event-stream")
+                .GET()
+                .build();
+        for (int i = 0; i < subscribers; i++) {
+            streamsOpen.incrementAndGet();
+            client.sendAsync(request, HttpResponse.BodyHandlers.fromLineSubscriber(new EventCounter()))
+                    .whenComplete((res, exc) -> {
+                        // поток закончился: сервер закрыл подписку или не принял её
+                        streamsOpen.decrementAndGet();
+                        if (exc != null || res.statusCode() != 200) streamsFailed.incrementAndGet();
+                    });
+        }
+    }
+
+    private void drive(Duration warmup, Duration duration) throws InterruptedException {
+        double rate = Double.parseDouble(option("rate", "200"));
+        int tickets = intOption("tickets", 1_000_000);
+        int persons = intOption("persons", 200_000);
+        double skew = Double.parseDouble(option("skew", "3"));
+        int maxInFlight = intOption("max-in-flight", 512);
+        Operation[] mix = mix(option("mix", "get:10,sell:60,clone:30"));
+
+        var random = new SplittableRandom(42);
+        var inFlight = new Semaphore(maxInFlight);
+        long interval = (long) (1e9 / rate);
+        long start = System.nanoTime();
+        long measureFrom = start + warmup.toNanos();
+        long end = measureFrom + duration.toNanos();
+
+        boolean measuring = false;
+        for (long k = 0; ; k++) {
+            long intended = start + k * interval;
+            if (intended >= end) break;
+            long wait = intended - System.nanoTime();
+            while (wait > 0) {
+                LockSupport.parkNanos(wait);
+                wait = intended - System.nanoTime();
+            }
+            boolean measured = intended >= measureFrom;
+            if (measured && !measuring) {
+                measuring = true;
+                streamEventsBeforeMeasure = streamEvents.get();
+                connectionsBeforeMeasure = connectionUsage();
+            }
+            // упор в лимит тоже входит в задержку: она считается от intended
+            inFlight.acquire();
+
+            Operation op = mix[random.nextInt(mix.length)];
+            int ticketId = 1 + (int) (tickets * Math.pow(random.nextDouble(), skew));
+            int personId = 1 + random.nextInt(persons);
+            float amount = 10 + random.nextInt(490);
+            client.sendAsync(request(op, ticketId, personId, amount), HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((res, exc) -> {
+                        inFlight.release();
+                        if (measured) {
+                            int status = exc != null ? LatencyRecorder.NO_RESPONSE : res.statusCode();
+                            stats.get(op).record(System.nanoTime() - intended, status);
+                        }
+                    });
+        }
+        if (!inFlight.tryAcquire(maxInFlight, 60, TimeUnit.SECONDS)) {
+            System.out.println("warning: requests still in flight after 60s, they are not in the report");
+        }
+    }
+
+    private HttpRequest request(Operation op, int ticketId, int personId, float amount) {
+        HttpRequest.Builder builder = switch (op) {
+            case GET -> HttpRequest.newBuilder(base.resolve("/get_tickets")).GET();
+            case SELL -> post("/sell_ticket", String.format(Locale.ROOT,
+                    "{\"ticketId\":%d,\"personId\":%d,\"amount\":%.1f}", ticketId, personId, amount));
+            case CLONE -> post("/clone_vip", "{\"ticketId\":" + ticketId + "}");
+        };
+        return builder.timeout(Duration.ofSeconds(30)).build();
+    }
+
+    private HttpRequest.Builder post(String path, String json) {
+        return HttpRequest.newBuilder(base.resolve(path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json));
+    }
+
+    private void report(Duration duration) {
+        double seconds = duration.toNanos() / 1e9;
+        System.out.printf("%n%-6s %9s %9s %7s %9s %9s %9s %9s  %s%n",
+                "op", "requests", "req/s", "errors", "p50 ms", "p90 ms", "p99 ms", "max ms", "statuses");
+        int total = 0;
+        for (Map.Entry<Operation, LatencyRecorder> e : stats.entrySet()) {
+            LatencyRecorder r = e.getValue();
+            total += r.count();
+            double[] p = r.percentilesMillis(50, 90, 99, 100);
+            if (p.length == 0) continue;
+            System.out.printf("%-6s %9d %9.1f %7d %9.2f %9.2f %9.2f %9.2f  %s%n",
+                    e.getKey().name().toLowerCase(), r.count(), r.count() / seconds, r.errors(),
+                    p[0], p[1], p[2], p[3], r.statuses());
+        }
+        System.out.printf("total  %9d %9.1f%n", total, total / seconds);
+        long events = streamEvents.get() - streamEventsBeforeMeasure;
+        System.out.printf("sse: %d streams open, %d failed, %d events received (%.1f/s per stream)%n",
+                streamsOpen.get(), streamsFailed.get(), events,
+                streamsOpen.get() == 0 ? 0.0 : events / seconds / streamsOpen.get());
+
+        double[] before = connectionsBeforeMeasure == null ? null : connectionsBeforeMeasure.join();
+        double[] after = connectionUsage().join();
+        if (before != null && after != null && after[0] > before[0]) {
+            double checkouts = after[0] - before[0];
+            System.out.printf("db connections: %.0f checkouts, mean hold %.2f ms, recent max hold %.2f ms%n",
+                    checkouts, (after[1] - before[1]) / checkouts * 1000, after[2] * 1000);
+        }
+    }
+
+    // время от выдачи соединения из пула до возврата (hikaricp.connections.usage): COUNT, TOTAL_TIME и MAX в секундах
+    private CompletableFuture<double[]> connectionUsage() {
+        HttpRequest request = HttpRequest.newBuilder(base.resolve("/actuator/metrics/hikaricp.connections.usage"))
+                .GET()
+                .build();
+        return client.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                .thenApply(res -> res.statusCode() == 200 ? usage(res.body()) : null)
+                .exceptionally(exc -> null);
+    }
+
+    private static double[] usage(String json) {
+        return new double[] {statistic(json, "COUNT"), statistic(json, "TOTAL_TIME"), statistic(json, "MAX")};
+    }
+
+    private static double statistic(String json, String name) {
+        Matcher m = Pattern.compile("\"statistic\":\"" + name + "\",\"value\":([-0-9.eE+]+)").matcher(json);
+        return m.find() ? Double.parseDouble(m.group(1)) : Double.NaN;
+    }
+
+    // каждая операция попадает в массив столько раз, каков её вес: выбор - один случайный индекс
+    private static Operation[] mix(String spec) {
+        List<Operation> slots = new ArrayList<>();
+        for (String part : spec.split(",")) {
+            String[] kv = part.trim().split(":");
+            Operation op = Operation.valueOf(kv[0].trim().toUpperCase());
+            for (int i = Integer.parseInt(kv[1].trim()); i > 0; i--) {
+                slots.add(op);
+            }
+        }
+        if (slots.isEmpty()) throw new IllegalArgumentException("Пустая смесь операций: " + spec);
+        return slots.toArray(new Operation[0]);
+    }
+
+    private String option(String name, String fallback) {
+        return options.getOrDefault(name, fallback);
+    }
+
+    private int intOption(String name, int fallback) {
+        String v = options.get(name);
+        return v == null ? fallback : Integer.parseInt(v);
+    }
+
+    private Duration durationOption(String name, String fallback) {
+        return Duration.parse("PT" + option(name, fallback).toUpperCase());
+    }
+
+    // считает события SSE (строки data:), тело не хранит
+    private final class EventCounter implements Flow.Subscriber<String> {
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(String line) {
+            if (line.startsWith("data:")) streamEvents.incrementAndGet();
+        }
+
+        @Override
+        public void onError(Throwable throwable) { }
+
+        @Override
+        public void onComplete() { }
+    }
+}
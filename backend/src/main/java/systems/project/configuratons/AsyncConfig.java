@@ -0,0 +1,63 @@
+package systems.project.configuratons;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.annotation.EnableAsync;
+import systems.project.models.api.AsyncMode;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Исполнители для методов {@code @Async}: dbExecutor - сервисы (репозитории выполняются в их потоке),
+ * sseExecutor - рассылка SSE. Оба ограничены, при насыщении задачи отклоняются.
+ */
+@Configuration
+@EnableAsync
+public class AsyncConfig {
+
+    public static final String DB_EXECUTOR = "dbExecutor";
+
+    public static final String SSE_EXECUTOR = "sseExecutor";
+
+    // имя taskExecutor - исполнитель по умолчанию для @Async без квалификатора
+    @Bean(name = {DB_EXECUTOR, "taskExecutor"})
+    public BoundedExecutor dbExecutor(TicketsProperties properties, MeterRegistry registry) {
+        var async = properties.getAsync();
+        int threads = Math.max(1, async.getDbThreads());
+        int capacity = threads + Math.max(0, async.getDbQueueCapacity());
+        // задачи БД - часть HTTP-запроса: время очереди и SQL попадает в его Server-Timing
+        return new BoundedExecutor("db", delegate(async.getMode(), "db-", threads), capacity, registry, true);
+    }
+
+    @Bean(name = SSE_EXECUTOR)
+    public BoundedExecutor sseExecutor(TicketsProperties properties, MeterRegistry registry) {
+        var async = properties.getAsync();
+        int threads = Math.max(1, async.getSseThreads());
+        // у каждого подписчика в очереди не больше одной задачи рассылки
+        int capacity = threads + Math.max(1, properties.getSse().getMaxSubscribers());
+        return new BoundedExecutor("sse", delegate(async.getMode(), "sse-dispatch-", threads), capacity, registry);
+    }
+
+    private static Executor delegate(AsyncMode mode, String prefix, int threads) {
+        if (mode == AsyncMode.VIRTUAL) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(prefix);
+            // младше Java 21 сюда не дойти: TicketsProperties отклоняет VIRTUAL ещё при привязке
+            executor.setVirtualThreads(true);
+            return executor;
+        }
+        AtomicInteger counter = new AtomicInteger();
+        // очередь пула не ограничена: глубину держит семафор BoundedExecutor
+        return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), r -> {
+                    Thread t = new Thread(r, prefix + counter.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                });
+    }
+}
@@ -0,0 +1,39 @@
+package systems.project.configuratons;
+
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.context.request.async.DeferredResultProcessingInterceptor;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Позволяет обработчику задать свой таймаут асинхронного ответа, не меняя общий
+ * spring.mvc.async.request-timeout: достаточно положить миллисекунды в атрибут запроса.
+ * Действует и на Callable/StreamingResponseBody, и на DeferredResult/CompletableFuture -
+ * их интерцепторы регистрируются отдельно.
+ */
+public class AsyncTimeoutInterceptor implements CallableProcessingInterceptor, DeferredResultProcessingInterceptor {
+
+    public static final String TIMEOUT_ATTRIBUTE = AsyncTimeoutInterceptor.class.getName() + ".timeout";
+
+    @Override
+    public <T> void beforeConcurrentHandling(NativeWebRequest request, Callable<T> task) {
+        applyTimeout(request);
+    }
+
+    @Override
+    public <T> void beforeConcurrentHandling(NativeWebRequest request, DeferredResult<T> deferredResult) {
+        applyTimeout(request);
+    }
+
+    // вызывается до startAsync, так что значение попадёт в AsyncContext
+    private static void applyTimeout(NativeWebRequest request) {
+        Object timeout = request.getAttribute(TIMEOUT_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (timeout instanceof Long millis && request instanceof AsyncWebRequest asyncRequest) {
+            asyncRequest.setTimeout(millis);
+        }
+    }
+}
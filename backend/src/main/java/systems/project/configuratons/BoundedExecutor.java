@@ -0,0 +1,144 @@
+package systems.project.configuratons;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Исполнитель с жёстким лимитом задач "в работе + в очереди". При исчерпании лимита задача
+ * не ставится в очередь, а отклоняется {@link TaskRejectedException} - это и есть back-pressure.
+ * Делегатом может быть как пул платформенных потоков, так и исполнитель на виртуальных потоках.
+ */
+public class BoundedExecutor implements AsyncTaskExecutor, DisposableBean {
+
+    private final String name;
+    private final Executor delegate;
+    private final Semaphore permits;
+    private final int capacity;
+    private final AtomicInteger running = new AtomicInteger();
+    private final Counter rejected;
+    private final Timer queueWait;
+    private final boolean requestScoped;
+
+    public BoundedExecutor(String name, Executor delegate, int capacity, MeterRegistry registry) {
+        this(name, delegate, capacity, registry, false);
+    }
+
+    /**
+     * @param requestScoped задачи выполняют работу HTTP-запроса: {@link RequestTiming} и {@link ReadYourWrites}
+     *                      постановщика переходят в поток задачи, ожидание в очереди попадает в фазу queue
+     */
+    public BoundedExecutor(String name, Executor delegate, int capacity, MeterRegistry registry,
+                           boolean requestScoped) {
+        this.name = name;
+        this.requestScoped = requestScoped;
+        this.delegate = delegate;
+        this.capacity = Math.max(1, capacity);
+        this.permits = new Semaphore(this.capacity);
+
+        Gauge.builder("tickets.executor.active", running, AtomicInteger::get)
+                .description("Выполняющиеся задачи")
+                .tag("executor", name)
+                .register(registry);
+        Gauge.builder("tickets.executor.queued", this, BoundedExecutor::queued)
+                .description("Принятые, но ещё не начатые задачи")
+                .tag("executor", name)
+                .register(registry);
+        Gauge.builder("tickets.executor.capacity", this, e -> e.capacity)
+                .description("Лимит задач в работе и в очереди")
+                .tag("executor", name)
+                .register(registry);
+        this.rejected = Counter.builder("tickets.executor.rejected")
+                .description("Задачи, отклонённые из-за насыщения")
+                .tag("executor", name)
+                .register(registry);
+        this.queueWait = Timer.builder("tickets.executor.wait")
+                .description("Время от постановки задачи до начала выполнения")
+                .tag("executor", name)
+                .register(registry);
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        if (!permits.tryAcquire()) {
+            rejected.increment();
+            throw new TaskRejectedException("Исполнитель " + name + " перегружен");
+        }
+        long enqueued = System.nanoTime();
+        RequestTiming timing = requestScoped ? RequestTiming.current() : null;
+        ReadYourWrites client = requestScoped ? ReadYourWrites.current() : null;
+        try {
+            delegate.execute(() -> {
+                long waited = System.nanoTime() - enqueued;
+                queueWait.record(waited, TimeUnit.NANOSECONDS);
+                if (timing != null) timing.add(RequestTiming.QUEUE, waited);
+                RequestTiming previous = RequestTiming.attach(timing);
+                ReadYourWrites previousClient = ReadYourWrites.attach(client);
+                running.incrementAndGet();
+                try {
+                    task.run();
+                } finally {
+                    RequestTiming.restore(previous);
+                    ReadYourWrites.restore(previousClient);
+                    running.decrementAndGet();
+                    permits.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            permits.release();
+            rejected.increment();
+            throw new TaskRejectedException("Исполнитель " + name + " не принял задачу", e);
+        }
+    }
+
+    @Override
+    public Future<?> submit(Runnable task) {
+        FutureTask<Object> future = new FutureTask<>(task, null);
+        execute(future);
+        return future;
+    }
+
+    @Override
+    public <T> Future<T> submit(Callable<T> task) {
+        FutureTask<T> future = new FutureTask<>(task);
+        execute(future);
+        return future;
+    }
+
+    public boolean isSaturated() {
+        return permits.availablePermits() == 0;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    private int queued() {
+        return Math.max(0, capacity - permits.availablePermits() - running.get());
+    }
+
+    @Override
+    public void destroy() {
+        if (delegate instanceof ExecutorService service) {
+            service.shutdown();
+        } else if (delegate instanceof DisposableBean disposable) {
+            try {
+                disposable.destroy();
+            } catch (Exception ignored) { }
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package systems.project.configuratons;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.time.Duration;
+import java.util.List;
+import java.util.OptionalLong;
+
+/**
+ * Кэш второго уровня Hibernate для справочных сущностей на Caffeine (JCache) в памяти процесса.
+ * Регионы создаются здесь с ограничением по размеру и сроку жизни; Hibernate сам обновляет их при записи
+ * через EntityManager и сбрасывает кэш запросов по таблицам, изменённым в транзакции.
+ */
+@Configuration
+public class CacheConfig {
+
+    // совпадают с region в @Cache на сущностях
+    public static final List<String> ENTITY_REGIONS = List.of("venue", "event", "person", "location");
+
+    public static final String QUERY_REGION = RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME;
+
+    public static final String TIMESTAMPS_REGION = RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME;
+
+    @Bean
+    public CacheManager hibernateCacheManager(TicketsProperties properties) {
+        var cfg = properties.getReferenceCache();
+        var provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        CacheManager manager = provider.getCacheManager(provider.getDefaultURI(), getClass().getClassLoader());
+
+        for (String region : ENTITY_REGIONS) {
+            manager.createCache(region, region(cfg.getEntityMaxSize(), cfg.getEntityTtl()));
+        }
+        manager.createCache(QUERY_REGION, region(cfg.getQueryMaxSize(), cfg.getQueryTtl()));
+        // метки времени изменения таблиц нельзя вытеснять: без них кэш запросов отдаст устаревший результат
+        manager.createCache(TIMESTAMPS_REGION, region(null, null));
+        return manager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer hibernateCacheCustomizer(CacheManager hibernateCacheManager) {
+        return props -> props.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+    }
+
+    // cache.gets{result=hit|miss}, cache.puts, cache.evictions по каждому региону
+    @Bean
+    public MeterBinder hibernateCacheMetrics(CacheManager hibernateCacheManager) {
+        return registry -> {
+            for (String name : hibernateCacheManager.getCacheNames()) {
+                JCacheMetrics.monitor(registry, hibernateCacheManager.getCache(name), Tags.of("layer", "hibernate-l2"));
+            }
+        };
+    }
+
+    private static CaffeineConfiguration<Object, Object> region(Long maxSize, Duration ttl) {
+        var config = new CaffeineConfiguration<Object, Object>();
+        config.setStatisticsEnabled(true);
+        if (maxSize != null) config.setMaximumSize(OptionalLong.of(Math.max(1, maxSize)));
+        if (ttl != null) config.setExpireAfterWrite(OptionalLong.of(ttl.toNanos()));
+        return config;
+    }
+}
@@ -1,12 +1,16 @@
 package systems.project.configuratons;
 
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 @Configuration
+@EnableScheduling
+@EnableConfigurationProperties(TicketsProperties.class)
 public class Config {
 
 
@@ -0,0 +1,67 @@
+package systems.project.configuratons;
+
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.servlet.HandlerInterceptor;
+import systems.project.services.CollectionVersions;
+
+import java.util.Map;
+
+/**
+ * Условный GET для списков: ETag строится из счётчика изменений коллекции, без обращения к БД.
+ * Если клиент прислал тот же ETag, отвечаем 304 до контроллера. Иначе ETag, снятый до чтения данных,
+ * уходит с ответом: запись, случившаяся во время чтения, увеличит счётчик, и ETag не совпадёт
+ * при следующем запросе.
+ */
+public class ListingEtagInterceptor implements HandlerInterceptor {
+
+    public static final Map<String, CollectionVersions.Kind> PATHS = Map.of(
+            "/get_tickets", CollectionVersions.Kind.TICKETS,
+            "/get_events", CollectionVersions.Kind.EVENTS,
+            "/get_persons", CollectionVersions.Kind.PERSONS,
+            "/get_venues", CollectionVersions.Kind.VENUES);
+
+    private final CollectionVersions versions;
+
+    public ListingEtagInterceptor(CollectionVersions versions) {
+        this.versions = versions;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // заголовки уже выставлены при первом диспетчинге
+        if (request.getDispatcherType() == DispatcherType.ASYNC || !"GET".equals(request.getMethod())) {
+            return true;
+        }
+        CollectionVersions.Kind kind = PATHS.get(request.getServletPath());
+        if (kind == null) {
+            return true;
+        }
+        String etag = versions.etag(kind);
+        response.setHeader(HttpHeaders.ETAG, etag);
+        // ответ можно хранить, но перед использованием - перепроверять
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+        if (matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return false;
+        }
+        return true;
+    }
+
+    // If-None-Match сравнивается слабо (RFC 9110): W/ игнорируется, допускается список и *
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) tag = tag.substring(2);
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,108 @@
+package systems.project.configuratons;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * Разводит соединения между основной БД и репликой. Транзакция readOnly получает соединение реплики,
+ * остальные - основной БД; соединение берётся лениво, на первом запросе, когда флаг транзакции уже известен.
+ * Окно read-your-writes считается для каждого клиента отдельно, от времени из {@link ReadYourWrites}:
+ * своей записи клиента или записи, о которой он узнал из события SSE и сейчас перечитывает. Пока окно
+ * открыто, его чтения идут в основную БД - реплика могла ещё не догнать запись. Чтения других клиентов
+ * остаются на реплике. Время - часы узлов, поэтому окно должно покрывать и отставание реплики,
+ * и расхождение часов между узлами.
+ */
+public class ReadWriteRouting {
+
+    private final DataSource primary;
+    private final DataSource replica;
+    private final long windowMillis;
+    private final LongSupplier clock;
+
+    private final Counter primaryReads;
+    private final Counter replicaReads;
+
+    public ReadWriteRouting(DataSource primary, DataSource replica, Duration window, MeterRegistry registry) {
+        this(primary, replica, window, registry, System::currentTimeMillis);
+    }
+
+    public ReadWriteRouting(DataSource primary,
+                            DataSource replica,
+                            Duration window,
+                            MeterRegistry registry,
+                            LongSupplier clock) {
+        this.primary = primary;
+        this.replica = replica;
+        this.windowMillis = window.toMillis();
+        this.clock = clock;
+
+        this.primaryReads = Counter.builder("tickets.datasource.reads")
+                .tag("target", "primary")
+                .description("Read-only транзакции, оставленные на основной БД окном read-your-writes")
+                .register(registry);
+        this.replicaReads = Counter.builder("tickets.datasource.reads")
+                .tag("target", "replica")
+                .description("Read-only транзакции, отправленные на реплику")
+                .register(registry);
+    }
+
+    // источник для JPA и Flyway: readOnly - в reads(), остальное - в writes()
+    public DataSource dataSource() {
+        var proxy = new LazyConnectionDataSourceProxy(writes());
+        proxy.setReadOnlyDataSource(reads());
+        return proxy;
+    }
+
+    public DataSource writes() {
+        return new DelegatingDataSource(primary) {
+            @Override
+            public Connection getConnection() throws SQLException {
+                trackWrite();
+                return super.getConnection();
+            }
+        };
+    }
+
+    public DataSource reads() {
+        return new DelegatingDataSource(replica) {
+            @Override
+            public Connection getConnection() throws SQLException {
+                if (withinWindow(ReadYourWrites.current())) {
+                    primaryReads.increment();
+                    return primary.getConnection();
+                }
+                replicaReads.increment();
+                return super.getConnection();
+            }
+        };
+    }
+
+    // без клиента (планировщик, старт приложения) и без записей окно закрыто
+    public boolean withinWindow(ReadYourWrites client) {
+        return client != null && client.lastWrite() > 0 && clock.getAsLong() - client.lastWrite() < windowMillis;
+    }
+
+    // окно открывает только зафиксированная запись: соединения вне транзакции (health, Flyway) его не трогают
+    private void trackWrite() {
+        ReadYourWrites client = ReadYourWrites.current();
+        if (client == null
+                || !TransactionSynchronizationManager.isSynchronizationActive()
+                || TransactionSynchronizationManager.isCurrentTransactionReadOnly()) return;
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                client.recordWrite(clock.getAsLong());
+            }
+        });
+    }
+}
@@ -0,0 +1,71 @@
+package systems.project.configuratons;
+
+/**
+ * Время последней записи, которую должен видеть клиент: его собственной или той, о которой он узнал
+ * из события SSE. Клиент присылает его в заголовке {@link #HEADER} и получает обратно в ответе на запрос,
+ * который сам что-то записал. Время - миллисекунды UTC: заголовок приходит на любой узел.
+ * Как и {@link RequestTiming}, текущее значение ставит {@link ReadYourWritesFilter} в потоке Tomcat
+ * и {@link BoundedExecutor} в потоке исполнителя; вне запроса current() - null, и чтения идут на реплику.
+ */
+public final class ReadYourWrites {
+
+    public static final String HEADER = "X-Last-Write";
+
+    // чтения видят каждую зафиксированную запись: так перечитывает изменения модель чтения
+    public static final ReadYourWrites PRIMARY = new ReadYourWrites(Long.MAX_VALUE);
+
+    private static final ThreadLocal<ReadYourWrites> CURRENT = new ThreadLocal<>();
+
+    // записи могут фиксироваться в разных потоках одного запроса
+    private volatile long lastWrite;
+    private volatile boolean wrote;
+
+    public ReadYourWrites(long lastWrite) {
+        this.lastWrite = lastWrite;
+    }
+
+    // значение заголовка; отсутствующее или битое - клиент записей не видел
+    public static ReadYourWrites fromHeader(String value) {
+        if (value == null || value.isBlank()) return new ReadYourWrites(0);
+        try {
+            return new ReadYourWrites(Math.max(0, Long.parseLong(value.trim())));
+        } catch (NumberFormatException e) {
+            return new ReadYourWrites(0);
+        }
+    }
+
+    public static ReadYourWrites current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Делает значение текущим в этом потоке.
+     *
+     * @return предыдущее текущее, его нужно вернуть через {@link #restore}
+     */
+    public static ReadYourWrites attach(ReadYourWrites value) {
+        ReadYourWrites previous = CURRENT.get();
+        CURRENT.set(value);
+        return previous;
+    }
+
+    public static void restore(ReadYourWrites previous) {
+        if (previous == null) CURRENT.remove();
+        else CURRENT.set(previous);
+    }
+
+    public long lastWrite() {
+        return lastWrite;
+    }
+
+    // запрос записал сам: время уходит клиенту в ответе
+    public boolean wrote() {
+        return wrote;
+    }
+
+    public synchronized void recordWrite(long at) {
+        if (this == PRIMARY) return;
+        lastWrite = Math.max(lastWrite, at);
+        wrote = true;
+    }
+}
@@ -0,0 +1,43 @@
+package systems.project.configuratons;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Заводит {@link ReadYourWrites} на запрос из заголовка клиента. Повторный диспетчинг асинхронного ответа
+ * берёт тот же объект из атрибута запроса: записи, зафиксированные в исполнителе, в нём уже учтены.
+ * Заголовок ответа ставит {@link systems.project.controllers.ReadYourWritesAdvice} перед записью тела.
+ */
+@Component
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    public static final String ATTRIBUTE = ReadYourWrites.class.getName();
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        ReadYourWrites client = (ReadYourWrites) request.getAttribute(ATTRIBUTE);
+        if (client == null) {
+            client = ReadYourWrites.fromHeader(request.getHeader(ReadYourWrites.HEADER));
+            request.setAttribute(ATTRIBUTE, client);
+        }
+
+        ReadYourWrites previous = ReadYourWrites.attach(client);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            ReadYourWrites.restore(previous);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package systems.project.configuratons;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Второй пул к реплике PostgreSQL для read-only транзакций. Включается заданием tickets.replica.jdbc-url;
+ * без него остаётся единственный источник spring.datasource из автоконфигурации Boot.
+ * Основной пул собирается здесь из тех же настроек spring.datasource.*, что и без реплики.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "tickets.replica", name = "jdbc-url")
+public class ReplicaConfig {
+
+    public static final String PRIMARY_POOL = "primaryDataSource";
+
+    public static final String REPLICA_POOL = "replicaDataSource";
+
+    @Bean(PRIMARY_POOL)
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource pool = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        if (StringUtils.hasText(properties.getName())) pool.setPoolName(properties.getName());
+        return pool;
+    }
+
+    // свойства пула Hikari (jdbc-url, username, maximum-pool-size, ...) прямо под tickets.replica
+    @Bean(REPLICA_POOL)
+    @ConfigurationProperties("tickets.replica")
+    public HikariDataSource replicaDataSource() {
+        HikariDataSource pool = new HikariDataSource();
+        pool.setPoolName("replica");
+        pool.setReadOnly(true);
+        return pool;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier(PRIMARY_POOL) HikariDataSource primary,
+                                 @Qualifier(REPLICA_POOL) HikariDataSource replica,
+                                 TicketsProperties properties,
+                                 MeterRegistry registry) {
+        // пул стартует при первом соединении, до него учётные данные ещё можно дополнить
+        if (replica.getUsername() == null) {
+            replica.setUsername(primary.getUsername());
+            replica.setPassword(primary.getPassword());
+        }
+        Duration window = properties.getReadRouting().getReadYourWritesWindow();
+        return new ReadWriteRouting(primary, replica, window, registry).dataSource();
+    }
+}
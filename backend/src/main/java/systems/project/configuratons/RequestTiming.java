@@ -0,0 +1,113 @@
+package systems.project.configuratons;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Разбивка времени одного HTTP-запроса по фазам: ожидание в очереди исполнителя, SQL, рассылка SSE,
+ * запись ответа. Запрос обрабатывается в нескольких потоках, поэтому текущая разбивка передаётся
+ * вместе с задачей: её ставит {@link RequestTimingFilter} в потоке Tomcat и {@link BoundedExecutor}
+ * в потоке исполнителя. Вне запроса (планировщик, старт приложения) current() - null, и record ничего не делает.
+ */
+public final class RequestTiming {
+
+    public static final String QUEUE = "queue";
+    public static final String DB = "db";
+    public static final String POOL = "pool";
+    public static final String SSE = "sse";
+    public static final String WRITE = "write";
+
+    private static final ThreadLocal<RequestTiming> CURRENT = new ThreadLocal<>();
+
+    private final long started = System.nanoTime();
+
+    // фаза -> суммарные наносекунды; фазы из разных потоков, защищено this
+    private final Map<String, Long> phases = new LinkedHashMap<>();
+
+    private final AtomicInteger statements = new AtomicInteger();
+    private final AtomicInteger rows = new AtomicInteger();
+
+    public static RequestTiming current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Делает timing текущим в этом потоке.
+     *
+     * @return предыдущий текущий, его нужно вернуть через {@link #restore}
+     */
+    public static RequestTiming attach(RequestTiming timing) {
+        RequestTiming previous = CURRENT.get();
+        CURRENT.set(timing);
+        return previous;
+    }
+
+    public static void restore(RequestTiming previous) {
+        if (previous == null) CURRENT.remove();
+        else CURRENT.set(previous);
+    }
+
+    public static void record(String phase, long nanos) {
+        RequestTiming timing = CURRENT.get();
+        if (timing != null) timing.add(phase, nanos);
+    }
+
+    public static void statementExecuted() {
+        RequestTiming timing = CURRENT.get();
+        if (timing != null) timing.statements.incrementAndGet();
+    }
+
+    public static void entityLoaded() {
+        RequestTiming timing = CURRENT.get();
+        if (timing != null) timing.rows.incrementAndGet();
+    }
+
+    public synchronized void add(String phase, long nanos) {
+        phases.merge(phase, nanos, Long::sum);
+    }
+
+    public synchronized long phaseNanos(String phase) {
+        return phases.getOrDefault(phase, 0L);
+    }
+
+    public long elapsedNanos() {
+        return System.nanoTime() - started;
+    }
+
+    public int statements() {
+        return statements.get();
+    }
+
+    public int rows() {
+        return rows.get();
+    }
+
+    // значение Server-Timing: фазы, число запросов и строк у db, total - время до записи ответа
+    public synchronized String serverTiming() {
+        StringJoiner header = new StringJoiner(", ");
+        phases.forEach((phase, nanos) -> {
+            String metric = phase + ";dur=" + millis(nanos);
+            if (phase.equals(DB)) metric += ";desc=\"" + statements() + " statements, " + rows() + " rows\"";
+            header.add(metric);
+        });
+        header.add("total;dur=" + millis(elapsedNanos()));
+        return header.toString();
+    }
+
+    // строка для лога медленных запросов: пары key=value в порядке появления фаз
+    public synchronized String summary() {
+        StringJoiner line = new StringJoiner(" ");
+        line.add("total=" + millis(elapsedNanos()) + "ms");
+        phases.forEach((phase, nanos) -> line.add(phase + "=" + millis(nanos) + "ms"));
+        line.add("statements=" + statements());
+        line.add("rows=" + rows());
+        return line.toString();
+    }
+
+    private static String millis(long nanos) {
+        return String.format(Locale.ROOT, "%.1f", nanos / 1e6);
+    }
+}
@@ -0,0 +1,73 @@
+package systems.project.configuratons;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.logging.Logger;
+
+/**
+ * Заводит {@link RequestTiming} на запрос и пишет в лог запросы дольше tickets.timing.slow-threshold.
+ * Асинхронный ответ проходит фильтр дважды: первый проход запускает работу, повторный диспетчинг
+ * сериализует и пишет готовый результат - его время и есть фаза write. Заголовок Server-Timing
+ * ставит {@link systems.project.controllers.ServerTimingAdvice} перед записью тела.
+ */
+@Component
+public class RequestTimingFilter extends OncePerRequestFilter {
+
+    public static final String ATTRIBUTE = RequestTiming.class.getName();
+
+    private final Logger log;
+    private final long slowNanos;
+
+    public RequestTimingFilter(TicketsProperties properties, Logger log) {
+        this.log = log;
+        this.slowNanos = properties.getTiming().getSlowThreshold().toNanos();
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    // подписка SSE длится минутами и завершается повторным диспетчингом - медленным запросом она не является
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getRequestURI().endsWith("/tickets/stream");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        boolean asyncDispatch = isAsyncDispatch(request);
+        RequestTiming timing = (RequestTiming) request.getAttribute(ATTRIBUTE);
+        if (timing == null) {
+            timing = new RequestTiming();
+            request.setAttribute(ATTRIBUTE, timing);
+        }
+
+        RequestTiming previous = RequestTiming.attach(timing);
+        long began = System.nanoTime();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            if (asyncDispatch) timing.add(RequestTiming.WRITE, System.nanoTime() - began);
+            RequestTiming.restore(previous);
+        }
+        // работа ушла в исполнитель - итог подведёт повторный диспетчинг
+        if (!isAsyncStarted(request)) logIfSlow(request, response, timing);
+    }
+
+    private void logIfSlow(HttpServletRequest request, HttpServletResponse response, RequestTiming timing) {
+        if (slowNanos <= 0 || timing.elapsedNanos() < slowNanos) return;
+        String query = request.getQueryString();
+        log.warning("slow request: method=" + request.getMethod()
+                + " uri=" + request.getRequestURI() + (query == null ? "" : "?" + query)
+                + " status=" + response.getStatus()
+                + " " + timing.summary());
+    }
+}
@@ -0,0 +1,12 @@
+package systems.project.configuratons;
+
+/**
+ * Считает загруженные сущности для {@link RequestTiming}. Подключён слушателем по умолчанию
+ * для всех сущностей в META-INF/orm.xml.
+ */
+public class RequestTimingLoadListener {
+
+    public void loaded(Object entity) {
+        RequestTiming.entityLoaded();
+    }
+}
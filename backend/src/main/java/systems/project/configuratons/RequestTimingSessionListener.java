@@ -0,0 +1,45 @@
+package systems.project.configuratons;
+
+import org.hibernate.BaseSessionEventListener;
+
+/**
+ * Время SQL и ожидания соединения для {@link RequestTiming}. Hibernate создаёт экземпляр на каждую сессию
+ * (hibernate.session.events.auto), сессия используется одним потоком - поля без синхронизации.
+ */
+public class RequestTimingSessionListener extends BaseSessionEventListener {
+
+    private long statementStarted;
+    private long acquisitionStarted;
+
+    @Override
+    public void jdbcConnectionAcquisitionStart() {
+        acquisitionStarted = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcConnectionAcquisitionEnd() {
+        RequestTiming.record(RequestTiming.POOL, System.nanoTime() - acquisitionStarted);
+    }
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        statementStarted = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        RequestTiming.record(RequestTiming.DB, System.nanoTime() - statementStarted);
+        RequestTiming.statementExecuted();
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        statementStarted = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        RequestTiming.record(RequestTiming.DB, System.nanoTime() - statementStarted);
+        RequestTiming.statementExecuted();
+    }
+}
@@ -0,0 +1,33 @@
+package systems.project.configuratons;
+
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Отсекает запрос до контроллера, если исполнитель БД уже насыщен: запрос не займёт поток Tomcat
+ * ожиданием, а клиент сразу получит 429. Гонку между проверкой и постановкой задачи
+ * закрывает {@link systems.project.controllers.ApiExceptionHandler}.
+ */
+public class SaturationInterceptor implements HandlerInterceptor {
+
+    private final BoundedExecutor executor;
+
+    public SaturationInterceptor(BoundedExecutor executor) {
+        this.executor = executor;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // повторный диспетчинг асинхронного ответа: работа уже выполнена, отсекать поздно
+        if (request.getDispatcherType() == DispatcherType.ASYNC) {
+            return true;
+        }
+        if (executor.isSaturated()) {
+            throw new TaskRejectedException("Исполнитель " + executor.getName() + " перегружен");
+        }
+        return true;
+    }
+}
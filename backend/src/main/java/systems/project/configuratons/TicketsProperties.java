@@ -0,0 +1,209 @@
+package systems.project.configuratons;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.Errors;
+import org.springframework.validation.Validator;
+import systems.project.models.api.AsyncMode;
+import systems.project.models.api.SseOverflowPolicy;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "tickets")
+public class TicketsProperties implements Validator {
+
+    private Listing listing = new Listing();
+
+    private Sse sse = new Sse();
+
+    private Async async = new Async();
+
+    private BulkImport bulkImport = new BulkImport();
+
+    private BulkDelete bulkDelete = new BulkDelete();
+
+    private Export export = new Export();
+
+    private ReferenceCache referenceCache = new ReferenceCache();
+
+    private ReadModel readModel = new ReadModel();
+
+    private Sell sell = new Sell();
+
+    private Holds holds = new Holds();
+
+    private Timing timing = new Timing();
+
+    private ReadRouting readRouting = new ReadRouting();
+
+    // Spring Boot проверяет свойства при привязке: неподходящая настройка не даёт приложению стартовать
+    @Override
+    public boolean supports(Class<?> clazz) {
+        return TicketsProperties.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public void validate(Object target, Errors errors) {
+        var props = (TicketsProperties) target;
+        int java = Runtime.version().feature();
+        if (props.getAsync().getMode() == AsyncMode.VIRTUAL && java < 21) {
+            errors.rejectValue("async.mode", "unsupported", "tickets.async.mode=VIRTUAL требует Java 21+, "
+                    + "приложение запущено на Java " + java + "; используйте PLATFORM");
+        }
+    }
+
+    @Data
+    public static class Listing {
+
+        // сколько билетов максимум отдаёт старый /get_tickets
+        private int legacyLimit = 1000;
+
+        private int defaultPageSize = 50;
+
+        private int maxPageSize = 500;
+    }
+
+    @Data
+    public static class Sse {
+
+        // сколько последних событий хранится для дозапроса по Last-Event-ID
+        private int replayCapacity = 1024;
+
+        // ограничение очереди неотправленных событий на одного подписчика
+        private int queueCapacity = 256;
+
+        private SseOverflowPolicy overflowPolicy = SseOverflowPolicy.DISCONNECT;
+
+        // сколько событий один поток рассылки отправляет подписчику за раз, прежде чем уступить другим
+        private int dispatchBatch = 64;
+
+        // окно склейки всплеска изменений в одно событие; 0 - отправлять сразу
+        private Duration coalesceWindow = Duration.ofMillis(100);
+
+        // при таком числе накопленных изменений событие уходит, не дожидаясь конца окна
+        private int coalesceMaxEvents = 500;
+
+        private int maxSubscribers = 5000;
+
+        // соединение закрывается контейнером по истечении срока, клиент переподключается с Last-Event-ID
+        private Duration emitterTimeout = Duration.ofMinutes(30);
+
+        private Duration heartbeatInterval = Duration.ofSeconds(15);
+
+        // подписчик, не принявший ни одного кадра за это время при непустой очереди, считается мёртвым
+        private Duration sendDeadline = Duration.ofSeconds(30);
+
+        private Duration reaperInterval = Duration.ofSeconds(5);
+    }
+
+    @Data
+    public static class Async {
+
+        // VIRTUAL требует Java 21: задача получает свой виртуальный поток, лимит задаёт только capacity
+        private AsyncMode mode = AsyncMode.PLATFORM;
+
+        // потоки для работы с БД; больше размера пула соединений Hikari ставить бессмысленно
+        private int dbThreads = 20;
+
+        // сколько задач БД может ждать сверх работающих, дальше запросы отклоняются с 429
+        private int dbQueueCapacity = 500;
+
+        private int sseThreads = 4;
+    }
+
+    @Data
+    public static class BulkImport {
+
+        // записей в одной транзакции; кратно hibernate.jdbc.batch_size
+        private int chunkSize = 500;
+
+        // предел на один запрос: отчёт по строкам держится в памяти
+        private int maxRows = 100_000;
+
+        // загрузка до max-rows строк идёт дольше обычного spring.mvc.async.request-timeout
+        private Duration timeout = Duration.ofMinutes(10);
+    }
+
+    @Data
+    public static class BulkDelete {
+
+        // билетов на один DELETE ... WHERE id IN и одну транзакцию; одно SSE-событие на чанк
+        private int chunkSize = 1000;
+    }
+
+    @Data
+    public static class Export {
+
+        // выгрузка большой таблицы идёт дольше обычного spring.mvc.async.request-timeout
+        private Duration timeout = Duration.ofMinutes(30);
+    }
+
+    @Data
+    public static class ReferenceCache {
+
+        // записей в каждом регионе сущностей (venue, event, person, location)
+        private long entityMaxSize = 10_000;
+
+        private Duration entityTtl = Duration.ofHours(1);
+
+        // результаты findAllBy хранят только id: срок жизни не больше entityTtl, иначе попадание в кэш
+        // запроса оборачивается загрузкой каждой сущности по отдельности
+        private long queryMaxSize = 1_000;
+
+        private Duration queryTtl = Duration.ofMinutes(10);
+    }
+
+    @Data
+    public static class ReadModel {
+
+        // все билеты в памяти процесса; чтения списка, по id и min-event идут мимо БД
+        private boolean enabled = false;
+    }
+
+    @Data
+    public static class Sell {
+
+        // попыток продажи при конфликте версий, включая первую
+        private int maxAttempts = 3;
+
+        // сколько помнить ответ на запрос с Idempotency-Key; повтор в этот срок получит тот же ответ
+        private Duration idempotencyTtl = Duration.ofHours(1);
+
+        private long idempotencyMaxKeys = 100_000;
+    }
+
+    @Data
+    public static class Holds {
+
+        // сколько бронь держит билет за покупателем, если не продлена и не подтверждена
+        private Duration ttl = Duration.ofMinutes(5);
+
+        // шаг колеса таймеров: бронь снимается не позже чем через tick после истечения
+        private Duration tick = Duration.ofMillis(100);
+
+        // ячеек колеса (округляется до степени двойки); бронь дольше tick * wheelSize ждёт нескольких оборотов
+        private int wheelSize = 4096;
+
+        // предел одновременных броней на узел, дальше hold_ticket отвечает 429
+        private int maxHolds = 1_000_000;
+    }
+
+    @Data
+    public static class Timing {
+
+        // заголовок Server-Timing с разбивкой времени запроса по фазам
+        private boolean serverTiming = true;
+
+        // запросы дольше порога пишутся в лог с той же разбивкой; 0 - не писать
+        private Duration slowThreshold = Duration.ofMillis(500);
+    }
+
+    @Data
+    public static class ReadRouting {
+
+        // после записи read-only транзакции того же клиента (X-Last-Write) столько времени идут в основную БД,
+        // а не на реплику; не меньше обычного отставания реплики плюс расхождение часов узлов
+        private Duration readYourWritesWindow = Duration.ofSeconds(2);
+    }
+}
@@ -0,0 +1,41 @@
+package systems.project.configuratons;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import systems.project.services.CollectionVersions;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    private final BoundedExecutor dbExecutor;
+
+    private final CollectionVersions versions;
+
+    public WebConfig(@Qualifier(AsyncConfig.DB_EXECUTOR) BoundedExecutor dbExecutor,
+                     CollectionVersions versions) {
+        this.dbExecutor = dbExecutor;
+        this.versions = versions;
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        // StreamingResponseBody занимает соединение с БД - пусть считается в лимите dbExecutor
+        configurer.setTaskExecutor(dbExecutor);
+        var timeouts = new AsyncTimeoutInterceptor();
+        configurer.registerCallableInterceptors(timeouts);
+        configurer.registerDeferredResultInterceptors(timeouts);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // раньше проверки насыщения: 304 не занимает исполнитель БД и отдаётся даже под нагрузкой
+        registry.addInterceptor(new ListingEtagInterceptor(versions))
+                .addPathPatterns(ListingEtagInterceptor.PATHS.keySet().toArray(String[]::new));
+        // поток SSE и actuator в БД не ходят - их не отсекаем
+        registry.addInterceptor(new SaturationInterceptor(dbExecutor))
+                .excludePathPatterns("/tickets/stream", "/actuator/**");
+    }
+}
@@ -0,0 +1,23 @@
+package systems.project.controllers;
+
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.context.request.async.AsyncRequestTimeoutException;
+import systems.project.models.api.AbstractResponse;
+
+@RestControllerAdvice
+public class ApiExceptionHandler {
+
+    @ExceptionHandler(TaskRejectedException.class)
+    public ResponseEntity<AbstractResponse<Object>> handleRejected(TaskRejectedException e) {
+        return ApiResponses.overloaded();
+    }
+
+    // срабатывает по spring.mvc.async.request-timeout, если future контроллера не завершился вовремя
+    @ExceptionHandler(AsyncRequestTimeoutException.class)
+    public ResponseEntity<AbstractResponse<Object>> handleTimeout(AsyncRequestTimeoutException e) {
+        return ApiResponses.timeout();
+    }
+}
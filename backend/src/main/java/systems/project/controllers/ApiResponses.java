@@ -0,0 +1,113 @@
+package systems.project.controllers;
+
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import systems.project.models.api.AbstractResponse;
+import systems.project.services.TicketSnapshot;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * Общие ответы API для асинхронных контроллеров: успех, ошибка и единое отображение исключений
+ * из цепочки CompletableFuture в HTTP-статус.
+ */
+final class ApiResponses {
+
+    // номер среза модели чтения, из которого собран ответ; без заголовка ответ прочитан из БД
+    static final String READ_MODEL_VERSION = "X-Read-Model-Version";
+
+    private ApiResponses() { }
+
+    /**
+     * Вызывает сервис так, что и синхронный отказ (например, переполненный исполнитель)
+     * оказывается в возвращаемом future.
+     */
+    static <R> CompletableFuture<R> call(Supplier<CompletableFuture<R>> action) {
+        try {
+            return action.get();
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    static <T> ResponseEntity<AbstractResponse<T>> ok(String message, T data) {
+        return ResponseEntity.ok(
+                AbstractResponse.<T>builder()
+                        .status("ok")
+                        .title("Успех")
+                        .message(message)
+                        .data(data)
+                        .build()
+        );
+    }
+
+    static <T> ResponseEntity<AbstractResponse<T>> error(String title, String message) {
+        return ResponseEntity.badRequest().body(
+                AbstractResponse.<T>builder()
+                        .status("error")
+                        .title(title)
+                        .message(message)
+                        .data(null)
+                        .build()
+        );
+    }
+
+    static <T> ResponseEntity<AbstractResponse<T>> conflict(String message) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(
+                AbstractResponse.<T>builder()
+                        .status("error")
+                        .title("Конфликт")
+                        .message(message)
+                        .build()
+        );
+    }
+
+    static <T> ResponseEntity<AbstractResponse<T>> fromSnapshot(ResponseEntity<AbstractResponse<T>> response,
+                                                                TicketSnapshot snapshot) {
+        return ResponseEntity.status(response.getStatusCode())
+                .headers(response.getHeaders())
+                .header(READ_MODEL_VERSION, Long.toString(snapshot.version()))
+                .body(response.getBody());
+    }
+
+    static <T> ResponseEntity<AbstractResponse<T>> failure(Throwable ex) {
+        Throwable cause = unwrap(ex);
+        if (cause instanceof TaskRejectedException) {
+            return overloaded();
+        }
+        return error("Ошибка", cause.getMessage());
+    }
+
+    static <T> ResponseEntity<AbstractResponse<T>> overloaded() {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(AbstractResponse.<T>builder()
+                        .status("error")
+                        .title("Сервер перегружен")
+                        .message("Слишком много запросов, повторите позже")
+                        .build());
+    }
+
+    static <T> ResponseEntity<AbstractResponse<T>> timeout() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body(AbstractResponse.<T>builder()
+                        .status("error")
+                        .title("Ошибка")
+                        .message("Истекло время ожидания ответа")
+                        .build());
+    }
+
+    private static Throwable unwrap(Throwable ex) {
+        Throwable cause = ex;
+        while ((cause instanceof CompletionException || cause instanceof ExecutionException)
+                && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
+}
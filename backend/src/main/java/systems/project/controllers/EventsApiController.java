@@ -9,8 +9,7 @@ import systems.project.models.api.AbstractResponse;
 import systems.project.models.envelopes.EventsEnvelope;
 import systems.project.services.EventService;
 
-import java.util.List;
-import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @CrossOrigin(origins = {"*"})
@@ -23,62 +22,22 @@ public class EventsApiController implements EventsApi {
     }
 
     @Override
-    public ResponseEntity<AbstractResponse> addEvent(Event event) {
-        try {
-            Map<String, Boolean> res = service.addEvent(event).join();
-            boolean ok = Boolean.TRUE.equals(res.get("status"));
-            if (ok) {
-                return ResponseEntity.ok(
-                        AbstractResponse.builder()
-                                .status("ok")
-                                .title("Успех")
-                                .message("Событие создано")
-                                .build()
-                );
-            }
-            return ResponseEntity.badRequest().body(
-                    AbstractResponse.builder()
-                            .status("error")
-                            .title("Ошибка")
-                            .message("Ошибка при создании события")
-                            .build()
-            );
-        } catch (Exception e) {
-            return ResponseEntity.badRequest().body(
-                    AbstractResponse.builder()
-                            .status("error")
-                            .title("Ошибка")
-                            .message(e.getMessage())
-                            .build()
-            );
-        }
+    public CompletableFuture<ResponseEntity<AbstractResponse<Void>>> addEvent(Event event) {
+        return ApiResponses.call(() -> service.addEvent(event))
+                .thenApply(res -> Boolean.TRUE.equals(res.get("status"))
+                        ? ApiResponses.<Void>ok("Событие создано", null)
+                        : ApiResponses.<Void>error("Ошибка", "Ошибка при создании события"))
+                .exceptionally(ApiResponses::failure);
     }
 
     @Override
-    public ResponseEntity<AbstractResponse<EventsEnvelope>> getEvents() {
-        try {
-            Map<String, List<Event>> map = service.getEvents().join();
-            List<Event> events = map.get("events");
-            EventsEnvelope envelope = new EventsEnvelope();
-            envelope.setEventList(events);
-
-            return ResponseEntity.ok(
-                    AbstractResponse.<EventsEnvelope>builder()
-                            .status("ok")
-                            .title("Успех")
-                            .message("Список событий")
-                            .data(envelope)
-                            .build()
-            );
-        } catch (Exception e) {
-            return ResponseEntity.badRequest().body(
-                    AbstractResponse.<EventsEnvelope>builder()
-                            .status("error")
-                            .title("Ошибка")
-                            .message(e.getMessage())
-                            .data(null)
-                            .build()
-            );
-        }
+    public CompletableFuture<ResponseEntity<AbstractResponse<EventsEnvelope>>> getEvents() {
+        return ApiResponses.call(service::getEvents)
+                .thenApply(map -> {
+                    EventsEnvelope envelope = new EventsEnvelope();
+                    envelope.setEventList(map.get("events"));
+                    return ApiResponses.ok("Список событий", envelope);
+                })
+                .exceptionally(ApiResponses::failure);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,91 @@
+package systems.project.controllers;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import systems.project.configuratons.TicketsProperties;
+import systems.project.models.api.AbstractResponse;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Ответы на запросы с заголовком Idempotency-Key. Повтор с тем же ключом получает исходный ответ
+ * без повторной работы, а повтор, пришедший пока первый запрос ещё выполняется, ждёт его результата.
+ * Хранятся только окончательные ответы: после 429 и 5xx запись удаляется, и повтор выполнится заново.
+ */
+@Component
+public class IdempotentRequests {
+
+    public static final String KEY_HEADER = "Idempotency-Key";
+
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private record Entry(String fingerprint, CompletableFuture<ResponseEntity<?>> response) { }
+
+    private final Cache<String, Entry> entries;
+
+    public IdempotentRequests(TicketsProperties properties, MeterRegistry registry) {
+        var sell = properties.getSell();
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(Math.max(1, sell.getIdempotencyMaxKeys()))
+                .expireAfterWrite(sell.getIdempotencyTtl())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(registry, entries, "idempotency");
+    }
+
+    /**
+     * @param operation   область ключа: один ключ в разных операциях не пересекается
+     * @param fingerprint содержимое запроса; тот же ключ с другим содержимым - ошибка клиента
+     */
+    @SuppressWarnings("unchecked")
+    public <T> CompletableFuture<ResponseEntity<AbstractResponse<T>>> execute(
+            String operation,
+            String key,
+            String fingerprint,
+            Supplier<CompletableFuture<ResponseEntity<AbstractResponse<T>>>> action) {
+        if (key.length() > MAX_KEY_LENGTH) {
+            return CompletableFuture.completedFuture(
+                    ApiResponses.error("Ошибка", KEY_HEADER + " длиннее " + MAX_KEY_LENGTH + " символов"));
+        }
+        String id = operation + ":" + key;
+        Entry mine = new Entry(fingerprint, new CompletableFuture<>());
+        Entry existing = entries.asMap().putIfAbsent(id, mine);
+        if (existing != null) {
+            if (!existing.fingerprint().equals(fingerprint)) {
+                return CompletableFuture.completedFuture(
+                        ApiResponses.error("Ошибка", KEY_HEADER + " уже использован для другого запроса"));
+            }
+            return existing.response()
+                    .thenApply(r -> replayed((ResponseEntity<AbstractResponse<T>>) r));
+        }
+
+        ApiResponses.call(action).whenComplete((r, ex) -> {
+            if (ex != null || !isFinal(r.getStatusCode())) entries.asMap().remove(id, mine);
+            if (ex != null) mine.response().completeExceptionally(ex);
+            else mine.response().complete(r);
+        });
+        return mine.response().thenApply(r -> (ResponseEntity<AbstractResponse<T>>) r);
+    }
+
+    // перегрузка и сбои сервера временные - их повтор должен выполниться заново
+    private static boolean isFinal(HttpStatusCode status) {
+        return status.is2xxSuccessful()
+                || (status.is4xxClientError() && status.value() != HttpStatus.TOO_MANY_REQUESTS.value());
+    }
+
+    private static <T> ResponseEntity<AbstractResponse<T>> replayed(ResponseEntity<AbstractResponse<T>> original) {
+        return ResponseEntity.status(original.getStatusCode())
+                .headers(original.getHeaders())
+                .header(REPLAYED_HEADER, "true")
+                .body(original.getBody());
+    }
+}
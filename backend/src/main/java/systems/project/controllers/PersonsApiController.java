@@ -9,8 +9,7 @@ import systems.project.models.api.AbstractResponse;
 import systems.project.models.envelopes.PersonEnvelope;
 import systems.project.services.PersonService;
 
-import java.util.List;
-import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @CrossOrigin(origins = {"*"})
@@ -23,62 +22,22 @@ public class PersonsApiController implements PersonsApi {
     }
 
     @Override
-    public ResponseEntity<AbstractResponse> addPerson(Person person) {
-        try {
-            Map<String, Boolean> res = personService.addPerson(person).join();
-            boolean ok = Boolean.TRUE.equals(res.get("status"));
-            if (ok) {
-                return ResponseEntity.ok(
-                        AbstractResponse.builder()
-                                .status("ok")
-                                .title("Успех")
-                                .message("Человек создан")
-                                .build()
-                );
-            }
-            return ResponseEntity.badRequest().body(
-                    AbstractResponse.builder()
-                            .status("error")
-                            .title("Ошибка")
-                            .message("Ошибка при создании человека")
-                            .build()
-            );
-        } catch (Exception e) {
-            return ResponseEntity.badRequest().body(
-                    AbstractResponse.builder()
-                            .status("error")
-                            .title("Ошибка")
-                            .message(e.getMessage())
-                            .build()
-            );
-        }
+    public CompletableFuture<ResponseEntity<AbstractResponse<Void>>> addPerson(Person person) {
+        return ApiResponses.call(() -> personService.addPerson(person))
+                .thenApply(res -> Boolean.TRUE.equals(res.get("status"))
+                        ? ApiResponses.<Void>ok("Человек создан", null)
+                        : ApiResponses.<Void>error("Ошибка", "Ошибка при создании человека"))
+                .exceptionally(ApiResponses::failure);
     }
 
     @Override
-    public ResponseEntity<AbstractResponse<PersonEnvelope>> getPersons() {
-        try {
-            Map<String, List<Person>> map = personService.getPersons().join();
-            List<Person> persons = map.get("persons");
-            PersonEnvelope envelope = new PersonEnvelope();
-            envelope.setPersonList(persons);
-
-            return ResponseEntity.ok(
-                    AbstractResponse.<PersonEnvelope>builder()
-                            .status("ok")
-                            .title("Успех")
-                            .message("Список людей")
-                            .data(envelope)
-                            .build()
-            );
-        } catch (Exception e) {
-            return ResponseEntity.badRequest().body(
-                    AbstractResponse.<PersonEnvelope>builder()
-                            .status("error")
-                            .title("Ошибка")
-                            .message(e.getMessage())
-                            .data(null)
-                            .build()
-            );
-        }
+    public CompletableFuture<ResponseEntity<AbstractResponse<PersonEnvelope>>> getPersons() {
+        return ApiResponses.call(personService::getPersons)
+                .thenApply(map -> {
+                    PersonEnvelope envelope = new PersonEnvelope();
+                    envelope.setPersonList(map.get("persons"));
+                    return ApiResponses.ok("Список людей", envelope);
+                })
+                .exceptionally(ApiResponses::failure);
     }
-}
\ No newline at end of file
+}
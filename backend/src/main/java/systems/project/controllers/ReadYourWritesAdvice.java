@@ -0,0 +1,42 @@
+package systems.project.controllers;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+import systems.project.configuratons.ReadYourWrites;
+import systems.project.configuratons.ReadYourWritesFilter;
+
+/**
+ * Возвращает клиенту время его записи в {@link ReadYourWrites#HEADER}: пока клиент присылает его обратно,
+ * его чтения остаются на основной БД. Ставится перед сериализацией тела, как Server-Timing.
+ */
+@RestControllerAdvice
+public class ReadYourWritesAdvice implements ResponseBodyAdvice<Object> {
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body,
+                                  MethodParameter returnType,
+                                  MediaType contentType,
+                                  Class<? extends HttpMessageConverter<?>> converterType,
+                                  ServerHttpRequest request,
+                                  ServerHttpResponse response) {
+        if (request instanceof ServletServerHttpRequest servlet
+                && servlet.getServletRequest().getAttribute(ReadYourWritesFilter.ATTRIBUTE) instanceof ReadYourWrites c
+                && c.wrote()) {
+            response.getHeaders().set(ReadYourWrites.HEADER, Long.toString(c.lastWrite()));
+            // фронтенд на другом origin: без этого axios не увидит заголовок
+            response.getHeaders().add("Access-Control-Expose-Headers", ReadYourWrites.HEADER);
+        }
+        return body;
+    }
+}
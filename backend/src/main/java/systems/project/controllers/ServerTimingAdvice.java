@@ -0,0 +1,48 @@
+package systems.project.controllers;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+import systems.project.configuratons.RequestTiming;
+import systems.project.configuratons.RequestTimingFilter;
+import systems.project.configuratons.TicketsProperties;
+
+/**
+ * Ставит Server-Timing перед сериализацией тела: после неё заголовки уже отправлены. Поэтому в заголовке
+ * нет фазы write - она попадает только в лог медленных запросов.
+ */
+@RestControllerAdvice
+public class ServerTimingAdvice implements ResponseBodyAdvice<Object> {
+
+    private final boolean enabled;
+
+    public ServerTimingAdvice(TicketsProperties properties) {
+        this.enabled = properties.getTiming().isServerTiming();
+    }
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return enabled;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body,
+                                  MethodParameter returnType,
+                                  MediaType contentType,
+                                  Class<? extends HttpMessageConverter<?>> converterType,
+                                  ServerHttpRequest request,
+                                  ServerHttpResponse response) {
+        if (request instanceof ServletServerHttpRequest servlet
+                && servlet.getServletRequest().getAttribute(RequestTimingFilter.ATTRIBUTE) instanceof RequestTiming t) {
+            response.getHeaders().set("Server-Timing", t.serverTiming());
+            // фронтенд на другом origin: без этого браузер не отдаёт Server-Timing в PerformanceResourceTiming
+            response.getHeaders().set("Timing-Allow-Origin", "*");
+        }
+        return body;
+    }
+}
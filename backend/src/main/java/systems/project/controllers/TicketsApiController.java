@@ -1,21 +1,52 @@
 package systems.project.controllers;
 
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import systems.project.configuratons.AsyncTimeoutInterceptor;
+import systems.project.configuratons.TicketsProperties;
 import systems.project.controllers.api.TicketsApi;
+import systems.project.exceptions.TooManySubscribersException;
 import systems.project.models.Ticket;
+import systems.project.models.TicketType;
 import systems.project.models.api.AbstractResponse;
 import systems.project.models.api.CloneRequest;
+import systems.project.models.api.ConfirmHoldRequest;
+import systems.project.models.api.HoldRequest;
+import systems.project.models.api.ReleaseHoldRequest;
+import systems.project.models.api.SellOutcome;
 import systems.project.models.api.SellRequestDTO;
+import systems.project.models.api.TicketDTO;
+import systems.project.models.api.TicketExportFormat;
+import systems.project.models.api.TicketFilter;
+import systems.project.models.api.TicketHold;
+import systems.project.models.api.TicketSort;
+import systems.project.models.api.UpdateOutcome;
+import systems.project.models.envelopes.TicketImportReport;
 import systems.project.models.envelopes.TicketsEnvelope;
+import systems.project.models.envelopes.TicketsPageEnvelope;
 import systems.project.services.TicketEventService;
+import systems.project.services.TicketExportService;
+import systems.project.services.TicketHolds;
+import systems.project.services.TicketImportService;
+import systems.project.services.TicketReadModel;
 import systems.project.services.TicketService;
+import systems.project.services.TicketSnapshot;
 
+import java.io.InputStream;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @CrossOrigin(origins = {"*"})
@@ -23,332 +54,332 @@ public class TicketsApiController implements TicketsApi {
 
     private final TicketService ticketService;
     private final TicketEventService events;
+    private final TicketImportService importService;
+    private final TicketExportService exportService;
+    private final TicketReadModel readModel;
+    private final IdempotentRequests idempotentRequests;
+    private final TicketHolds holds;
+    private final TicketsProperties properties;
 
-    public TicketsApiController(TicketService ticketService, TicketEventService events) {
+    public TicketsApiController(TicketService ticketService,
+                                TicketEventService events,
+                                TicketImportService importService,
+                                TicketExportService exportService,
+                                TicketReadModel readModel,
+                                IdempotentRequests idempotentRequests,
+                                TicketHolds holds,
+                                TicketsProperties properties) {
         this.ticketService = ticketService;
         this.events = events;
+        this.importService = importService;
+        this.exportService = exportService;
+        this.readModel = readModel;
+        this.idempotentRequests = idempotentRequests;
+        this.holds = holds;
+        this.properties = properties;
     }
 
     @Override
-    public ResponseEntity<AbstractResponse> addTicket(Ticket ticket) {
-        try {
-            Map<String, Boolean> res = ticketService.addTicket(ticket).join();
-            boolean ok = Boolean.TRUE.equals(res.get("status"));
-            if (ok) {
-                events.publishChange("add", null);
-                return ResponseEntity.ok(
-                        AbstractResponse.builder()
-                                .status("ok")
-                                .title("Успех")
-                                .message("Билет создан")
-                                .build()
-                );
-            }
-            return ResponseEntity.badRequest().body(
-                    AbstractResponse.builder()
-                            .status("error")
-                            .title("Ошибка")
-                            .message("Ошибка при создании билета")
-                            .build()
-            );
-        } catch (Exception e) {
-            return ResponseEntity.badRequest().body(
-                    AbstractResponse.builder()
-                            .status("error")
-                            .title("Ошибка")
-                            .message(e.getMessage())
-                            .build()
-            );
-        }
+    public CompletableFuture<ResponseEntity<AbstractResponse<Void>>> addTicket(Ticket ticket) {
+        return ApiResponses.call(() -> ticketService.addTicket(ticket))
+                .thenCompose(res -> Boolean.TRUE.equals(res.get("status"))
+                        ? publishCurrent("add", ticket.getId())
+                                .thenApply(v -> ApiResponses.<Void>ok("Билет создан", null))
+                        : CompletableFuture.completedFuture(
+                                ApiResponses.<Void>error("Ошибка", "Ошибка при создании билета")))
+                .exceptionally(ApiResponses::failure);
     }
 
     @Override
-    public ResponseEntity<AbstractResponse<Ticket>> cloneVip(CloneRequest cloneRequest) {
-        try {
-            Ticket copy = ticketService.cloneVip(cloneRequest.getTicketId()).join();
-            if (copy != null) {
-                events.publishChange("vip-clone", null);
-                return ResponseEntity.ok(
-                        AbstractResponse.<Ticket>builder()
-                                .status("ok")
-                                .title("Успех")
-                                .message("VIP-копия создана")
-                                .data(copy)
-                                .build()
-                );
-            }
-            return ResponseEntity.badRequest().body(
-                    AbstractResponse.<Ticket>builder()
-                            .status("error")
-                            .title("Не найдено")
-                            .message("Исходный билет не найден")
-                            .data(null)
-                            .build()
-            );
-        } catch (Exception e) {
-            return ResponseEntity.badRequest().body(
-                    AbstractResponse.<Ticket>builder()
-                            .status("error")
-                            .title("Ошибка")
-                            .message(e.getMessage())
-                            .data(null)
-                            .build()
-            );
-        }
+    public CompletableFuture<ResponseEntity<AbstractResponse<TicketImportReport>>> importTickets(
+            InputStream body,
+            HttpServletRequest request) {
+        long timeout = properties.getBulkImport().getTimeout().toMillis();
+        request.setAttribute(AsyncTimeoutInterceptor.TIMEOUT_ATTRIBUTE, timeout);
+        // тело читается в потоке dbExecutor по мере загрузки, целиком в память не попадает
+        return ApiResponses.call(() -> importService.importTickets(body))
+                .thenApply(report -> ApiResponses.ok(
+                        "Загружено " + report.getImported() + " из " + report.getTotal(), report))
+                .exceptionally(ApiResponses::failure);
     }
 
     @Override
-    public ResponseEntity<AbstractResponse<Integer>> countCommentLess(String comment) {
-        try {
-            Map<String, Long> map = ticketService.countByCommentLess(comment).join();
-            long cnt = Optional.ofNullable(map.get("count")).orElse(0L);
-            return ResponseEntity.ok(
-                    AbstractResponse.<Integer>builder()
-                            .status("ok")
-                            .title("Успех")
-                            .message("Подсчитано")
-                            .data((int) cnt)
-                            .build()
-            );
-        } catch (Exception e) {
-            return ResponseEntity.badRequest().body(
-                    AbstractResponse.<Integer>builder()
-                            .status("error")
-                            .title("Ошибка")
-                            .message(e.getMessage())
-                            .data(null)
-                            .build()
-            );
-        }
+    public CompletableFuture<ResponseEntity<AbstractResponse<TicketDTO>>> cloneVip(CloneRequest cloneRequest) {
+        return ApiResponses.call(() -> ticketService.cloneVip(cloneRequest.getTicketId()))
+                .thenApply(copy -> {
+                    if (copy == null) {
+                        return ApiResponses.<TicketDTO>error("Не найдено", "Исходный билет не найден");
+                    }
+                    events.publishChange("vip-clone", List.of(copy.getId()), List.of(copy));
+                    return ApiResponses.ok("VIP-копия создана", copy);
+                })
+                .exceptionally(ApiResponses::failure);
     }
 
     @Override
-    public ResponseEntity<AbstractResponse> deleteByComment(String commentEq) {
-        try {
-            boolean ok = ticketService.deleteAllByComment(commentEq).join();
-            if (ok) {
-                events.publishChange("bulk-delete", null);
-                return ResponseEntity.ok(
-                        AbstractResponse.builder()
-                                .status("ok")
-                                .title("Успех")
-                                .message("Удаление по комментарию выполнено")
-                                .build()
-                );
-            }
-            return ResponseEntity.badRequest().body(
-                    AbstractResponse.builder()
-                            .status("error")
-                            .title("Не найдено")
-                            .message("Не найдено билетов с таким comment")
-                            .build()
-            );
-        } catch (Exception e) {
-            return ResponseEntity.badRequest().body(
-                    AbstractResponse.builder()
-                            .status("error")
-                            .title("Ошибка")
-                            .message(e.getMessage())
-                            .build()
-            );
+    public CompletableFuture<ResponseEntity<AbstractResponse<Integer>>> countCommentLess(String comment) {
+        // не из модели чтения: строки сравнивает БД по своей сортировке (collation), в Java её не повторить
+        return ApiResponses.call(() -> ticketService.countByCommentLess(comment))
+                .thenApply(map -> {
+                    long cnt = Optional.ofNullable(map.get("count")).orElse(0L);
+                    return ApiResponses.ok("Подсчитано", (int) cnt);
+                })
+                .exceptionally(ApiResponses::failure);
+    }
+
+    @Override
+    public CompletableFuture<ResponseEntity<AbstractResponse<Void>>> deleteByComment(String commentEq) {
+        // событие на каждый удалённый чанк: при долгом удалении подписчики видят его ход
+        return ApiResponses.call(() -> ticketService.deleteAllByComment(commentEq,
+                        chunk -> events.publishChange("bulk-delete", chunk, List.of())))
+                .thenApply(ids -> ids.isEmpty()
+                        ? ApiResponses.<Void>error("Не найдено", "Не найдено билетов с таким comment")
+                        : ApiResponses.<Void>ok("Удалено билетов по комментарию: " + ids.size(), null))
+                .exceptionally(ApiResponses::failure);
+    }
+
+    @Override
+    public CompletableFuture<ResponseEntity<AbstractResponse<Void>>> deleteTicket(Integer id) {
+        return ApiResponses.call(() -> ticketService.removeTicket(id))
+                .thenApply(ok -> {
+                    if (!ok) {
+                        return ApiResponses.<Void>error("Не найдено",
+                                "Ошибка при удалении объекта, возможно его не существует");
+                    }
+                    events.publishChange("delete", List.of(id), List.of());
+                    return ApiResponses.<Void>ok("Билет удалён", null);
+                })
+                .exceptionally(ApiResponses::failure);
+    }
+
+    @Override
+    public CompletableFuture<ResponseEntity<AbstractResponse<TicketDTO>>> getTicketById(Integer id) {
+        TicketSnapshot snapshot = readModel.current();
+        if (snapshot != null) {
+            return CompletableFuture.completedFuture(
+                    ApiResponses.fromSnapshot(ticketFound(TicketDTO.from(snapshot.get(id))), snapshot));
         }
+        return ApiResponses.call(() -> ticketService.getTicket(id))
+                .thenApply(TicketsApiController::ticketFound)
+                .exceptionally(ApiResponses::failure);
+    }
+
+    private static ResponseEntity<AbstractResponse<TicketDTO>> ticketFound(TicketDTO t) {
+        return t != null
+                ? ApiResponses.ok("Билет найден", t)
+                : ApiResponses.error("Не найдено", "Билет не найден");
     }
 
     @Override
-    public ResponseEntity<AbstractResponse> deleteTicket(Integer id) {
-        try {
-            boolean ok = ticketService.removeTicket(id).join();
-            if (ok) {
-                events.publishChange("delete", id);
-                return ResponseEntity.ok(
-                        AbstractResponse.builder()
-                                .status("ok")
-                                .title("Успех")
-                                .message("Билет удалён")
-                                .build()
-                );
-            }
-            return ResponseEntity.badRequest().body(
-                    AbstractResponse.builder()
-                            .status("error")
-                            .title("Не найдено")
-                            .message("Ошибка при удалении объекта, возможно его не существует")
-                            .build()
-            );
-        } catch (Exception e) {
-            return ResponseEntity.badRequest().body(
-                    AbstractResponse.builder()
-                            .status("error")
-                            .title("Ошибка")
-                            .message(e.getMessage())
-                            .build()
-            );
+    public CompletableFuture<ResponseEntity<AbstractResponse<TicketsEnvelope>>> getTickets() {
+        TicketSnapshot snapshot = readModel.current();
+        if (snapshot != null) {
+            int limit = Math.max(1, properties.getListing().getLegacyLimit());
+            TicketsEnvelope env = TicketsEnvelope.firstOf(TicketDTO.fromAll(snapshot.firstById(limit + 1)), limit);
+            return CompletableFuture.completedFuture(ApiResponses.fromSnapshot(ticketList(env), snapshot));
         }
+        return ApiResponses.call(ticketService::getTickets)
+                .thenApply(TicketsApiController::ticketList)
+                .exceptionally(ApiResponses::failure);
+    }
+
+    private static ResponseEntity<AbstractResponse<TicketsEnvelope>> ticketList(TicketsEnvelope env) {
+        return ApiResponses.ok("Список билетов", env);
     }
 
     @Override
-    public ResponseEntity<AbstractResponse<Ticket>> getTicketById(Integer id) {
-        try {
-            Ticket t = ticketService.getTicket(id).join();
-            if (t != null) {
-                return ResponseEntity.ok(
-                        AbstractResponse.<Ticket>builder()
-                                .status("ok")
-                                .title("Успех")
-                                .message("Билет найден")
-                                .data(t)
-                                .build()
-                );
+    public CompletableFuture<ResponseEntity<AbstractResponse<TicketsPageEnvelope>>> getTicketsPage(
+            String cursor,
+            Integer size,
+            TicketSort sort,
+            Sort.Direction direction,
+            String name,
+            TicketType type,
+            Float priceMin,
+            Float priceMax,
+            Long venueId,
+            Integer eventId,
+            Long personId) {
+        TicketFilter filter = new TicketFilter();
+        filter.setName(name);
+        filter.setType(type);
+        filter.setPriceMin(priceMin);
+        filter.setPriceMax(priceMax);
+        filter.setVenueId(venueId);
+        filter.setEventId(eventId);
+        filter.setPersonId(personId);
+
+        return ApiResponses.call(() -> ticketService.getTicketsPage(filter, cursor, size, sort, direction))
+                .thenApply(page -> ApiResponses.ok("Страница билетов", page))
+                .exceptionally(ApiResponses::failure);
+    }
+
+    @Override
+    public ResponseEntity<StreamingResponseBody> exportTickets(TicketExportFormat format,
+                                                               Integer eventId,
+                                                               Long venueId,
+                                                               Boolean gzip,
+                                                               String acceptEncoding,
+                                                               HttpServletRequest request) {
+        TicketExportFormat fmt = format == null ? TicketExportFormat.NDJSON : format;
+        boolean compress = Boolean.TRUE.equals(gzip) || (acceptEncoding != null && acceptEncoding.contains("gzip"));
+        request.setAttribute(AsyncTimeoutInterceptor.TIMEOUT_ATTRIBUTE, properties.getExport().getTimeout().toMillis());
+
+        // тело пишется в потоке dbExecutor после возврата из метода
+        StreamingResponseBody body = out -> {
+            if (compress) {
+                GZIPOutputStream zip = new GZIPOutputStream(out, 64 * 1024);
+                exportService.export(fmt, eventId, venueId, zip);
+                zip.finish();
+            } else {
+                exportService.export(fmt, eventId, venueId, out);
             }
-            return ResponseEntity.badRequest().body(
-                    AbstractResponse.<Ticket>builder()
-                            .status("error")
-                            .title("Не найдено")
-                            .message("Билет не найден")
-                            .data(null)
-                            .build()
-            );
-        } catch (Exception e) {
-            return ResponseEntity.badRequest().body(
-                    AbstractResponse.<Ticket>builder()
-                            .status("error")
-                            .title("Ошибка")
-                            .message(e.getMessage())
-                            .data(null)
-                            .build()
-            );
-        }
+        };
+
+        var response = ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(fmt.getContentType() + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("tickets." + fmt.getExtension())
+                        .build()
+                        .toString())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (compress) response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        return response.body(body);
     }
 
     @Override
-    public ResponseEntity<AbstractResponse<TicketsEnvelope>> getTickets() {
-        try {
-            Map<String, List<Ticket>> map = ticketService.getTickets().join();
-            List<Ticket> tickets = map.get("tickets");
-            TicketsEnvelope env = new TicketsEnvelope();
-            env.setTicketList(tickets);
-
-            return ResponseEntity.ok(
-                    AbstractResponse.<TicketsEnvelope>builder()
-                            .status("ok")
-                            .title("Успех")
-                            .message("Список билетов")
-                            .data(env)
-                            .build()
-            );
-        } catch (Exception e) {
-            return ResponseEntity.badRequest().body(
-                    AbstractResponse.<TicketsEnvelope>builder()
-                            .status("error")
-                            .title("Ошибка")
-                            .message(e.getMessage())
-                            .data(null)
-                            .build()
-            );
+    public CompletableFuture<ResponseEntity<AbstractResponse<TicketDTO>>> minEventTicket() {
+        TicketSnapshot snapshot = readModel.current();
+        if (snapshot != null) {
+            return CompletableFuture.completedFuture(
+                    ApiResponses.fromSnapshot(minEventFound(TicketDTO.from(snapshot.minEventTicket())), snapshot));
         }
+        return ApiResponses.call(ticketService::getWithMinEvent)
+                .thenApply(TicketsApiController::minEventFound)
+                .exceptionally(ApiResponses::failure);
+    }
+
+    private static ResponseEntity<AbstractResponse<TicketDTO>> minEventFound(TicketDTO t) {
+        return t != null
+                ? ApiResponses.ok("Минимальный по событию билет", t)
+                : ApiResponses.error("Не найдено", "Не найден билет с событием");
     }
 
     @Override
-    public ResponseEntity<AbstractResponse<Ticket>> minEventTicket() {
-        try {
-            Ticket t = ticketService.getWithMinEvent().join();
-            if (t != null) {
-                return ResponseEntity.ok(
-                        AbstractResponse.<Ticket>builder()
-                                .status("ok")
-                                .title("Успех")
-                                .message("Минимальный по событию билет")
-                                .data(t)
-                                .build()
-                );
-            }
-            return ResponseEntity.badRequest().body(
-                    AbstractResponse.<Ticket>builder()
-                            .status("error")
-                            .title("Не найдено")
-                            .message("Не найден билет с событием")
-                            .data(null)
-                            .build()
-            );
-        } catch (Exception e) {
-            return ResponseEntity.badRequest().body(
-                    AbstractResponse.<Ticket>builder()
-                            .status("error")
-                            .title("Ошибка")
-                            .message(e.getMessage())
-                            .data(null)
-                            .build()
-            );
+    public CompletableFuture<ResponseEntity<AbstractResponse<Void>>> sellTicket(SellRequestDTO req,
+                                                                            String idempotencyKey) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return sell(req.getTicketId(), req.getPersonId(), req.getAmount());
         }
+        String fingerprint = req.getTicketId() + ":" + req.getPersonId() + ":" + req.getAmount();
+        return idempotentRequests.execute("sell_ticket", idempotencyKey, fingerprint,
+                () -> sell(req.getTicketId(), req.getPersonId(), req.getAmount()));
+    }
+
+    private CompletableFuture<ResponseEntity<AbstractResponse<Void>>> sell(Integer ticketId,
+                                                                    Integer personId,
+                                                                    float amount) {
+        return ApiResponses.call(() -> ticketService.sellTicket(ticketId, personId, amount))
+                .thenCompose(outcome -> outcome == SellOutcome.SOLD
+                        ? publishCurrent("ticket-sell", ticketId)
+                                .thenApply(v -> ApiResponses.<Void>ok("Билет продан", null))
+                        : CompletableFuture.completedFuture(sellRejected(outcome)))
+                .exceptionally(ApiResponses::failure);
+    }
+
+    private static ResponseEntity<AbstractResponse<Void>> sellRejected(SellOutcome outcome) {
+        return switch (outcome) {
+            case INVALID_AMOUNT -> ApiResponses.error("Ошибка", "Сумма продажи должна быть больше 0");
+            case TICKET_NOT_FOUND -> ApiResponses.error("Не найдено", "Билет не найден");
+            case PERSON_NOT_FOUND -> ApiResponses.error("Не найдено", "Покупатель не найден");
+            case CONFLICT -> ApiResponses.conflict("Билет уже продан");
+            case HELD_BY_OTHER -> ApiResponses.conflict("Билет забронирован другим покупателем");
+            default -> ApiResponses.error("Ошибка", "Продажа не выполнена");
+        };
     }
 
     @Override
-    public ResponseEntity<AbstractResponse> sellTicket(SellRequestDTO req) {
-        try {
-            boolean ok = ticketService.sellTicket(req.getTicketId(), req.getPersonId(), req.getAmount()).join();
-            if (ok) {
-                events.publishChange("ticket-sell", null);
-                return ResponseEntity.ok(
-                        AbstractResponse.builder()
-                                .status("ok")
-                                .title("Успех")
-                                .message("Билет продан")
-                                .build()
-                );
-            }
-            return ResponseEntity.badRequest().body(
-                    AbstractResponse.builder()
-                            .status("error")
-                            .title("Ошибка")
-                            .message("Продажа не выполнена")
-                            .build()
-            );
-        } catch (Exception e) {
-            return ResponseEntity.badRequest().body(
-                    AbstractResponse.builder()
-                            .status("error")
-                            .title("Ошибка")
-                            .message(e.getMessage())
-                            .build()
-            );
+    public CompletableFuture<ResponseEntity<AbstractResponse<TicketHold>>> holdTicket(HoldRequest req) {
+        if (req.getTicketId() == null || req.getPersonId() == null) {
+            return CompletableFuture.completedFuture(ApiResponses.error("Ошибка", "Нужны ticketId и personId"));
+        }
+        // без модели чтения существование билета не проверяется: бронь не трогает БД, продажа проверит сама
+        TicketSnapshot snapshot = readModel.current();
+        if (snapshot != null && snapshot.get(req.getTicketId()) == null) {
+            return CompletableFuture.completedFuture(ApiResponses.error("Не найдено", "Билет не найден"));
         }
+        return ApiResponses.call(() -> CompletableFuture.completedFuture(
+                        holds.hold(req.getTicketId(), req.getPersonId())))
+                .thenApply(hold -> hold != null
+                        ? ApiResponses.ok("Билет забронирован", hold)
+                        : ApiResponses.<TicketHold>conflict("Билет забронирован другим покупателем"))
+                .exceptionally(ApiResponses::failure);
     }
 
     @Override
-    public SseEmitter stream() {
-        return events.subscribe();
+    public CompletableFuture<ResponseEntity<AbstractResponse<Void>>> releaseHold(ReleaseHoldRequest req) {
+        return CompletableFuture.completedFuture(holds.release(req.getTicketId(), req.getToken())
+                ? ApiResponses.ok("Бронь снята", null)
+                : ApiResponses.error("Не найдено", "Бронь не найдена или истекла"));
     }
 
+    @Override
+    public CompletableFuture<ResponseEntity<AbstractResponse<Void>>> confirmHold(ConfirmHoldRequest req,
+                                                                             String idempotencyKey) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return confirm(req);
+        }
+        String fingerprint = req.getTicketId() + ":" + req.getToken() + ":" + req.getAmount();
+        return idempotentRequests.execute("confirm_hold", idempotencyKey, fingerprint, () -> confirm(req));
+    }
+
+    private CompletableFuture<ResponseEntity<AbstractResponse<Void>>> confirm(ConfirmHoldRequest req) {
+        Integer personId = holds.holder(req.getTicketId(), req.getToken());
+        if (personId == null) {
+            return CompletableFuture.completedFuture(ApiResponses.conflict("Бронь не найдена или истекла"));
+        }
+        return sell(req.getTicketId(), personId, req.getAmount());
+    }
 
     @Override
-    public ResponseEntity<AbstractResponse> updateTicket(Integer id, Ticket ticket) {
+    public SseEmitter stream(String lastEventId) {
         try {
-            boolean ok = ticketService.updateTicket(id, ticket).join();
-            if (ok) {
-                events.publishChange("update", id);
-                return ResponseEntity.ok(
-                        AbstractResponse.builder()
-                                .status("ok")
-                                .title("Успех")
-                                .message("Билет обновлён")
-                                .build()
-                );
-            }
-            return ResponseEntity.badRequest().body(
-                    AbstractResponse.builder()
-                            .status("error")
-                            .title("Не найдено")
-                            .message("Билет не найден или не обновлён")
-                            .build()
-            );
-        } catch (Exception e) {
-            return ResponseEntity.badRequest().body(
-                    AbstractResponse.builder()
-                            .status("error")
-                            .title("Ошибка")
-                            .message(e.getMessage())
-                            .build()
-            );
+            return events.subscribe(lastEventId);
+        } catch (TooManySubscribersException e) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage(), e);
         }
     }
-}
\ No newline at end of file
+
+    // изменение уже сохранено: если перечитать билет не вышло, событие уходит без данных и клиент перечитает список
+    private CompletableFuture<Void> publishCurrent(String action, Integer id) {
+        if (id == null) {
+            events.publishChange(action, List.of(), null);
+            return CompletableFuture.completedFuture(null);
+        }
+        return ApiResponses.call(() -> ticketService.getTicket(id))
+                .handle((current, ex) -> {
+                    List<TicketDTO> tickets = ex != null ? null : current == null ? List.of() : List.of(current);
+                    events.publishChange(action, List.of(id), tickets);
+                    return null;
+                });
+    }
+
+    @Override
+    public CompletableFuture<ResponseEntity<AbstractResponse<Void>>> updateTicket(Integer id, Ticket ticket) {
+        return ApiResponses.call(() -> ticketService.updateTicket(id, ticket))
+                .thenCompose(outcome -> outcome == UpdateOutcome.UPDATED
+                        ? publishCurrent("update", id)
+                                .thenApply(v -> ApiResponses.<Void>ok("Билет обновлён", null))
+                        : CompletableFuture.completedFuture(updateRejected(outcome)))
+                .exceptionally(ApiResponses::failure);
+    }
+
+    private static ResponseEntity<AbstractResponse<Void>> updateRejected(UpdateOutcome outcome) {
+        return switch (outcome) {
+            case NOT_FOUND -> ApiResponses.error("Не найдено", "Билет не найден");
+            case VERSION_REQUIRED -> ApiResponses.error("Ошибка", "Нужна версия, с которой билет был прочитан");
+            case CONFLICT -> ApiResponses.conflict("Билет изменён после чтения, перечитайте его");
+            default -> ApiResponses.error("Ошибка", "Билет не обновлён");
+        };
+    }
+}
@@ -9,8 +9,7 @@ import systems.project.models.api.AbstractResponse;
 import systems.project.models.envelopes.VenuesEnvelope;
 import systems.project.services.VenueService;
 
-import java.util.List;
-import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @CrossOrigin(origins = {"*"})
@@ -23,62 +22,22 @@ public class VenuesApiController implements VenuesApi {
     }
 
     @Override
-    public ResponseEntity<AbstractResponse> addVenue(Venue venue) {
-        try {
-            Map<String, Boolean> res = venueService.addVenue(venue).join();
-            boolean ok = Boolean.TRUE.equals(res.get("status"));
-            if (ok) {
-                return ResponseEntity.ok(
-                        AbstractResponse.builder()
-                                .status("ok")
-                                .title("Успех")
-                                .message("Площадка создана")
-                                .build()
-                );
-            }
-            return ResponseEntity.badRequest().body(
-                    AbstractResponse.builder()
-                            .status("error")
-                            .title("Ошибка")
-                            .message("Ошибка при создании площадки")
-                            .build()
-            );
-        } catch (Exception e) {
-            return ResponseEntity.badRequest().body(
-                    AbstractResponse.builder()
-                            .status("error")
-                            .title("Ошибка")
-                            .message(e.getMessage())
-                            .build()
-            );
-        }
+    public CompletableFuture<ResponseEntity<AbstractResponse<Void>>> addVenue(Venue venue) {
+        return ApiResponses.call(() -> venueService.addVenue(venue))
+                .thenApply(res -> Boolean.TRUE.equals(res.get("status"))
+                        ? ApiResponses.<Void>ok("Площадка создана", null)
+                        : ApiResponses.<Void>error("Ошибка", "Ошибка при создании площадки"))
+                .exceptionally(ApiResponses::failure);
     }
 
     @Override
-    public ResponseEntity<AbstractResponse<VenuesEnvelope>> getVenues() {
-        try {
-            Map<String, List<Venue>> map = venueService.getVenues().join();
-            List<Venue> venues = map.get("venues");
-            VenuesEnvelope envelope = new VenuesEnvelope();
-            envelope.setVenueList(venues);
-
-            return ResponseEntity.ok(
-                    AbstractResponse.<VenuesEnvelope>builder()
-                            .status("ok")
-                            .title("Успех")
-                            .message("Список площадок")
-                            .data(envelope)
-                            .build()
-            );
-        } catch (Exception e) {
-            return ResponseEntity.badRequest().body(
-                    AbstractResponse.<VenuesEnvelope>builder()
-                            .status("error")
-                            .title("Ошибка")
-                            .message(e.getMessage())
-                            .data(null)
-                            .build()
-            );
-        }
+    public CompletableFuture<ResponseEntity<AbstractResponse<VenuesEnvelope>>> getVenues() {
+        return ApiResponses.call(venueService::getVenues)
+                .thenApply(map -> {
+                    VenuesEnvelope envelope = new VenuesEnvelope();
+                    envelope.setVenueList(map.get("venues"));
+                    return ApiResponses.ok("Список площадок", envelope);
+                })
+                .exceptionally(ApiResponses::failure);
     }
-}
\ No newline at end of file
+}
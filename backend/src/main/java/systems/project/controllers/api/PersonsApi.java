@@ -25,6 +25,7 @@ import systems.project.models.api.AbstractResponse;
 import systems.project.models.envelopes.PersonEnvelope;
 
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 @Generated(value = "org.openapitools.codegen.languages.SpringCodegen",
         date = "2025-09-21T19:04:05.004649+03:00[Europe/Moscow]",
@@ -64,7 +65,7 @@ public interface PersonsApi {
         consumes = { "application/json" }
     )
     
-    ResponseEntity<AbstractResponse> addPerson(
+    CompletableFuture<ResponseEntity<AbstractResponse<Void>>> addPerson(
         @Parameter(name = "Person", description = "", required = true) @Valid @RequestBody Person person
     );
 
@@ -94,7 +95,7 @@ public interface PersonsApi {
         produces = { "application/json" }
     )
     
-    ResponseEntity<AbstractResponse<PersonEnvelope>> getPersons(
+    CompletableFuture<ResponseEntity<AbstractResponse<PersonEnvelope>>> getPersons(
         
     );
 
@@ -13,25 +13,41 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.annotation.Generated;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 
 import jakarta.validation.constraints.NotNull;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.context.request.NativeWebRequest;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import systems.project.models.Ticket;
+import systems.project.models.TicketType;
 import systems.project.models.api.AbstractResponse;
 import systems.project.models.api.CloneRequest;
+import systems.project.models.api.ConfirmHoldRequest;
+import systems.project.models.api.HoldRequest;
+import systems.project.models.api.ReleaseHoldRequest;
 import systems.project.models.api.SellRequestDTO;
+import systems.project.models.api.TicketDTO;
+import systems.project.models.api.TicketExportFormat;
+import systems.project.models.api.TicketHold;
+import systems.project.models.api.TicketSort;
+import systems.project.models.envelopes.TicketImportReport;
 import systems.project.models.envelopes.TicketsEnvelope;
+import systems.project.models.envelopes.TicketsPageEnvelope;
 
+import java.io.InputStream;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 @Generated(value = "org.openapitools.codegen.languages.SpringCodegen",
         date = "2025-09-21T19:04:05.004649+03:00[Europe/Moscow]",
@@ -71,11 +87,47 @@ public interface TicketsApi {
         consumes = { "application/json" }
     )
     
-     ResponseEntity<AbstractResponse> addTicket(
+    CompletableFuture<ResponseEntity<AbstractResponse<Void>>> addTicket(
         @Parameter(name = "Ticket", description = "", required = true) @Valid @RequestBody Ticket ticket
     );
 
 
+    /**
+     * POST /import_tickets : Пакетная загрузка билетов
+     * Принимает JSON-массив билетов или NDJSON (один билет на строку). Записи вставляются
+     * чанками по tickets.bulk-import.chunk-size в отдельных транзакциях. Ответ ждётся
+     * tickets.bulk-import.timeout, а не общий spring.mvc.async.request-timeout.
+     *
+     * @param body поток с билетами (required)
+     * @return Отчёт по каждой записи (status code 200)
+     *         or Ошибка чтения (status code 400)
+     */
+    @Operation(
+        operationId = "importTickets",
+        summary = "Пакетная загрузка билетов",
+        tags = { "Tickets" },
+        responses = {
+            @ApiResponse(responseCode = "200", description = "Отчёт по каждой записи", content = {
+                @Content(mediaType = "application/json", schema = @Schema(implementation = AbstractResponse.class))
+            }),
+            @ApiResponse(responseCode = "400", description = "Ошибка чтения", content = {
+                @Content(mediaType = "application/json", schema = @Schema(implementation = AbstractResponse.class))
+            })
+        }
+    )
+    @RequestMapping(
+        method = RequestMethod.POST,
+        value = "/import_tickets",
+        produces = { "application/json" },
+        consumes = { "application/json", "application/x-ndjson" }
+    )
+    
+    CompletableFuture<ResponseEntity<AbstractResponse<TicketImportReport>>> importTickets(
+        @Parameter(hidden = true) InputStream body,
+        @Parameter(hidden = true) HttpServletRequest request
+    );
+
+
     /**
      * POST /clone_vip : Клонировать билет как VIP (цена * 2)
      *
@@ -103,7 +155,7 @@ public interface TicketsApi {
         consumes = { "application/json" }
     )
     
-    ResponseEntity<AbstractResponse<Ticket>> cloneVip(
+    CompletableFuture<ResponseEntity<AbstractResponse<TicketDTO>>> cloneVip(
         @Parameter(name = "CloneRequest",
                 description = "",
                 required = true)
@@ -138,7 +190,7 @@ public interface TicketsApi {
         produces = { "application/json" }
     )
     
-    ResponseEntity<AbstractResponse<Integer>> countCommentLess(
+    CompletableFuture<ResponseEntity<AbstractResponse<Integer>>> countCommentLess(
         @NotNull @Parameter(name = "comment",
                 description = "",
                 required = true,
@@ -172,7 +224,7 @@ public interface TicketsApi {
         produces = { "application/json" }
     )
     
-    ResponseEntity<AbstractResponse> deleteByComment(
+    CompletableFuture<ResponseEntity<AbstractResponse<Void>>> deleteByComment(
         @NotNull @Parameter(name = "commentEq",
                 description = "",
                 required = true,
@@ -207,7 +259,7 @@ public interface TicketsApi {
         produces = { "application/json" }
     )
     
-     ResponseEntity<AbstractResponse> deleteTicket(
+    CompletableFuture<ResponseEntity<AbstractResponse<Void>>> deleteTicket(
         @Parameter(name = "id", description = "", required = true, in = ParameterIn.PATH) @PathVariable("id") Integer id
     );
 
@@ -238,12 +290,14 @@ public interface TicketsApi {
         produces = { "application/json" }
     )
     
-     ResponseEntity<AbstractResponse<Ticket>> getTicketById(
+    CompletableFuture<ResponseEntity<AbstractResponse<TicketDTO>>> getTicketById(
         @Parameter(name = "id", description = "", required = true, in = ParameterIn.PATH) @PathVariable("id") Integer id
     );
 
     /**
      * GET /get_tickets : Получить список билетов
+     * Режим совместимости: отдаётся не более tickets.listing.legacy-limit билетов по возрастанию id,
+     * truncated = true, если билетов больше; для полного обхода используйте /get_tickets_page.
      *
      * @return Успех (status code 200)
      *         or Ошибка (status code 400)
@@ -267,7 +321,112 @@ public interface TicketsApi {
         produces = { "application/json" }
     )
     
-    ResponseEntity<AbstractResponse<TicketsEnvelope>> getTickets(
+    CompletableFuture<ResponseEntity<AbstractResponse<TicketsEnvelope>>> getTickets(
+    );
+
+
+    /**
+     * GET /export_tickets : Потоковая выгрузка билетов
+     * Строки пишутся в ответ по мере чтения курсором. Сжатие gzip включается параметром gzip
+     * или заголовком Accept-Encoding.
+     *
+     * @param format NDJSON или CSV (optional, default to NDJSON)
+     * @param eventId ID события (optional)
+     * @param venueId ID площадки (optional)
+     * @param gzip сжать ответ (optional)
+     * @return Поток билетов (status code 200)
+     */
+    @Operation(
+        operationId = "exportTickets",
+        summary = "Потоковая выгрузка билетов",
+        tags = { "Tickets" },
+        responses = {
+            @ApiResponse(responseCode = "200", description = "Поток билетов", content = {
+                @Content(mediaType = "application/x-ndjson", schema = @Schema(implementation = String.class)),
+                @Content(mediaType = "text/csv", schema = @Schema(implementation = String.class))
+            })
+        }
+    )
+    @RequestMapping(
+        method = RequestMethod.GET,
+        value = "/export_tickets",
+        produces = { "application/x-ndjson", "text/csv" }
+    )
+
+    ResponseEntity<StreamingResponseBody> exportTickets(
+        @Parameter(name = "format", in = ParameterIn.QUERY)
+        @RequestParam(value = "format", required = false) TicketExportFormat format,
+        @Parameter(name = "eventId", in = ParameterIn.QUERY)
+        @RequestParam(value = "eventId", required = false) Integer eventId,
+        @Parameter(name = "venueId", in = ParameterIn.QUERY)
+        @RequestParam(value = "venueId", required = false) Long venueId,
+        @Parameter(name = "gzip", in = ParameterIn.QUERY)
+        @RequestParam(value = "gzip", required = false) Boolean gzip,
+        @Parameter(hidden = true)
+        @RequestHeader(value = "Accept-Encoding", required = false) String acceptEncoding,
+        @Parameter(hidden = true) HttpServletRequest request
+    );
+
+
+    /**
+     * GET /get_tickets_page : Постраничный список билетов (keyset-курсор, фильтры, сортировка)
+     *
+     * @param cursor курсор из nextCursor предыдущей страницы (optional)
+     * @param size размер страницы (optional)
+     * @param sort поле сортировки (optional, default to ID)
+     * @param direction направление сортировки (optional, default to ASC)
+     * @param name подстрока имени (optional)
+     * @param type тип билета (optional)
+     * @param priceMin минимальная цена (optional)
+     * @param priceMax максимальная цена (optional)
+     * @param venueId ID площадки (optional)
+     * @param eventId ID события (optional)
+     * @param personId ID владельца (optional)
+     * @return Успех (status code 200)
+     *         or Ошибка (status code 400)
+     */
+    @Operation(
+        operationId = "getTicketsPage",
+        summary = "Постраничный список билетов",
+        tags = { "Tickets" },
+        responses = {
+            @ApiResponse(responseCode = "200", description = "Успех", content = {
+                @Content(mediaType = "application/json", schema = @Schema(implementation = AbstractResponse.class))
+            }),
+            @ApiResponse(responseCode = "400", description = "Ошибка", content = {
+                @Content(mediaType = "application/json", schema = @Schema(implementation = AbstractResponse.class))
+            })
+        }
+    )
+    @RequestMapping(
+        method = RequestMethod.GET,
+        value = "/get_tickets_page",
+        produces = { "application/json" }
+    )
+
+    CompletableFuture<ResponseEntity<AbstractResponse<TicketsPageEnvelope>>> getTicketsPage(
+        @Parameter(name = "cursor", in = ParameterIn.QUERY)
+        @RequestParam(value = "cursor", required = false) String cursor,
+        @Parameter(name = "size", in = ParameterIn.QUERY)
+        @RequestParam(value = "size", required = false) Integer size,
+        @Parameter(name = "sort", in = ParameterIn.QUERY)
+        @RequestParam(value = "sort", required = false) TicketSort sort,
+        @Parameter(name = "direction", in = ParameterIn.QUERY)
+        @RequestParam(value = "direction", required = false) Sort.Direction direction,
+        @Parameter(name = "name", in = ParameterIn.QUERY)
+        @RequestParam(value = "name", required = false) String name,
+        @Parameter(name = "type", in = ParameterIn.QUERY)
+        @RequestParam(value = "type", required = false) TicketType type,
+        @Parameter(name = "priceMin", in = ParameterIn.QUERY)
+        @RequestParam(value = "priceMin", required = false) Float priceMin,
+        @Parameter(name = "priceMax", in = ParameterIn.QUERY)
+        @RequestParam(value = "priceMax", required = false) Float priceMax,
+        @Parameter(name = "venueId", in = ParameterIn.QUERY)
+        @RequestParam(value = "venueId", required = false) Long venueId,
+        @Parameter(name = "eventId", in = ParameterIn.QUERY)
+        @RequestParam(value = "eventId", required = false) Integer eventId,
+        @Parameter(name = "personId", in = ParameterIn.QUERY)
+        @RequestParam(value = "personId", required = false) Long personId
     );
 
 
@@ -296,7 +455,7 @@ public interface TicketsApi {
         produces = { "application/json" }
     )
     
-     ResponseEntity<AbstractResponse<Ticket>> minEventTicket(
+    CompletableFuture<ResponseEntity<AbstractResponse<TicketDTO>>> minEventTicket(
     );
 
 
@@ -304,8 +463,10 @@ public interface TicketsApi {
      * POST /sell_ticket : Продать билет пользователю
      *
      * @param sellRequestDTO  (required)
+     * @param idempotencyKey ключ идемпотентности (optional)
      * @return Успех (status code 200)
      *         or Ошибка (status code 400)
+     *         or Билет уже продан (status code 409)
      */
     @Operation(
         operationId = "sellTicket",
@@ -317,6 +478,9 @@ public interface TicketsApi {
             }),
             @ApiResponse(responseCode = "400", description = "Ошибка", content = {
                 @Content(mediaType = "application/json", schema = @Schema(implementation = AbstractResponse.class))
+            }),
+            @ApiResponse(responseCode = "409", description = "Билет уже продан", content = {
+                @Content(mediaType = "application/json", schema = @Schema(implementation = AbstractResponse.class))
             })
         }
     )
@@ -327,19 +491,142 @@ public interface TicketsApi {
         consumes = { "application/json" }
     )
     
-     ResponseEntity<AbstractResponse> sellTicket(
+    CompletableFuture<ResponseEntity<AbstractResponse<Void>>> sellTicket(
         @Parameter(name = "SellRequestDTO",
                 description = "",
                 required = true)
         @Valid
-        @RequestBody SellRequestDTO sellRequestDTO
+        @RequestBody SellRequestDTO sellRequestDTO,
+        @Parameter(name = "Idempotency-Key",
+                description = "Повтор с тем же ключом вернёт исходный ответ, не продавая билет заново",
+                in = ParameterIn.HEADER)
+        @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey
+    );
+
+
+    /**
+     * POST /hold_ticket : Забронировать билет за покупателем
+     * Бронь держится tickets.holds.ttl и хранится только в памяти узла. Повтор тем же покупателем
+     * продлевает бронь с прежним токеном.
+     *
+     * @param holdRequest  (required)
+     * @return Бронь с токеном (status code 200)
+     *         or Ошибка (status code 400)
+     *         or Билет забронирован другим покупателем (status code 409)
+     *         or Достигнут предел числа броней (status code 429)
+     */
+    @Operation(
+        operationId = "holdTicket",
+        summary = "Забронировать билет за покупателем",
+        tags = { "Tickets" },
+        responses = {
+            @ApiResponse(responseCode = "200", description = "Бронь с токеном", content = {
+                @Content(mediaType = "application/json", schema = @Schema(implementation = AbstractResponse.class))
+            }),
+            @ApiResponse(responseCode = "400", description = "Ошибка", content = {
+                @Content(mediaType = "application/json", schema = @Schema(implementation = AbstractResponse.class))
+            }),
+            @ApiResponse(responseCode = "409", description = "Билет забронирован другим покупателем", content = {
+                @Content(mediaType = "application/json", schema = @Schema(implementation = AbstractResponse.class))
+            }),
+            @ApiResponse(responseCode = "429", description = "Достигнут предел числа броней", content = {
+                @Content(mediaType = "application/json", schema = @Schema(implementation = AbstractResponse.class))
+            })
+        }
+    )
+    @RequestMapping(
+        method = RequestMethod.POST,
+        value = "/hold_ticket",
+        produces = { "application/json" },
+        consumes = { "application/json" }
+    )
+    
+    CompletableFuture<ResponseEntity<AbstractResponse<TicketHold>>> holdTicket(
+        @Parameter(name = "HoldRequest", description = "", required = true) @Valid @RequestBody HoldRequest holdRequest
+    );
+
+
+    /**
+     * POST /release_hold : Снять бронь
+     *
+     * @param releaseHoldRequest  (required)
+     * @return Бронь снята (status code 200)
+     *         or Бронь не найдена, истекла или токен чужой (status code 400)
+     */
+    @Operation(
+        operationId = "releaseHold",
+        summary = "Снять бронь",
+        tags = { "Tickets" },
+        responses = {
+            @ApiResponse(responseCode = "200", description = "Бронь снята", content = {
+                @Content(mediaType = "application/json", schema = @Schema(implementation = AbstractResponse.class))
+            }),
+            @ApiResponse(responseCode = "400", description = "Бронь не найдена", content = {
+                @Content(mediaType = "application/json", schema = @Schema(implementation = AbstractResponse.class))
+            })
+        }
+    )
+    @RequestMapping(
+        method = RequestMethod.POST,
+        value = "/release_hold",
+        produces = { "application/json" },
+        consumes = { "application/json" }
+    )
+    
+    CompletableFuture<ResponseEntity<AbstractResponse<Void>>> releaseHold(
+        @Parameter(name = "ReleaseHoldRequest", description = "", required = true)
+        @Valid @RequestBody ReleaseHoldRequest releaseHoldRequest
+    );
+
+
+    /**
+     * POST /confirm_hold : Продать забронированный билет владельцу брони
+     *
+     * @param confirmHoldRequest  (required)
+     * @param idempotencyKey ключ идемпотентности (optional)
+     * @return Билет продан (status code 200)
+     *         or Ошибка (status code 400)
+     *         or Бронь истекла или билет продан другому (status code 409)
+     */
+    @Operation(
+        operationId = "confirmHold",
+        summary = "Продать забронированный билет владельцу брони",
+        tags = { "Tickets" },
+        responses = {
+            @ApiResponse(responseCode = "200", description = "Билет продан", content = {
+                @Content(mediaType = "application/json", schema = @Schema(implementation = AbstractResponse.class))
+            }),
+            @ApiResponse(responseCode = "400", description = "Ошибка", content = {
+                @Content(mediaType = "application/json", schema = @Schema(implementation = AbstractResponse.class))
+            }),
+            @ApiResponse(responseCode = "409", description = "Бронь истекла или билет продан другому", content = {
+                @Content(mediaType = "application/json", schema = @Schema(implementation = AbstractResponse.class))
+            })
+        }
+    )
+    @RequestMapping(
+        method = RequestMethod.POST,
+        value = "/confirm_hold",
+        produces = { "application/json" },
+        consumes = { "application/json" }
+    )
+    
+    CompletableFuture<ResponseEntity<AbstractResponse<Void>>> confirmHold(
+        @Parameter(name = "ConfirmHoldRequest", description = "", required = true)
+        @Valid @RequestBody ConfirmHoldRequest confirmHoldRequest,
+        @Parameter(name = "Idempotency-Key",
+                description = "Повтор с тем же ключом вернёт исходный ответ, не продавая билет заново",
+                in = ParameterIn.HEADER)
+        @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey
     );
 
 
     /**
      * GET /tickets/stream : Подписка на события (SSE)
      * Поток серверных событий об изменениях сущностей.
+     * Каждое событие несёт возрастающий id, изменённые билеты и id затронутых билетов.
      *
+     * @param lastEventId id последнего полученного события для догонки после переподключения (optional)
      * @return text/event-stream (status code 200)
      *         or Ошибка (status code 400)
      */
@@ -356,7 +643,8 @@ public interface TicketsApi {
             @ApiResponse(responseCode = "400", description = "Ошибка", content = {
                 @Content(mediaType = "text/event-stream", schema = @Schema(implementation = AbstractResponse.class)),
                 @Content(mediaType = "application/json", schema = @Schema(implementation = AbstractResponse.class))
-            })
+            }),
+            @ApiResponse(responseCode = "503", description = "Достигнут лимит подписчиков")
         }
     )
     @RequestMapping(
@@ -365,16 +653,21 @@ public interface TicketsApi {
         produces = { "text/event-stream", "application/text" }
     )
 
-    SseEmitter stream();
+    SseEmitter stream(
+        @Parameter(name = "Last-Event-ID", in = ParameterIn.HEADER)
+        @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId
+    );
 
 
     /**
      * POST /update_ticket/{id} : Обновить билет по ID
+     * В теле нужна version, с которой билет был прочитан.
      *
      * @param id  (required)
      * @param ticket  (required)
      * @return Обновлено (status code 200)
-     *         or Не найдено/ошибка (status code 400)
+     *         or Не найдено/ошибка/нет версии (status code 400)
+     *         or Билет изменён после чтения (status code 409)
      */
     @Operation(
         operationId = "updateTicket",
@@ -382,7 +675,10 @@ public interface TicketsApi {
         tags = { "Tickets" },
         responses = {
             @ApiResponse(responseCode = "200", description = "Обновлено"),
-            @ApiResponse(responseCode = "400", description = "Не найдено/ошибка", content = {
+            @ApiResponse(responseCode = "400", description = "Не найдено/ошибка/нет версии", content = {
+                @Content(mediaType = "application/json", schema = @Schema(implementation = AbstractResponse.class))
+            }),
+            @ApiResponse(responseCode = "409", description = "Билет изменён после чтения", content = {
                 @Content(mediaType = "application/json", schema = @Schema(implementation = AbstractResponse.class))
             })
         }
@@ -394,7 +690,7 @@ public interface TicketsApi {
         consumes = { "application/json" }
     )
     
-     ResponseEntity<AbstractResponse> updateTicket(
+    CompletableFuture<ResponseEntity<AbstractResponse<Void>>> updateTicket(
         @Parameter(name = "id",
                 description = "",
                 required = true,
@@ -0,0 +1,8 @@
+package systems.project.exceptions;
+
+public class TooManySubscribersException extends RuntimeException {
+
+    public TooManySubscribersException(int limit) {
+        super("Превышено число подписчиков на поток событий: " + limit);
+    }
+}
@@ -17,7 +17,7 @@ public class Coordinates {
     @SequenceGenerator(
             name = "coordinates_seq_gen",
             sequenceName = "coordinates_seq",
-            allocationSize = 1
+            allocationSize = IdAllocation.BLOCK_SIZE
     )
     @GeneratedValue(strategy = GenerationType.SEQUENCE,
             generator = "coordinates_seq_gen")
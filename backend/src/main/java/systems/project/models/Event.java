@@ -2,7 +2,10 @@ package systems.project.models;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Data;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.Check;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Id;
@@ -16,6 +19,8 @@ import java.util.List;
 
 @Entity
 @Data
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "event")
 public class Event {
 
 
@@ -23,7 +28,7 @@ public class Event {
     @SequenceGenerator(
             name = "event_seq_gen",
             sequenceName = "event_seq",
-            allocationSize = 1
+            allocationSize = IdAllocation.BLOCK_SIZE
     )
     @GeneratedValue(strategy = GenerationType.SEQUENCE,
             generator = "event_seq_gen")
@@ -45,7 +50,8 @@ public class Event {
     @Enumerated(EnumType.STRING)
     private EventType eventType; //Поле может быть null
 
-    @OneToMany
+    // связь хранит ticket.event_id, отдельной таблицы связи нет
+    @OneToMany(mappedBy = "event")
     @JsonIgnore
     private List<Ticket> tickets;
 }
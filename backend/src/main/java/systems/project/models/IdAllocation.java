@@ -0,0 +1,17 @@
+package systems.project.models;
+
+/**
+ * Размер блока идентификаторов для всех последовательностей сущностей. Hibernate берёт из
+ * последовательности сразу блок (оптимизатор pooled-lo) и раздаёт id из памяти, так что вставка
+ * не делает отдельный nextval на каждую строку. Если шаг последовательности в БД другой,
+ * Hibernate возьмёт шаг из БД (increment_size_mismatch_strategy: fix); перевод существующей
+ * БД на блоки - в миграции db/migration/V1__schema.sql.
+ * Свойством приложения размер не задаётся: allocationSize в аннотации - константа времени компиляции.
+ * Без пересборки блок меняется только через ALTER SEQUENCE ... INCREMENT BY.
+ */
+public final class IdAllocation {
+
+    public static final int BLOCK_SIZE = 50;
+
+    private IdAllocation() { }
+}
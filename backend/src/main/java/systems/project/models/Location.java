@@ -1,5 +1,6 @@
 package systems.project.models;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Id;
@@ -10,18 +11,22 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
 @Builder
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "location")
 public class Location {
     @Id
     @SequenceGenerator(
             name = "location_seq_gen",
             sequenceName = "location_seq",
-            allocationSize = 1
+            allocationSize = IdAllocation.BLOCK_SIZE
     )
     @GeneratedValue(strategy = GenerationType.SEQUENCE,
             generator = "location_seq_gen")
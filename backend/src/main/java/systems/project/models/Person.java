@@ -1,6 +1,7 @@
 package systems.project.models;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Id;
@@ -14,16 +15,20 @@ import jakarta.persistence.OneToOne;
 import jakarta.persistence.JoinColumn;
 
 import lombok.Data;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.Check;
 
 import java.util.List;
 @Data
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "person")
 public class Person {
     @SequenceGenerator(
             name = "person_seq_gen",
             sequenceName = "person_seq",
-            allocationSize = 1
+            allocationSize = IdAllocation.BLOCK_SIZE
     )
     @GeneratedValue(strategy = GenerationType.SEQUENCE,
             generator = "person_seq_gen")
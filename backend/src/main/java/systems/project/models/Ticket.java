@@ -12,25 +12,48 @@ import jakarta.persistence.EnumType;
 import jakarta.persistence.OneToOne;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.PrePersist;
+import jakarta.persistence.Version;
 
 
 import jakarta.persistence.JoinColumn;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
+import jakarta.persistence.NamedSubgraph;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.hibernate.annotations.Check;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 @NoArgsConstructor
 @AllArgsConstructor
 @Data
 @Entity
+// полный план загрузки: билет и все связи "к одному" одним SELECT с join вместо отдельного запроса на каждую связь
+@NamedEntityGraph(
+        name = Ticket.GRAPH_FULL,
+        attributeNodes = {
+            @NamedAttributeNode("coordinates"),
+            @NamedAttributeNode(value = "person", subgraph = "person"),
+            @NamedAttributeNode("event"),
+            @NamedAttributeNode("venue")
+        },
+        subgraphs = @NamedSubgraph(name = "person", attributeNodes = @NamedAttributeNode("location"))
+)
 public class Ticket {
+
+    public static final String GRAPH_FULL = "Ticket.full";
+
+    // те же пути для запросов, собираемых на лету (FluentQuery.project)
+    public static final List<String> FULL_FETCH_PATHS =
+            List.of("coordinates", "person", "person.location", "event", "venue");
+
     @SequenceGenerator(
             name = "ticket_seq_gen",
             sequenceName = "ticket_seq",
-            allocationSize = 1
+            allocationSize = IdAllocation.BLOCK_SIZE
     )
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "ticket_seq_gen")
     @Id
@@ -39,6 +62,10 @@ public class Ticket {
     // Значение этого поля должно быть уникальным,
     // Значение этого поля должно генерироваться автоматически
 
+    // оптимистическая блокировка: запись со старой версией отклоняется, а не затирает чужое изменение
+    @Version
+    private Long version;
+
     @Column(nullable = false)
     private String name; //Поле не может быть null, Строка не может быть пустой
 
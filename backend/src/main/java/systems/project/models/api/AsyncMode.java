@@ -0,0 +1,8 @@
+package systems.project.models.api;
+
+public enum AsyncMode {
+    // ограниченный пул платформенных потоков с очередью
+    PLATFORM,
+    // виртуальный поток на задачу (Java 21+), число задач ограничено семафором
+    VIRTUAL
+}
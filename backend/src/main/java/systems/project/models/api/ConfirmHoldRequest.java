@@ -0,0 +1,10 @@
+package systems.project.models.api;
+
+import lombok.Data;
+
+@Data
+public class ConfirmHoldRequest {
+    public Integer ticketId;
+    public String token;
+    public float amount;
+}
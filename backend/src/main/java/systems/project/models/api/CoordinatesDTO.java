@@ -0,0 +1,25 @@
+package systems.project.models.api;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import systems.project.models.Coordinates;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CoordinatesDTO {
+
+    private Long id;
+
+    private int x;
+
+    private Float y;
+
+    public static CoordinatesDTO from(Coordinates c) {
+        if (c == null) return null;
+        return new CoordinatesDTO(c.getId(), c.getX(), c.getY());
+    }
+}
@@ -0,0 +1,28 @@
+package systems.project.models.api;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import systems.project.models.Event;
+import systems.project.models.EventType;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EventDTO {
+
+    private Integer id;
+
+    private String name;
+
+    private Integer ticketsCount;
+
+    private EventType eventType;
+
+    public static EventDTO from(Event e) {
+        if (e == null) return null;
+        return new EventDTO(e.getId(), e.getName(), e.getTicketsCount(), e.getEventType());
+    }
+}
@@ -0,0 +1,9 @@
+package systems.project.models.api;
+
+import lombok.Data;
+
+@Data
+public class HoldRequest {
+    public Integer ticketId;
+    public Integer personId;
+}
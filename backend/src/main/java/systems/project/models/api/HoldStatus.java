@@ -0,0 +1,20 @@
+package systems.project.models.api;
+
+public enum HoldStatus {
+    HELD("hold"),
+    RELEASED("hold-release"),
+    EXPIRED("hold-expire"),
+    // бронь закрыта продажей билета её владельцу
+    CONFIRMED("hold-confirm");
+
+    // action события SSE об этом переходе
+    private final String action;
+
+    HoldStatus(String action) {
+        this.action = action;
+    }
+
+    public String getAction() {
+        return action;
+    }
+}
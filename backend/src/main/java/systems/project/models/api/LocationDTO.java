@@ -0,0 +1,27 @@
+package systems.project.models.api;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import systems.project.models.Location;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LocationDTO {
+
+    private Long id;
+
+    private Integer x;
+
+    private float y;
+
+    private Float z;
+
+    public static LocationDTO from(Location l) {
+        if (l == null) return null;
+        return new LocationDTO(l.getId(), l.getX(), l.getY(), l.getZ());
+    }
+}
@@ -0,0 +1,46 @@
+package systems.project.models.api;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import systems.project.models.Color;
+import systems.project.models.Country;
+import systems.project.models.Person;
+
+/**
+ * Человек в ответах API: без обратной связи на билеты, location - копия, а не сущность.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PersonDTO {
+
+    private Long id;
+
+    private Color eyeColor;
+
+    private Color hairColor;
+
+    private LocationDTO location;
+
+    private Double weight;
+
+    private String passportID;
+
+    private Country nationality;
+
+    public static PersonDTO from(Person p) {
+        if (p == null) return null;
+        return PersonDTO.builder()
+                .id(p.getId())
+                .eyeColor(p.getEyeColor())
+                .hairColor(p.getHairColor())
+                .location(LocationDTO.from(p.getLocation()))
+                .weight(p.getWeight())
+                .passportID(p.getPassportID())
+                .nationality(p.getNationality())
+                .build();
+    }
+}
@@ -0,0 +1,9 @@
+package systems.project.models.api;
+
+import lombok.Data;
+
+@Data
+public class ReleaseHoldRequest {
+    public Integer ticketId;
+    public String token;
+}
@@ -0,0 +1,13 @@
+package systems.project.models.api;
+
+public enum SellOutcome {
+    SOLD,
+    INVALID_AMOUNT,
+    TICKET_NOT_FOUND,
+    PERSON_NOT_FOUND,
+    // билет уже продан: до этой продажи или пока она шла
+    CONFLICT,
+    // билет забронирован другим покупателем
+    HELD_BY_OTHER,
+    FAILED
+}
@@ -0,0 +1,10 @@
+package systems.project.models.api;
+
+public enum SseOverflowPolicy {
+    // выбросить самые старые неотправленные события, поставив вместо них reset - остальные дельты дойдут
+    DROP_OLDEST,
+    // заменить всю очередь одним событием reset - клиент перечитает список
+    COALESCE,
+    // закрыть соединение; клиент переподключится и догонит пропущенное по Last-Event-ID
+    DISCONNECT
+}
@@ -0,0 +1,33 @@
+package systems.project.models.api;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TicketChange {
+
+    private String action;
+
+    // все затронутые id; id, которого нет в tickets, считается удалённым
+    private List<Integer> ids;
+
+    // актуальное состояние изменённых билетов; null - данные не приложены, клиенту нужно перечитать список
+    private List<TicketDTO> tickets;
+
+    // для action=batch: исходные изменения (только action и ids) в порядке поступления
+    private List<TicketChange> changes;
+
+    // для броней: последнее состояние каждой затронутой брони; билеты при этом не меняются, ids пуст
+    private List<TicketHold> holds;
+
+    // когда записано изменение, мс UTC; клиент, перечитывающий данные по событию, присылает его в X-Last-Write,
+    // чтобы чтение не ушло на отстающую реплику. Для броней - null, в БД они не пишутся
+    private Long writtenAt;
+}
@@ -0,0 +1,72 @@
+package systems.project.models.api;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import systems.project.models.Ticket;
+import systems.project.models.TicketType;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Билет в ответах API и событиях SSE. Собирается в сервисе из полностью загруженной сущности,
+ * поэтому сериализация не обращается к Hibernate и не держит соединение с БД.
+ * Поля и их имена в JSON совпадают с сущностью Ticket.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TicketDTO {
+
+    private Integer id;
+
+    private Long version;
+
+    private String name;
+
+    private CoordinatesDTO coordinates;
+
+    private LocalDateTime creationDate;
+
+    private PersonDTO person;
+
+    private EventDTO event;
+
+    private float price;
+
+    private TicketType type;
+
+    private Float discount;
+
+    private int number;
+
+    private String comment;
+
+    private VenueDTO venue;
+
+    public static TicketDTO from(Ticket t) {
+        if (t == null) return null;
+        return TicketDTO.builder()
+                .id(t.getId())
+                .version(t.getVersion())
+                .name(t.getName())
+                .coordinates(CoordinatesDTO.from(t.getCoordinates()))
+                .creationDate(t.getCreationDate())
+                .person(PersonDTO.from(t.getPerson()))
+                .event(EventDTO.from(t.getEvent()))
+                .price(t.getPrice())
+                .type(t.getType())
+                .discount(t.getDiscount())
+                .number(t.getNumber())
+                .comment(t.getComment())
+                .venue(VenueDTO.from(t.getVenue()))
+                .build();
+    }
+
+    public static List<TicketDTO> fromAll(List<Ticket> tickets) {
+        return tickets == null ? null : tickets.stream().map(TicketDTO::from).toList();
+    }
+}
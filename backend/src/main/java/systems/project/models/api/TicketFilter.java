@@ -0,0 +1,15 @@
+package systems.project.models.api;
+
+import lombok.Data;
+import systems.project.models.TicketType;
+
+@Data
+public class TicketFilter {
+    private String name;
+    private TicketType type;
+    private Float priceMin;
+    private Float priceMax;
+    private Long venueId;
+    private Integer eventId;
+    private Long personId;
+}
@@ -0,0 +1,26 @@
+package systems.project.models.api;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TicketHold {
+
+    private Integer ticketId;
+
+    private Integer personId;
+
+    // выдаётся только владельцу брони в ответе hold_ticket; в событиях SSE всегда null
+    private String token;
+
+    private Instant expiresAt;
+
+    private HoldStatus status;
+}
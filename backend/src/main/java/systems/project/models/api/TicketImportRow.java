@@ -0,0 +1,19 @@
+package systems.project.models.api;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TicketImportRow {
+
+    // номер записи во входных данных, с 1
+    private int row;
+
+    // id созданного билета; null, если запись отклонена
+    private Integer id;
+
+    private String error;
+}
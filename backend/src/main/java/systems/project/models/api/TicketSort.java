@@ -0,0 +1,41 @@
+package systems.project.models.api;
+
+import systems.project.models.Ticket;
+
+import java.time.LocalDateTime;
+import java.util.function.Function;
+
+public enum TicketSort {
+    ID("id", Integer::valueOf),
+    NAME("name", s -> s),
+    PRICE("price", Float::valueOf),
+    CREATION_DATE("creationDate", LocalDateTime::parse),
+    NUMBER("number", Integer::valueOf);
+
+    private final String attribute;
+
+    private final Function<String, Comparable<?>> parser;
+
+    TicketSort(String attribute, Function<String, Comparable<?>> parser) {
+        this.attribute = attribute;
+        this.parser = parser;
+    }
+
+    public String getAttribute() {
+        return attribute;
+    }
+
+    public Comparable<?> parse(String raw) {
+        return parser.apply(raw);
+    }
+
+    public Object valueOf(Ticket ticket) {
+        return switch (this) {
+            case ID -> ticket.getId();
+            case NAME -> ticket.getName();
+            case PRICE -> ticket.getPrice();
+            case CREATION_DATE -> ticket.getCreationDate();
+            case NUMBER -> ticket.getNumber();
+        };
+    }
+}
@@ -0,0 +1,11 @@
+package systems.project.models.api;
+
+public enum UpdateOutcome {
+    UPDATED,
+    NOT_FOUND,
+    // клиент не прислал версию, с которой читал билет
+    VERSION_REQUIRED,
+    // билет изменили после того, как клиент его прочитал
+    CONFLICT,
+    FAILED
+}
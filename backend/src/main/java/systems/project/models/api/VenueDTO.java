@@ -0,0 +1,28 @@
+package systems.project.models.api;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import systems.project.models.Venue;
+import systems.project.models.VenueType;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class VenueDTO {
+
+    private Long id;
+
+    private String name;
+
+    private int capacity;
+
+    private VenueType type;
+
+    public static VenueDTO from(Venue v) {
+        if (v == null) return null;
+        return new VenueDTO(v.getId(), v.getName(), v.getCapacity(), v.getType());
+    }
+}
@@ -1,12 +1,12 @@
 package systems.project.models.envelopes;
 
 import lombok.Data;
-import systems.project.models.Event;
+import systems.project.models.api.EventDTO;
 
 import java.util.List;
 
 @Data
 public class EventsEnvelope {
 
-    private List<Event> eventList;
+    private List<EventDTO> eventList;
 }
@@ -1,12 +1,12 @@
 package systems.project.models.envelopes;
 
 import lombok.Data;
-import systems.project.models.Person;
+import systems.project.models.api.PersonDTO;
 
 import java.util.List;
 
 @Data
 public class PersonEnvelope {
 
-    private List<Person> personList;
+    private List<PersonDTO> personList;
 }
@@ -0,0 +1,36 @@
+package systems.project.models.envelopes;
+
+import lombok.Data;
+import systems.project.models.api.TicketImportRow;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+@Data
+public class TicketImportReport {
+
+    private int total;
+
+    private int imported;
+
+    private int failed;
+
+    private List<TicketImportRow> rows = new ArrayList<>();
+
+    public void imported(int row, Integer id) {
+        rows.add(new TicketImportRow(row, id, null));
+        imported++;
+        total++;
+    }
+
+    public void rejected(int row, String error) {
+        rows.add(new TicketImportRow(row, null, error));
+        failed++;
+        total++;
+    }
+
+    public void sortRows() {
+        rows.sort(Comparator.comparingInt(TicketImportRow::getRow));
+    }
+}
@@ -1,13 +1,24 @@
 package systems.project.models.envelopes;
 
 import lombok.Data;
-import systems.project.models.Ticket;
+import systems.project.models.api.TicketDTO;
 
 import java.util.List;
 
 @Data
 public class TicketsEnvelope {
 
-    private List<Ticket> ticketList;
+    private List<TicketDTO> ticketList;
+
+    // билетов больше, чем отдано: остальные - через /get_tickets_page
+    private boolean truncated;
+
+    // fetched - первые limit + 1 билетов по id: лишний только сообщает, что список обрезан
+    public static TicketsEnvelope firstOf(List<TicketDTO> fetched, int limit) {
+        TicketsEnvelope env = new TicketsEnvelope();
+        env.setTruncated(fetched.size() > limit);
+        env.setTicketList(env.isTruncated() ? List.copyOf(fetched.subList(0, limit)) : fetched);
+        return env;
+    }
 
 }
@@ -0,0 +1,17 @@
+package systems.project.models.envelopes;
+
+import lombok.Data;
+import systems.project.models.api.TicketDTO;
+
+import java.util.List;
+
+@Data
+public class TicketsPageEnvelope {
+
+    private List<TicketDTO> ticketList;
+
+    private String nextCursor;
+
+    private boolean hasMore;
+
+}
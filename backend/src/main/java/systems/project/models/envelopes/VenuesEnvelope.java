@@ -1,13 +1,13 @@
 package systems.project.models.envelopes;
 
 import lombok.Data;
-import systems.project.models.Venue;
+import systems.project.models.api.VenueDTO;
 
 import java.util.List;
 
 @Data
 public class VenuesEnvelope {
 
-    private List<Venue> venueList;
+    private List<VenueDTO> venueList;
 
 }
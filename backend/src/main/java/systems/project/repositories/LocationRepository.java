@@ -2,11 +2,13 @@ package systems.project.repositories;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import systems.project.models.Location;
 
 
 
 @Repository
+@Transactional(readOnly = true)
 public interface LocationRepository extends JpaRepository<Location, Long> {
 
 
@@ -1,9 +1,12 @@
 package systems.project.repositories;
 
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import systems.project.models.Person;
 
 import java.util.List;
@@ -11,11 +14,11 @@ import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 
 @Repository
+@Transactional(readOnly = true)
 public interface PersonRepository extends JpaRepository<Person, Long> {
-    @Async
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     CompletableFuture<List<Person>> findAllBy();
 
-    @Async
     CompletableFuture<Optional<Person>> findById(Integer id);
 
 }
@@ -1,37 +1,93 @@
 package systems.project.repositories;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import systems.project.models.Ticket;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
 
+// чтения - в read-only транзакции: без dirty checking и flush, при заданной реплике идут на неё;
+// запись в SimpleJpaRepository и методы с @Transactional ниже остаются на основной БД.
+// Методы с CompletableFuture выполняются в вызывающем потоке: в dbExecutor их переносит @Async сервиса,
+// второй @Async здесь занимал бы тот же ограниченный пул и блокировал поток сервиса в ожидании
 @Repository
-public interface TicketRepository extends JpaRepository<Ticket, Long> {
+@Transactional(readOnly = true)
+public interface TicketRepository extends JpaRepository<Ticket, Long>, JpaSpecificationExecutor<Ticket> {
 
+    // строк за один сетевой обмен при потоковой выгрузке; столько же сущностей держит контекст до очистки
+    int EXPORT_FETCH_SIZE = 500;
 
-
-    @Async
+    @EntityGraph(Ticket.GRAPH_FULL)
     CompletableFuture<List<Ticket>> findAllBy();
 
-    @Async
+    @EntityGraph(Ticket.GRAPH_FULL)
+    CompletableFuture<List<Ticket>> findAllByOrderByIdAsc(Limit limit);
+
+    @EntityGraph(Ticket.GRAPH_FULL)
     CompletableFuture<Optional<Ticket>> findById(Integer id);
 
-    @Async
     CompletableFuture<Boolean> existsById(Integer id);
 
-    @Async
+    // перечитывание изменённых билетов для TicketReadModel в потоке записи
+    @EntityGraph(Ticket.GRAPH_FULL)
+    List<Ticket> findAllByIdIn(Collection<Integer> ids);
+
+    // вне транзакции сервиса удаление открывает свою, в ней - присоединяется
+    @Transactional
     CompletableFuture<Void> deleteById(Integer id);
 
-    @Async
-    CompletableFuture<Long> deleteByComment(String comment);
+    // массовое удаление без загрузки сущностей; методы ниже вызываются в транзакции TicketBulkDeleter
+    @Query("select t.id from Ticket t where t.comment = :comment order by t.id")
+    List<Integer> findIdChunkByComment(@Param("comment") String comment, Pageable chunk);
+
+    @Query("select t.coordinates.id from Ticket t where t.id in :ids")
+    List<Long> findCoordinatesIds(@Param("ids") Collection<Integer> ids);
+
+    @Modifying
+    @Query("delete from Ticket t where t.id in :ids")
+    int deleteAllByIdIn(@Param("ids") Collection<Integer> ids);
+
+    // координаты принадлежат билету (orphanRemoval), массовый DELETE билетов их не каскадирует
+    @Modifying
+    @Query("delete from Coordinates c where c.id in :ids")
+    int deleteCoordinatesByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Курсор для выгрузки всей таблицы: строки читаются порциями по EXPORT_FETCH_SIZE,
+     * связи "к одному" подтягиваются тем же запросом. Вызывать внутри транзакции и закрывать поток.
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("select t from Ticket t"
+            + " left join fetch t.coordinates"
+            + " left join fetch t.person p left join fetch p.location"
+            + " left join fetch t.event e"
+            + " left join fetch t.venue v"
+            + " where (:eventId is null or e.id = :eventId)"
+            + " and (:venueId is null or v.id = :venueId)"
+            + " order by t.id")
+    Stream<Ticket> streamForExport(@Param("eventId") Integer eventId, @Param("venueId") Long venueId);
 
-    @Async
-    CompletableFuture<Optional<Ticket>>  findFirstByEventIsNotNullOrderByEventIdAsc();
+    @EntityGraph(Ticket.GRAPH_FULL)
+    CompletableFuture<Optional<Ticket>> findFirstByEventIsNotNullOrderByEventIdAsc();
 
-    @Async
     CompletableFuture<Long>countByCommentLessThan(String comment);
 }
@@ -0,0 +1,65 @@
+package systems.project.repositories;
+
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+import systems.project.models.Ticket;
+import systems.project.models.api.TicketFilter;
+import systems.project.models.api.TicketSort;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+public final class TicketSpecifications {
+
+    private TicketSpecifications() {
+    }
+
+    public static Specification<Ticket> matching(TicketFilter filter) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (filter == null) return cb.and();
+
+            if (filter.getName() != null && !filter.getName().isBlank()) {
+                String pattern = "%" + filter.getName().trim().toLowerCase(Locale.ROOT) + "%";
+                predicates.add(cb.like(cb.lower(root.get("name")), pattern));
+            }
+            if (filter.getType() != null) {
+                predicates.add(cb.equal(root.get("type"), filter.getType()));
+            }
+            if (filter.getPriceMin() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("price"), filter.getPriceMin()));
+            }
+            if (filter.getPriceMax() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("price"), filter.getPriceMax()));
+            }
+            if (filter.getVenueId() != null) {
+                predicates.add(cb.equal(root.get("venue").get("id"), filter.getVenueId()));
+            }
+            if (filter.getEventId() != null) {
+                predicates.add(cb.equal(root.get("event").get("id"), filter.getEventId()));
+            }
+            if (filter.getPersonId() != null) {
+                predicates.add(cb.equal(root.get("person").get("id"), filter.getPersonId()));
+            }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    /**
+     * Keyset-условие "строго после (value, id)" для сортировки по {@code sort} с тай-брейком по id.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public static Specification<Ticket> after(TicketSort sort, boolean desc, Comparable value, Integer id) {
+        return (root, query, cb) -> {
+            Path<Integer> idPath = root.get("id");
+            Predicate idBeyond = desc ? cb.lessThan(idPath, id) : cb.greaterThan(idPath, id);
+            if (sort == TicketSort.ID) return idBeyond;
+
+            Path<Comparable> key = root.get(sort.getAttribute());
+            Predicate keyBeyond = desc ? cb.lessThan(key, value) : cb.greaterThan(key, value);
+            return cb.or(keyBeyond, cb.and(cb.equal(key, value), idBeyond));
+        };
+    }
+}
@@ -1,15 +1,20 @@
 package systems.project.repositories;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import systems.project.models.Venue;
 
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 
 @Repository
+@Transactional(readOnly = true)
 public interface VenueRepository extends JpaRepository<Venue, Long> {
-    @Async
+    // результат в кэше запросов Hibernate, сбрасывается при любой записи в таблицу
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     CompletableFuture<List<Venue>> findAllBy();
 }
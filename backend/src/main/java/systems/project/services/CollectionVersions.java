@@ -0,0 +1,42 @@
+package systems.project.services;
+
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Счётчики изменений коллекций для ETag списочных запросов. Номер увеличивается после каждой записи,
+ * поэтому ответ, прочитанный после снятия номера, не может оказаться старше своего ETag.
+ * Счётчики живут в процессе, как и рассылка SSE: запись через другой экземпляр их не увеличит.
+ */
+@Component
+public class CollectionVersions {
+
+    public enum Kind { TICKETS, EVENTS, PERSONS, VENUES }
+
+    // после рестарта счётчики начинаются заново - ETag прошлого запуска не должен совпасть
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+
+    private final Map<Kind, AtomicLong> versions = new EnumMap<>(Kind.class);
+
+    public CollectionVersions() {
+        for (Kind kind : Kind.values()) {
+            versions.put(kind, new AtomicLong());
+        }
+    }
+
+    public void bump(Kind kind) {
+        versions.get(kind).incrementAndGet();
+    }
+
+    public long current(Kind kind) {
+        return versions.get(kind).get();
+    }
+
+    // сильный ETag: одинаковый номер означает побайтно тот же список
+    public String etag(Kind kind) {
+        return "\"" + kind.name().toLowerCase() + "-" + epoch + "-" + current(kind) + "\"";
+    }
+}
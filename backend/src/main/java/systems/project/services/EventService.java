@@ -4,33 +4,41 @@ package systems.project.services;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import systems.project.models.Event;
+import systems.project.models.api.EventDTO;
 import systems.project.repositories.EventRepository;
 
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 
 import static java.util.concurrent.CompletableFuture.completedFuture;
+import static systems.project.services.Rejections.unlessRejected;
 
 @Service
 public class EventService {
 
     private final EventRepository eventRepository;
 
-    public EventService(EventRepository eventRepository) {
+    private final CollectionVersions versions;
+
+    public EventService(EventRepository eventRepository, CollectionVersions versions) {
         this.eventRepository = eventRepository;
+        this.versions = versions;
     }
 
     @Async
-    public CompletableFuture<Map<String, List<Event>>> getEvents() {
-        return eventRepository.findAllBy().thenApply(res -> Map.of("events", res))
-                .exceptionally(exc -> Map.of("events", null));
+    public CompletableFuture<Map<String, List<EventDTO>>> getEvents() {
+        return eventRepository.findAllBy()
+                .thenApply(res -> Map.of("events", res.stream().map(EventDTO::from).toList()))
+                .exceptionally(unlessRejected(exc -> Collections.singletonMap("events", null)));
     }
 
     @Async
     public CompletableFuture<Map<String, Boolean>> addEvent(Event event) {
         try {
             eventRepository.save(event);
+            versions.bump(CollectionVersions.Kind.EVENTS);
             return completedFuture(Map.of("status", true));
         } catch (Exception e) {
             return completedFuture(Map.of("status", false));
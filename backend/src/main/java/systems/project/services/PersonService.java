@@ -5,14 +5,17 @@ import org.springframework.stereotype.Service;
 
 
 import systems.project.models.Person;
+import systems.project.models.api.PersonDTO;
 import systems.project.repositories.LocationRepository;
 import systems.project.repositories.PersonRepository;
 
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 
 import static java.util.concurrent.CompletableFuture.completedFuture;
+import static systems.project.services.Rejections.unlessRejected;
 
 @Service
 public class PersonService {
@@ -22,15 +25,21 @@ public class PersonService {
 
     private final LocationRepository locationRepository;
 
-    public PersonService(PersonRepository personRepository, LocationRepository locationRepository) {
+    private final CollectionVersions versions;
+
+    public PersonService(PersonRepository personRepository,
+                         LocationRepository locationRepository,
+                         CollectionVersions versions) {
         this.personRepository = personRepository;
         this.locationRepository = locationRepository;
+        this.versions = versions;
     }
 
     @Async
-    public CompletableFuture<Map<String, List<Person>>> getPersons() {
-        return personRepository.findAllBy().thenApply(res -> Map.of("persons", res))
-                .exceptionally(exc -> Map.of("persons", null));
+    public CompletableFuture<Map<String, List<PersonDTO>>> getPersons() {
+        return personRepository.findAllBy()
+                .thenApply(res -> Map.of("persons", res.stream().map(PersonDTO::from).toList()))
+                .exceptionally(unlessRejected(exc -> Collections.singletonMap("persons", null)));
     }
 
     @Async
@@ -39,6 +48,7 @@ public class PersonService {
             var saved = locationRepository.save(person.getLocation());
             person.setLocation(saved);
             personRepository.save(person);
+            versions.bump(CollectionVersions.Kind.PERSONS);
             return completedFuture(Map.of("status", true));
         } catch (Exception e) {
             return completedFuture(Map.of("status", false));
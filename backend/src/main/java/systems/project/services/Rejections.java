@@ -0,0 +1,34 @@
+package systems.project.services;
+
+import org.springframework.core.task.TaskRejectedException;
+
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Function;
+
+/**
+ * Запасные ответы сервисов для exceptionally. Отказ перегруженного исполнителя запасным ответом
+ * не подменяется: он уходит дальше по цепочке, и контроллер отвечает на него 429.
+ */
+final class Rejections {
+
+    private Rejections() { }
+
+    static <T> Function<Throwable, T> unlessRejected(Function<Throwable, T> fallback) {
+        return exc -> {
+            if (isRejected(exc)) {
+                throw exc instanceof CompletionException ce ? ce : new CompletionException(exc);
+            }
+            return fallback.apply(exc);
+        };
+    }
+
+    static boolean isRejected(Throwable exc) {
+        Throwable cause = exc;
+        while ((cause instanceof CompletionException || cause instanceof ExecutionException)
+                && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause instanceof TaskRejectedException;
+    }
+}
@@ -0,0 +1,349 @@
+package systems.project.services;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import systems.project.configuratons.AsyncConfig;
+import systems.project.configuratons.TicketsProperties;
+import systems.project.exceptions.TooManySubscribersException;
+import systems.project.models.api.SseOverflowPolicy;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+/**
+ * Рассылка SSE без блокировки пишущего потока: у каждого подписчика своя ограниченная очередь,
+ * отправку выполняет исполнитель sseExecutor. Медленный клиент влияет только на свою очередь.
+ * Периодический heartbeat выявляет полуоткрытые соединения, а reaper выселяет подписчиков,
+ * которые дольше sendDeadline не принимают данные.
+ */
+@Component
+public class SseBroadcaster {
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger live = new AtomicInteger();
+    private final Executor dispatcher;
+    private final TaskScheduler scheduler;
+    private final Logger logger;
+    private final TicketsProperties.Sse sse;
+    private final int queueCapacity;
+    private final int dispatchBatch;
+    private final int maxSubscribers;
+    private final long sendDeadlineNanos;
+    private final SseOverflowPolicy overflowPolicy;
+
+    private final Counter evictedOverflow;
+    private final Counter evictedStalled;
+    private final Counter evictedError;
+    private final Counter rejected;
+    private final Timer sendTime;
+
+    private ScheduledFuture<?> heartbeatTask;
+    private ScheduledFuture<?> reaperTask;
+
+    public SseBroadcaster(TicketsProperties properties,
+                          Logger logger,
+                          TaskScheduler scheduler,
+                          MeterRegistry registry,
+                          @Qualifier(AsyncConfig.SSE_EXECUTOR) Executor dispatcher) {
+        this.sse = properties.getSse();
+        this.logger = logger;
+        this.scheduler = scheduler;
+        this.queueCapacity = Math.max(1, sse.getQueueCapacity());
+        this.dispatchBatch = Math.max(1, sse.getDispatchBatch());
+        this.maxSubscribers = Math.max(1, sse.getMaxSubscribers());
+        this.sendDeadlineNanos = sse.getSendDeadline().toNanos();
+        this.overflowPolicy = sse.getOverflowPolicy();
+        this.dispatcher = dispatcher;
+
+        Gauge.builder("tickets.sse.subscribers", live, AtomicInteger::get)
+                .description("Живые подписчики /tickets/stream")
+                .register(registry);
+        Gauge.builder("tickets.sse.queued", this, SseBroadcaster::queued)
+                .description("Неотправленные события во всех очередях подписчиков")
+                .register(registry);
+        this.evictedOverflow = evictions(registry, "overflow");
+        this.evictedStalled = evictions(registry, "stalled");
+        this.evictedError = evictions(registry, "error");
+        this.rejected = Counter.builder("tickets.sse.rejected")
+                .description("Подписки, отклонённые из-за лимита maxSubscribers")
+                .register(registry);
+        this.sendTime = Timer.builder("tickets.sse.send")
+                .description("Запись одного SSE-сообщения подписчику, включая heartbeat")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    private static Counter evictions(MeterRegistry registry, String reason) {
+        return Counter.builder("tickets.sse.evicted")
+                .description("Подписчики, отключённые сервером")
+                .tag("reason", reason)
+                .register(registry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (isPositive(sse.getHeartbeatInterval())) {
+            heartbeatTask = scheduler.scheduleWithFixedDelay(this::heartbeat, sse.getHeartbeatInterval());
+        }
+        if (isPositive(sse.getReaperInterval())) {
+            reaperTask = scheduler.scheduleWithFixedDelay(this::reap, sse.getReaperInterval());
+        }
+    }
+
+    private static boolean isPositive(Duration d) {
+        return d != null && !d.isZero() && !d.isNegative();
+    }
+
+    public SseEmitter newEmitter() {
+        Duration timeout = sse.getEmitterTimeout();
+        return new SseEmitter(timeout == null ? 0L : timeout.toMillis());
+    }
+
+    public Subscriber register(SseEmitter emitter, Collection<SseMessage> backlog) {
+        int n;
+        do {
+            n = live.get();
+            if (n >= maxSubscribers) {
+                rejected.increment();
+                throw new TooManySubscribersException(maxSubscribers);
+            }
+        } while (!live.compareAndSet(n, n + 1));
+
+        Subscriber subscriber = new Subscriber(emitter);
+        synchronized (subscriber) {
+            subscriber.queue.addAll(backlog);
+        }
+        subscribers.add(subscriber);
+
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> {
+            remove(subscriber);
+            emitter.complete();
+        });
+        emitter.onError(ex -> {
+            remove(subscriber);
+            try {
+                emitter.complete();
+            } catch (Exception ignored) { }
+        });
+
+        subscriber.schedule();
+        return subscriber;
+    }
+
+    public void broadcast(SseMessage message) {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(message);
+        }
+    }
+
+    public int size() {
+        return live.get();
+    }
+
+    public void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.heartbeat();
+        }
+    }
+
+    public void reap() {
+        long now = System.nanoTime();
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.stalled(now)) {
+                evictedStalled.increment();
+                logger.info("sse subscriber did not accept data within " + sse.getSendDeadline() + ", evicting");
+                // отправка может висеть на мёртвом сокете и держать монитор эмиттера - закрываем не из планировщика
+                remove(subscriber);
+                try {
+                    dispatcher.execute(subscriber::close);
+                } catch (RejectedExecutionException ignored) { }
+            }
+        }
+    }
+
+    private int queued() {
+        int total = 0;
+        for (Subscriber subscriber : subscribers) {
+            total += subscriber.pending();
+        }
+        return total;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (heartbeatTask != null) heartbeatTask.cancel(false);
+        if (reaperTask != null) reaperTask.cancel(false);
+        subscribers.forEach(Subscriber::close);
+    }
+
+    private void remove(Subscriber subscriber) {
+        subscriber.closed = true;
+        if (subscribers.remove(subscriber)) live.decrementAndGet();
+    }
+
+    public final class Subscriber {
+
+        private final SseEmitter emitter;
+
+        // защищена монитором подписчика
+        private final Deque<SseMessage> queue = new ArrayDeque<>();
+
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+
+        private volatile boolean closed;
+
+        private volatile boolean sending;
+
+        // момент последнего продвижения: успешной отправки или появления данных в пустой очереди
+        private volatile long lastProgress = System.nanoTime();
+
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        public SseEmitter emitter() {
+            return emitter;
+        }
+
+        public boolean isClosed() {
+            return closed;
+        }
+
+        void offer(SseMessage message) {
+            if (closed) return;
+            boolean overflow = false;
+            synchronized (this) {
+                if (queue.isEmpty() && !sending) lastProgress = System.nanoTime();
+                if (queue.size() < queueCapacity) {
+                    queue.addLast(message);
+                } else {
+                    switch (overflowPolicy) {
+                        case DROP_OLDEST -> dropOldest(message);
+                        case COALESCE -> {
+                            queue.clear();
+                            queue.addLast(SseMessage.reset(message.id()));
+                        }
+                        case DISCONNECT -> overflow = true;
+                    }
+                }
+            }
+            if (overflow) {
+                evictedOverflow.increment();
+                logger.info("sse subscriber is too slow, disconnecting");
+                close();
+                return;
+            }
+            schedule();
+        }
+
+        // выброшенную дельту клиент не восстановит, поэтому во главе очереди встаёт reset: он покрывает
+        // всё выброшенное, а место под него освобождает следующее событие. Прежний reset вытесняется новым
+        private void dropOldest(SseMessage message) {
+            SseMessage dropped = queue.pollFirst();
+            if (dropped.isHeartbeat()) {
+                queue.addLast(message);
+                return;
+            }
+            // в очереди на одно место reset покрывает и само новое событие
+            SseMessage covered = queue.isEmpty() ? message : queue.pollFirst();
+            queue.addFirst(SseMessage.reset(Math.max(dropped.id(), covered.id())));
+            if (covered != message) queue.addLast(message);
+        }
+
+        void heartbeat() {
+            synchronized (this) {
+                // при непустой очереди соединение и так проверяется отправкой данных
+                if (closed || !queue.isEmpty() || sending) return;
+                lastProgress = System.nanoTime();
+                queue.addLast(SseMessage.HEARTBEAT);
+            }
+            schedule();
+        }
+
+        boolean stalled(long now) {
+            if (closed) return false;
+            synchronized (this) {
+                if (queue.isEmpty() && !sending) return false;
+            }
+            return now - lastProgress > sendDeadlineNanos;
+        }
+
+        synchronized int pending() {
+            return queue.size();
+        }
+
+        void close() {
+            remove(this);
+            synchronized (this) {
+                queue.clear();
+            }
+            try {
+                emitter.complete();
+            } catch (Exception ignored) { }
+        }
+
+        private void schedule() {
+            if (closed || !scheduled.compareAndSet(false, true)) return;
+            try {
+                dispatcher.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                scheduled.set(false);
+            }
+        }
+
+        private void drain() {
+            int sent = 0;
+            while (!closed && sent < dispatchBatch) {
+                SseMessage next;
+                synchronized (this) {
+                    next = queue.pollFirst();
+                    sending = next != null;
+                }
+                if (next == null) break;
+                try {
+                    long began = System.nanoTime();
+                    emitter.send(next.toEvent());
+                    long now = System.nanoTime();
+                    sendTime.record(now - began, TimeUnit.NANOSECONDS);
+                    lastProgress = now;
+                    sent++;
+                } catch (IOException | IllegalStateException e) {
+                    evictedError.increment();
+                    sending = false;
+                    close();
+                    return;
+                }
+            }
+            sending = false;
+            scheduled.set(false);
+            boolean more;
+            synchronized (this) {
+                more = !queue.isEmpty();
+            }
+            // событие могло прийти между опустошением очереди и сбросом флага
+            if (more) schedule();
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package systems.project.services;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+public record SseMessage(long id, String data) {
+
+    private static final long RECONNECT_MS = 3000;
+
+    // TicketChange с action=reset: клиент должен перечитать список целиком
+    private static final String RESET_DATA = "{\"action\":\"reset\",\"ids\":[],\"tickets\":null}";
+
+    // комментарий-кадр: EventSource его не показывает, но запись в сокет выявляет мёртвое соединение
+    public static final SseMessage HEARTBEAT = new SseMessage(-1, null);
+
+    public static SseMessage reset(long id) {
+        return new SseMessage(id, RESET_DATA);
+    }
+
+    public boolean isHeartbeat() {
+        return data == null;
+    }
+
+    public SseEmitter.SseEventBuilder toEvent() {
+        if (isHeartbeat()) return SseEmitter.event().comment("hb");
+        return SseEmitter.event()
+                .data(data)
+                .id(String.valueOf(id))
+                .reconnectTime(RECONNECT_MS);
+    }
+}
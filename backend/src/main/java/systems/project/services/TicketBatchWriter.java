@@ -0,0 +1,62 @@
+package systems.project.services;
+
+import jakarta.persistence.EntityManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import systems.project.models.Event;
+import systems.project.models.Person;
+import systems.project.models.Ticket;
+import systems.project.models.Venue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Вставка пачки билетов одной транзакцией. Вставки уходят JDBC-батчами
+ * (hibernate.jdbc.batch_size, order_inserts), id берутся блоками из последовательностей.
+ */
+@Component
+public class TicketBatchWriter {
+
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+
+    public TicketBatchWriter(EntityManager entityManager, PlatformTransactionManager transactionManager) {
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    // id созданных билетов в порядке входного списка; при ошибке откатывается вся пачка
+    public List<Integer> insert(List<Ticket> tickets) {
+        return transactionTemplate.execute(status -> {
+            for (Ticket ticket : tickets) {
+                prepare(ticket);
+                entityManager.persist(ticket);
+            }
+            entityManager.flush();
+            List<Integer> ids = new ArrayList<>(tickets.size());
+            tickets.forEach(t -> ids.add(t.getId()));
+            // контекст не копит тысячи сущностей до конца транзакции
+            entityManager.clear();
+            return ids;
+        });
+    }
+
+    private void prepare(Ticket ticket) {
+        // билет и координаты всегда новые: id из входных данных и от неудачной попытки не используются
+        ticket.setId(null);
+        ticket.setVersion(null);
+        ticket.getCoordinates().setId(null);
+        // ссылки подставляются без SELECT; несуществующий id упадёт на внешнем ключе
+        if (ticket.getPerson() != null) {
+            ticket.setPerson(entityManager.getReference(Person.class, ticket.getPerson().getId()));
+        }
+        if (ticket.getEvent() != null) {
+            ticket.setEvent(entityManager.getReference(Event.class, ticket.getEvent().getId()));
+        }
+        if (ticket.getVenue() != null) {
+            ticket.setVenue(entityManager.getReference(Venue.class, ticket.getVenue().getId()));
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package systems.project.services;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import systems.project.configuratons.TicketsProperties;
+import systems.project.repositories.TicketRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+
+/**
+ * Массовое удаление билетов без загрузки сущностей: id отбираются чанками, на чанк - одна транзакция
+ * с двумя DELETE ... WHERE id IN (билеты, затем их координаты). Каскад и orphanRemoval при этом
+ * не срабатывают, поэтому координаты удаляются явно.
+ */
+@Component
+public class TicketBulkDeleter {
+
+    private final TicketRepository ticketRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final TicketsProperties properties;
+    private final Logger logger;
+
+    public TicketBulkDeleter(TicketRepository ticketRepository,
+                             PlatformTransactionManager transactionManager,
+                             TicketsProperties properties,
+                             Logger logger) {
+        this.ticketRepository = ticketRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = properties;
+        this.logger = logger;
+    }
+
+    /**
+     * Удаляет все билеты с таким comment. После каждого зафиксированного чанка его id уходят в onChunk -
+     * по ним подписчики видят ход долгого удаления. При ошибке уже удалённые чанки остаются удалёнными.
+     *
+     * @return id удалённых билетов
+     */
+    public List<Integer> deleteByComment(String comment, Consumer<List<Integer>> onChunk) {
+        int chunkSize = Math.max(1, properties.getBulkDelete().getChunkSize());
+        List<Integer> deleted = new ArrayList<>();
+        while (true) {
+            List<Integer> chunk = transactionTemplate.execute(status -> deleteChunk(comment, chunkSize));
+            if (chunk == null || chunk.isEmpty()) break;
+            deleted.addAll(chunk);
+            onChunk.accept(chunk);
+            if (chunk.size() < chunkSize) break;
+            logger.info("bulk delete by comment: " + deleted.size() + " tickets deleted so far");
+        }
+        return deleted;
+    }
+
+    private List<Integer> deleteChunk(String comment, int chunkSize) {
+        List<Integer> ids = ticketRepository.findIdChunkByComment(comment, PageRequest.of(0, chunkSize));
+        if (ids.isEmpty()) return ids;
+        List<Long> coordinates = ticketRepository.findCoordinatesIds(ids);
+        ticketRepository.deleteAllByIdIn(ids);
+        if (!coordinates.isEmpty()) ticketRepository.deleteCoordinatesByIdIn(coordinates);
+        return ids;
+    }
+}
@@ -0,0 +1,42 @@
+package systems.project.services;
+
+import org.springframework.data.domain.Sort;
+import systems.project.models.Ticket;
+import systems.project.models.api.TicketSort;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Непрозрачный курсор keyset-пагинации: сортировка, направление и ключ последнего отданного билета.
+ */
+public record TicketCursor(TicketSort sort, Sort.Direction direction, Integer id, String value) {
+
+    private static final String SEP = "|";
+
+    public static TicketCursor after(Ticket last, TicketSort sort, Sort.Direction direction) {
+        Object v = sort.valueOf(last);
+        return new TicketCursor(sort, direction, last.getId(), v == null ? "" : v.toString());
+    }
+
+    public static TicketCursor decode(String raw) {
+        try {
+            String s = new String(Base64.getUrlDecoder().decode(raw), StandardCharsets.UTF_8);
+            String[] parts = s.split("\\|", 4);
+            if (parts.length != 4) throw new IllegalArgumentException("Некорректный курсор");
+            return new TicketCursor(TicketSort.valueOf(parts[0]), Sort.Direction.valueOf(parts[1]),
+                    Integer.valueOf(parts[2]), parts[3]);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Некорректный курсор", e);
+        }
+    }
+
+    public String encode() {
+        String s = sort.name() + SEP + direction.name() + SEP + id + SEP + value;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(s.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public Comparable<?> typedValue() {
+        return sort.parse(value);
+    }
+}
@@ -1,61 +1,269 @@
 // TicketEventsService.java
 package systems.project.services;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.scheduling.TaskScheduler;
 import org.springframework.stereotype.Service;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import systems.project.configuratons.RequestTiming;
+import systems.project.configuratons.TicketsProperties;
+import systems.project.models.api.TicketChange;
+import systems.project.models.api.TicketDTO;
+import systems.project.models.api.TicketHold;
 
-import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.Map;
 import java.util.logging.Logger;
 
 @Service
 public class TicketEventService {
-    private final List<SseEmitter> emitters = new CopyOnWriteArrayList<>();
+    private final SseBroadcaster broadcaster;
+    private final TicketReadModel readModel;
+    private final CollectionVersions versions;
     private final Logger logger;
+    private final ObjectMapper mapper;
+    private final TaskScheduler scheduler;
+    private final int replayCapacity;
+    private final Duration coalesceWindow;
+    private final int coalesceMaxEvents;
 
-    public TicketEventService(Logger logger) {
+    private final Counter rawEvents;
+    private final Counter messages;
+    private final DistributionSummary foldedPerMessage;
+
+    // кольцевой буфер последних событий для дозапроса по Last-Event-ID, защищён this
+    private final Deque<SseMessage> replay = new ArrayDeque<>();
+    private long lastId;
+
+    // изменения, ожидающие конца окна склейки, защищены this
+    private List<TicketChange> pending = new ArrayList<>();
+
+    public TicketEventService(SseBroadcaster broadcaster,
+                              TicketReadModel readModel,
+                              CollectionVersions versions,
+                              Logger logger,
+                              ObjectMapper mapper,
+                              TaskScheduler scheduler,
+                              MeterRegistry registry,
+                              TicketsProperties properties) {
+        var sse = properties.getSse();
+        this.broadcaster = broadcaster;
+        this.readModel = readModel;
+        this.versions = versions;
         this.logger = logger;
+        this.mapper = mapper;
+        this.scheduler = scheduler;
+        this.replayCapacity = Math.max(1, sse.getReplayCapacity());
+        this.coalesceWindow = sse.getCoalesceWindow() == null ? Duration.ZERO : sse.getCoalesceWindow();
+        this.coalesceMaxEvents = Math.max(1, sse.getCoalesceMaxEvents());
+        // id растут и между перезапусками: после рестарта старый Last-Event-ID окажется вне буфера -> reset
+        this.lastId = System.currentTimeMillis() * 1000;
+
+        this.rawEvents = Counter.builder("tickets.sse.events.raw")
+                .description("Изменения, переданные в publishChange")
+                .register(registry);
+        this.messages = Counter.builder("tickets.sse.messages")
+                .description("SSE-сообщения, отправленные подписчикам после склейки")
+                .register(registry);
+        this.foldedPerMessage = DistributionSummary.builder("tickets.sse.coalesced.events")
+                .description("Сколько изменений склеено в одно SSE-сообщение")
+                .publishPercentiles(0.5, 0.99)
+                .register(registry);
     }
 
-    public SseEmitter subscribe() {
-        SseEmitter emitter = new SseEmitter(0L);
-        emitters.add(emitter);
+    public SseEmitter subscribe(String lastEventId) {
+        SseEmitter emitter = broadcaster.newEmitter();
 
-        emitter.onCompletion(() -> emitters.remove(emitter));
-        emitter.onTimeout(() -> {
-            emitters.remove(emitter);
-            emitter.complete();
-        });
-        emitter.onError(ex -> {
-            emitters.remove(emitter);
-            try {
-                emitter.complete();
-            } catch (Exception ignored) { }
-        });
-        try {
-            emitter.send(SseEmitter.event()
-                    .data("connected")
-                    .reconnectTime(3000)
-                    .id(String.valueOf(System.currentTimeMillis()))
-                    .build());
-        } catch (IOException ignored) { }
+        // регистрация и догонка под тем же замком, что и публикация: событие не потеряется и не придёт дважды.
+        // Под замком только постановка в очереди, сама отправка идёт в потоках SseBroadcaster
+        synchronized (this) {
+            List<SseMessage> backlog = new ArrayList<>();
+            Long resumeFrom = parseEventId(lastEventId);
+            if (resumeFrom == null) {
+                backlog.add(new SseMessage(lastId, "connected"));
+            } else if (canReplayFrom(resumeFrom)) {
+                for (SseMessage ev : replay) {
+                    if (ev.id() > resumeFrom) backlog.add(ev);
+                }
+            } else {
+                backlog.add(SseMessage.reset(lastId));
+            }
+            broadcaster.register(emitter, backlog);
+        }
 
         return emitter;
     }
 
     public void publishChange(String action, Integer id) {
-        logger.info("published");
-        emitters.forEach(em -> {
+        publishChange(action, id == null ? List.of() : List.of(id), null);
+    }
+
+    public void publishChange(String action, List<Integer> ids, List<TicketDTO> tickets) {
+        long began = System.nanoTime();
+        var event = new TicketJfrEvents.PublishChange();
+        event.begin();
+        TicketChange change = TicketChange.builder()
+                .action(action)
+                .ids(ids == null ? List.of() : List.copyOf(ids))
+                .tickets(tickets == null ? null : new ArrayList<>(tickets))
+                .writtenAt(System.currentTimeMillis())
+                .build();
+        rawEvents.increment();
+        // рассылка - после обновления модели чтения: клиент, перечитавший список по событию, увидит изменение.
+        // Срез обновляется в своём потоке, поток записи его не ждёт
+        readModel.apply(change.getIds()).whenComplete((v, ex) -> {
+            // ещё одно увеличение после обновления среза: ответ из среза, снятый до apply, не сохранит свой ETag
+            versions.bump(CollectionVersions.Kind.TICKETS);
+            enqueue(change);
+        });
+        RequestTiming.record(RequestTiming.SSE, System.nanoTime() - began);
+        if (event.shouldCommit()) {
+            event.action = action;
+            event.ids = change.getIds().size();
+            event.tickets = tickets == null ? -1 : tickets.size();
+            event.subscribers = broadcaster.size();
+            event.commit();
+        }
+    }
+
+    // бронь не меняет билеты: ни модель чтения, ни версия списка не трогаются, клиенту нечего перечитывать
+    public void publishHold(TicketHold hold) {
+        long began = System.nanoTime();
+        rawEvents.increment();
+        enqueue(TicketChange.builder()
+                .action(hold.getStatus().getAction())
+                .ids(List.of())
+                .tickets(List.of())
+                .holds(List.of(hold))
+                .build());
+        RequestTiming.record(RequestTiming.SSE, System.nanoTime() - began);
+    }
+
+    private void enqueue(TicketChange change) {
+        boolean schedule;
+        synchronized (this) {
+            pending.add(change);
+            if (coalesceWindow.isZero() || pending.size() >= coalesceMaxEvents) {
+                flushLocked();
+                return;
+            }
+            schedule = pending.size() == 1;
+        }
+        if (schedule) scheduler.schedule(this::flush, Instant.now().plus(coalesceWindow));
+    }
+
+    public synchronized void flush() {
+        flushLocked();
+    }
+
+    private void flushLocked() {
+        if (pending.isEmpty()) return;
+        List<TicketChange> batch = pending;
+        pending = new ArrayList<>();
+
+        var event = new TicketJfrEvents.Broadcast();
+        event.begin();
+        SseMessage ev = new SseMessage(++lastId, serialize(merge(batch)));
+        if (replay.size() == replayCapacity) replay.pollFirst();
+        replay.addLast(ev);
+        broadcaster.broadcast(ev);
+        if (event.shouldCommit()) {
+            event.messageId = ev.id();
+            event.changes = batch.size();
+            event.payloadChars = ev.data().length();
+            event.subscribers = broadcaster.size();
+            event.commit();
+        }
+
+        messages.increment();
+        foldedPerMessage.record(batch.size());
+        logger.fine("published " + batch.size() + " change(s) as #" + ev.id());
+    }
+
+    // склеивает изменения в одно: ids - объединение, tickets и holds - последнее состояние каждого билета и брони,
+    // writtenAt - самая поздняя запись
+    private static TicketChange merge(List<TicketChange> batch) {
+        if (batch.size() == 1) return batch.get(0);
+
+        Map<Integer, TicketDTO> state = new LinkedHashMap<>();
+        Map<Integer, TicketHold> holds = new LinkedHashMap<>();
+        List<TicketChange> changes = new ArrayList<>(batch.size());
+        boolean complete = true;
+        Long writtenAt = null;
+        for (TicketChange change : batch) {
+            if (change.getWrittenAt() != null && (writtenAt == null || change.getWrittenAt() > writtenAt)) {
+                writtenAt = change.getWrittenAt();
+            }
+            changes.add(TicketChange.builder().action(change.getAction()).ids(change.getIds()).build());
+            if (change.getHolds() != null) change.getHolds().forEach(h -> holds.put(h.getTicketId(), h));
+            if (change.getTickets() == null) {
+                complete = false;
+                change.getIds().forEach(id -> state.put(id, null));
+                continue;
+            }
+            Map<Integer, TicketDTO> fresh = new HashMap<>();
+            change.getTickets().forEach(t -> {
+                if (t != null && t.getId() != null) fresh.put(t.getId(), t);
+            });
+            change.getIds().forEach(id -> state.put(id, fresh.get(id)));
+            fresh.forEach(state::put);
+        }
+
+        List<TicketDTO> tickets = null;
+        if (complete) {
+            tickets = new ArrayList<>();
+            for (TicketDTO t : state.values()) {
+                if (t != null) tickets.add(t);
+            }
+        }
+        return TicketChange.builder()
+                .action("batch")
+                .ids(new ArrayList<>(state.keySet()))
+                .tickets(tickets)
+                .changes(changes)
+                .holds(holds.isEmpty() ? null : new ArrayList<>(holds.values()))
+                .writtenAt(writtenAt)
+                .build();
+    }
+
+    private boolean canReplayFrom(long resumeFrom) {
+        if (resumeFrom > lastId) return false;
+        if (resumeFrom == lastId) return true;
+        return !replay.isEmpty() && replay.peekFirst().id() <= resumeFrom + 1;
+    }
+
+    private static Long parseEventId(String raw) {
+        if (raw == null || raw.isBlank()) return null;
+        try {
+            return Long.parseLong(raw.trim());
+        } catch (NumberFormatException e) {
+            // нечисловой id не из нашей последовательности - догнать такого клиента нельзя
+            return -1L;
+        }
+    }
+
+    private String serialize(TicketChange change) {
+        try {
+            return mapper.writeValueAsString(change);
+        } catch (JsonProcessingException e) {
+            // без полезной нагрузки клиент просто перечитает список
+            change.setTickets(null);
             try {
-                em.send(SseEmitter.event()
-                        .data("{\"action\":\"" + action + "\",\"id\":" + id + "}")
-                        .id(String.valueOf(System.currentTimeMillis()))
-                        .build());
-            } catch (IOException e) {
-                em.complete();
-                emitters.remove(em);
+                return mapper.writeValueAsString(change);
+            } catch (JsonProcessingException ex) {
+                throw new IllegalStateException(ex);
             }
-        });
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,133 @@
+package systems.project.services;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import jakarta.persistence.EntityManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import systems.project.models.Ticket;
+import systems.project.models.api.TicketDTO;
+import systems.project.models.api.TicketExportFormat;
+import systems.project.repositories.TicketRepository;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Выгрузка билетов потоком: строки читаются курсором и сразу пишутся в ответ,
+ * поэтому расход памяти не зависит от размера таблицы.
+ */
+@Service
+public class TicketExportService {
+
+    static final String CSV_HEADER = "id,name,coordinates_x,coordinates_y,creation_date,price,type,discount,number,"
+            + "comment,person_id,event_id,venue_id";
+
+    private final TicketRepository ticketRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper mapper;
+
+    public TicketExportService(TicketRepository ticketRepository,
+                               EntityManager entityManager,
+                               PlatformTransactionManager transactionManager,
+                               ObjectMapper mapper) {
+        this.ticketRepository = ticketRepository;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // без транзакции PostgreSQL игнорирует fetch size и отдаёт весь результат сразу
+        this.transactionTemplate.setReadOnly(true);
+        this.mapper = mapper;
+    }
+
+    // возвращает число выгруженных билетов; out не закрывается
+    public long export(TicketExportFormat format, Integer eventId, Long venueId, OutputStream out) {
+        Long written = transactionTemplate.execute(status -> {
+            try (Stream<Ticket> rows = ticketRepository.streamForExport(eventId, venueId)) {
+                return format == TicketExportFormat.CSV
+                        ? writeCsv(rows.iterator(), out)
+                        : writeNdjson(rows.iterator(), out);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return written == null ? 0 : written;
+    }
+
+    // строка NDJSON - тот же TicketDTO, что в ответах API: сериализатор не касается сущностей и их прокси
+    private long writeNdjson(Iterator<Ticket> rows, OutputStream out) throws IOException {
+        long count = 0;
+        try (SequenceWriter writer = mapper.writerFor(TicketDTO.class)
+                .withRootValueSeparator("\n")
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .writeValues(out)) {
+            while (rows.hasNext()) {
+                writer.write(TicketDTO.from(rows.next()));
+                release(++count);
+            }
+        }
+        if (count > 0) out.write('\n');
+        return count;
+    }
+
+    private long writeCsv(Iterator<Ticket> rows, OutputStream out) throws IOException {
+        long count = 0;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        writer.write(CSV_HEADER);
+        writer.write('\n');
+        while (rows.hasNext()) {
+            writeCsvRow(rows.next(), writer);
+            release(++count);
+        }
+        writer.flush();
+        return count;
+    }
+
+    // сущности из курсора остаются в контексте - периодически его очищаем
+    private void release(long count) {
+        if (count % TicketRepository.EXPORT_FETCH_SIZE == 0) entityManager.clear();
+    }
+
+    static void writeCsvRow(Ticket t, Writer w) throws IOException {
+        var c = t.getCoordinates();
+        Object[] cells = {
+            t.getId(),
+            t.getName(),
+            c == null ? null : c.getX(),
+            c == null ? null : c.getY(),
+            t.getCreationDate(),
+            t.getPrice(),
+            t.getType(),
+            t.getDiscount(),
+            t.getNumber(),
+            t.getComment(),
+            t.getPerson() == null ? null : t.getPerson().getId(),
+            t.getEvent() == null ? null : t.getEvent().getId(),
+            t.getVenue() == null ? null : t.getVenue().getId()
+        };
+        for (int i = 0; i < cells.length; i++) {
+            if (i > 0) w.write(',');
+            if (cells[i] != null) w.write(csvEscape(cells[i].toString()));
+        }
+        w.write('\n');
+    }
+
+    // RFC 4180: поле в кавычках, если в нём есть запятая, кавычка или перевод строки
+    static String csvEscape(String value) {
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char ch = value.charAt(i);
+            quote = ch == ',' || ch == '"' || ch == '\n' || ch == '\r';
+        }
+        return quote ? '"' + value.replace("\"", "\"\"") + '"' : value;
+    }
+}
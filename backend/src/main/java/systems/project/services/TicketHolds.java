@@ -0,0 +1,201 @@
+package systems.project.services;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Service;
+import systems.project.configuratons.TicketsProperties;
+import systems.project.models.api.HoldStatus;
+import systems.project.models.api.TicketHold;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.function.LongSupplier;
+
+/**
+ * Брони билетов в памяти процесса: бронь держит билет за покупателем до истечения срока, в БД при этом
+ * ничего не пишется. Снятие истёкших броней - на колесе таймеров, срок проверяется и при каждом
+ * обращении, так что запоздавший тик не продлевает бронь. Переходы одной брони публикуются в SSE
+ * под замком её ячейки и приходят подписчикам по порядку. Брони не переживают перезапуск
+ * и не делятся между узлами.
+ */
+@Service
+public class TicketHolds {
+
+    // без equals: бронь на колесе сравнивается с текущей по ссылке, продлённая бронь - новый объект
+    private static final class Hold {
+        final Integer ticketId;
+        final Integer personId;
+        final String token;
+        final long deadline;
+        final Instant expiresAt;
+
+        Hold(Integer ticketId, Integer personId, String token, long deadline, Instant expiresAt) {
+            this.ticketId = ticketId;
+            this.personId = personId;
+            this.token = token;
+            this.deadline = deadline;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private final Map<Integer, Hold> holds = new ConcurrentHashMap<>();
+    private final TicketEventService events;
+    private final TaskScheduler scheduler;
+    private final LongSupplier clock;
+    private final TimingWheel<Hold> wheel;
+    private final TicketsProperties.Holds settings;
+    private final long ttlNanos;
+
+    private final Counter expired;
+    private final Counter rejected;
+
+    private ScheduledFuture<?> tickTask;
+
+    @Autowired
+    public TicketHolds(TicketEventService events,
+                       TaskScheduler scheduler,
+                       MeterRegistry registry,
+                       TicketsProperties properties) {
+        this(events, scheduler, registry, properties, System::nanoTime);
+    }
+
+    public TicketHolds(TicketEventService events,
+                       TaskScheduler scheduler,
+                       MeterRegistry registry,
+                       TicketsProperties properties,
+                       LongSupplier clock) {
+        this.events = events;
+        this.scheduler = scheduler;
+        this.clock = clock;
+        this.settings = properties.getHolds();
+        this.ttlNanos = settings.getTtl().toNanos();
+        this.wheel = new TimingWheel<>(settings.getTick(), settings.getWheelSize(), clock.getAsLong());
+
+        Gauge.builder("tickets.holds.active", holds, Map::size)
+                .description("Брони, ещё не снятые с колеса")
+                .register(registry);
+        this.expired = Counter.builder("tickets.holds.expired")
+                .description("Брони, снятые по истечении срока")
+                .register(registry);
+        this.rejected = Counter.builder("tickets.holds.rejected")
+                .description("Брони, отклонённые из-за лимита maxHolds")
+                .register(registry);
+    }
+
+    @PostConstruct
+    public void start() {
+        tickTask = scheduler.scheduleAtFixedRate(this::advance, settings.getTick());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (tickTask != null) tickTask.cancel(false);
+    }
+
+    /**
+     * Бронирует билет за покупателем или продлевает его собственную бронь с тем же токеном.
+     *
+     * @return бронь с токеном для release/confirm; null, если билет забронирован другим
+     */
+    public TicketHold hold(Integer ticketId, Integer personId) {
+        long now = clock.getAsLong();
+        if (holds.size() >= settings.getMaxHolds() && !holds.containsKey(ticketId)) {
+            rejected.increment();
+            throw new TaskRejectedException("Достигнут предел числа броней");
+        }
+
+        Hold[] created = new Hold[1];
+        holds.compute(ticketId, (id, cur) -> {
+            boolean live = isLive(cur, now);
+            if (live && !cur.personId.equals(personId)) return cur;
+            String token = live ? cur.token : UUID.randomUUID().toString();
+            created[0] = new Hold(id, personId, token, now + ttlNanos, Instant.now().plus(settings.getTtl()));
+            publish(created[0], HoldStatus.HELD);
+            return created[0];
+        });
+        Hold hold = created[0];
+        if (hold == null) return null;
+
+        wheel.schedule(hold, hold.deadline);
+        return view(hold, HoldStatus.HELD, hold.token);
+    }
+
+    public boolean release(Integer ticketId, String token) {
+        if (ticketId == null) return false;
+        long now = clock.getAsLong();
+        boolean[] released = new boolean[1];
+        holds.computeIfPresent(ticketId, (id, cur) -> {
+            if (!isLive(cur, now) || !cur.token.equals(token)) return cur;
+            publish(cur, HoldStatus.RELEASED);
+            released[0] = true;
+            return null;
+        });
+        return released[0];
+    }
+
+    /**
+     * @return покупатель, за которым действующая бронь с этим токеном; null - брони нет, она истекла
+     *         или токен чужой
+     */
+    public Integer holder(Integer ticketId, String token) {
+        if (ticketId == null) return null;
+        Hold cur = holds.get(ticketId);
+        return isLive(cur, clock.getAsLong()) && cur.token.equals(token) ? cur.personId : null;
+    }
+
+    public boolean isHeldByOther(Integer ticketId, Integer personId) {
+        if (ticketId == null) return false;
+        Hold cur = holds.get(ticketId);
+        return isLive(cur, clock.getAsLong()) && !cur.personId.equals(personId);
+    }
+
+    /**
+     * Билет продан покупателю: любая бронь на него снимается. Своя бронь закрывается как CONFIRMED, чужая -
+     * как RELEASED: её могли поставить после проверки isHeldByOther, пока шла продажа, и confirm по ней
+     * не должен перепродать билет.
+     */
+    public void sold(Integer ticketId, Integer personId) {
+        if (ticketId == null) return;
+        holds.computeIfPresent(ticketId, (id, cur) -> {
+            publish(cur, cur.personId.equals(personId) ? HoldStatus.CONFIRMED : HoldStatus.RELEASED);
+            return null;
+        });
+    }
+
+    public void advance() {
+        wheel.advance(clock.getAsLong(), hold -> holds.computeIfPresent(hold.ticketId, (id, cur) -> {
+            // на колесе остаются и снятые, и продлённые брони - истекает только текущая
+            if (cur != hold) return cur;
+            expired.increment();
+            publish(cur, HoldStatus.EXPIRED);
+            return null;
+        }));
+    }
+
+    private static boolean isLive(Hold hold, long now) {
+        return hold != null && hold.deadline - now > 0;
+    }
+
+    private void publish(Hold hold, HoldStatus status) {
+        events.publishHold(view(hold, status, null));
+    }
+
+    private static TicketHold view(Hold hold, HoldStatus status, String token) {
+        return TicketHold.builder()
+                .ticketId(hold.ticketId)
+                .personId(hold.personId)
+                .token(token)
+                .expiresAt(hold.expiresAt)
+                .status(status)
+                .build();
+    }
+}
@@ -0,0 +1,140 @@
+package systems.project.services;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import systems.project.configuratons.TicketsProperties;
+import systems.project.models.Ticket;
+import systems.project.models.envelopes.TicketImportReport;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.logging.Logger;
+
+import static java.util.concurrent.CompletableFuture.completedFuture;
+
+/**
+ * Потоковая загрузка билетов: JSON-массив или NDJSON читается по одной записи, валидные записи
+ * копятся в чанк и вставляются одной транзакцией. На каждый чанк - одно SSE-событие.
+ */
+@Service
+public class TicketImportService {
+
+    private final ObjectMapper mapper;
+    private final TicketBatchWriter writer;
+    private final TicketEventService events;
+    private final TicketsProperties properties;
+    private final Logger logger;
+
+    public TicketImportService(ObjectMapper mapper,
+                               TicketBatchWriter writer,
+                               TicketEventService events,
+                               TicketsProperties properties,
+                               Logger logger) {
+        this.mapper = mapper;
+        this.writer = writer;
+        this.events = events;
+        this.properties = properties;
+        this.logger = logger;
+    }
+
+    @Async
+    public CompletableFuture<TicketImportReport> importTickets(InputStream body) {
+        TicketImportReport report = new TicketImportReport();
+        try {
+            read(body, report);
+        } catch (IOException e) {
+            // обрыв соединения или ошибка чтения: уже записанные чанки остаются в БД
+            return CompletableFuture.failedFuture(
+                    new IllegalArgumentException("Не удалось прочитать данные: " + e.getMessage(), e));
+        }
+        report.sortRows();
+        logger.info("ticket import: " + report.getImported() + " imported, " + report.getFailed() + " rejected");
+        return completedFuture(report);
+    }
+
+    private void read(InputStream body, TicketImportReport report) throws IOException {
+        var cfg = properties.getBulkImport();
+        int chunkSize = Math.max(1, cfg.getChunkSize());
+        int maxRows = Math.max(1, cfg.getMaxRows());
+
+        List<Ticket> chunk = new ArrayList<>(chunkSize);
+        List<Integer> chunkRows = new ArrayList<>(chunkSize);
+
+        // readValues сам различает массив верхнего уровня и последовательность значений (NDJSON)
+        try (MappingIterator<Ticket> it = mapper.readerFor(Ticket.class).readValues(body)) {
+            for (int row = 1; ; row++) {
+                Ticket ticket;
+                try {
+                    if (!it.hasNextValue()) break;
+                    if (row > maxRows) {
+                        report.rejected(row, "Превышен лимит в " + maxRows + " записей, остаток не загружен");
+                        break;
+                    }
+                    ticket = it.nextValue();
+                } catch (JsonParseException e) {
+                    // синтаксис сломан - дальше границы записей не найти
+                    report.rejected(row, "Некорректный JSON: " + e.getOriginalMessage());
+                    break;
+                } catch (JsonMappingException e) {
+                    // запись синтаксически цела, итератор пропустит её и продолжит со следующей
+                    report.rejected(row, e.getOriginalMessage());
+                    continue;
+                }
+
+                String error = TicketValidator.validate(ticket);
+                if (error != null) {
+                    report.rejected(row, error);
+                    continue;
+                }
+                chunk.add(ticket);
+                chunkRows.add(row);
+                if (chunk.size() == chunkSize) {
+                    writeChunk(chunk, chunkRows, report);
+                }
+            }
+        }
+        writeChunk(chunk, chunkRows, report);
+    }
+
+    private void writeChunk(List<Ticket> chunk, List<Integer> chunkRows, TicketImportReport report) {
+        if (chunk.isEmpty()) return;
+        List<Integer> ids = new ArrayList<>(chunk.size());
+        try {
+            ids.addAll(writer.insert(chunk));
+            for (int i = 0; i < chunk.size(); i++) {
+                report.imported(chunkRows.get(i), ids.get(i));
+            }
+        } catch (RuntimeException e) {
+            // одна строка, нарушившая ограничение БД, откатила весь чанк - повторяем по одной, чтобы найти её
+            ids.clear();
+            for (int i = 0; i < chunk.size(); i++) {
+                try {
+                    Integer id = writer.insert(List.of(chunk.get(i))).get(0);
+                    ids.add(id);
+                    report.imported(chunkRows.get(i), id);
+                } catch (RuntimeException ex) {
+                    report.rejected(chunkRows.get(i), rootMessage(ex));
+                }
+            }
+        }
+        // без данных: клиенты перечитают список один раз на чанк
+        if (!ids.isEmpty()) events.publishChange("import", ids, null);
+        chunk.clear();
+        chunkRows.clear();
+    }
+
+    private static String rootMessage(Throwable e) {
+        Throwable root = e;
+        while (root.getCause() != null && root.getCause() != root) {
+            root = root.getCause();
+        }
+        return root.getMessage();
+    }
+}
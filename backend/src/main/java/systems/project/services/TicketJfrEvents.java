@@ -0,0 +1,127 @@
+package systems.project.services;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * События Java Flight Recorder для операций с билетами: в записи их видно рядом с паузами GC,
+ * блокировками и сэмплами CPU. Стек не пишется, поля заполняются только при shouldCommit(),
+ * так что без активной записи событие стоит одной проверки. Длительность - от вызова метода
+ * сервиса до завершения его future, включая ожидание в очереди исполнителя.
+ * Порог и включение настраиваются в .jfc по имени, например {@code systems.project.TicketSell#threshold=5 ms}.
+ */
+public final class TicketJfrEvents {
+
+    private TicketJfrEvents() { }
+
+    @Name("systems.project.TicketSell")
+    @Label("Ticket Sell")
+    @Category({"Tickets"})
+    @StackTrace(false)
+    public static class Sell extends Event {
+
+        @Label("Ticket Id")
+        public int ticketId;
+
+        @Label("Person Id")
+        public int personId;
+
+        @Label("Amount")
+        public float amount;
+
+        @Label("Outcome")
+        public String outcome;
+    }
+
+    @Name("systems.project.TicketCloneVip")
+    @Label("Ticket Clone VIP")
+    @Category({"Tickets"})
+    @StackTrace(false)
+    public static class CloneVip extends Event {
+
+        @Label("Source Ticket Id")
+        public int ticketId;
+
+        @Label("Clone Id")
+        @Description("0 - копия не создана")
+        public int cloneId;
+    }
+
+    @Name("systems.project.TicketUpdate")
+    @Label("Ticket Update")
+    @Category({"Tickets"})
+    @StackTrace(false)
+    public static class Update extends Event {
+
+        @Label("Ticket Id")
+        public int ticketId;
+
+        @Label("Updated")
+        public boolean updated;
+    }
+
+    @Name("systems.project.TicketDeleteByComment")
+    @Label("Ticket Delete By Comment")
+    @Category({"Tickets"})
+    @StackTrace(false)
+    public static class DeleteByComment extends Event {
+
+        @Label("Comment")
+        public String comment;
+
+        @Label("Rows Deleted")
+        public int rows;
+
+        @Label("Chunks")
+        public int chunks;
+
+        @Label("Failed")
+        public boolean failed;
+    }
+
+    @Name("systems.project.TicketPublishChange")
+    @Label("Ticket Publish Change")
+    @Category({"Tickets", "SSE"})
+    @StackTrace(false)
+    public static class PublishChange extends Event {
+
+        @Label("Action")
+        public String action;
+
+        @Label("Ids")
+        public int ids;
+
+        @Label("Tickets")
+        @Description("Билетов в полезной нагрузке; -1 - без нагрузки, клиенты перечитают список")
+        public int tickets;
+
+        @Label("Subscribers")
+        public int subscribers;
+    }
+
+    @Name("systems.project.TicketBroadcast")
+    @Label("Ticket SSE Broadcast")
+    @Category({"Tickets", "SSE"})
+    @Description("Одно SSE-сообщение после склейки, разосланное в очереди всех подписчиков")
+    @StackTrace(false)
+    public static class Broadcast extends Event {
+
+        @Label("Message Id")
+        public long messageId;
+
+        @Label("Changes")
+        @Description("Изменений, склеенных в сообщение")
+        public int changes;
+
+        @Label("Payload Length")
+        @Description("Длина JSON в символах")
+        public int payloadChars;
+
+        @Label("Subscribers")
+        public int subscribers;
+    }
+}
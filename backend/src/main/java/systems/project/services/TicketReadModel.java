@@ -0,0 +1,226 @@
+package systems.project.services;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import systems.project.configuratons.AsyncConfig;
+import systems.project.configuratons.ReadYourWrites;
+import systems.project.configuratons.TicketsProperties;
+import systems.project.models.Ticket;
+import systems.project.repositories.TicketRepository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+/**
+ * Модель чтения билетов (tickets.read-model.enabled): срез всей таблицы в памяти, который читается без БД.
+ * Срез обновляется по тем же изменениям, что уходят в SSE: TicketEventService передаёт id, изменённые билеты
+ * перечитываются из БД в dbExecutor, а событие рассылается, когда срез их уже учитывает. Поэтому клиент,
+ * перечитывающий список по событию, видит новое состояние, а поток записи перечитывания не ждёт.
+ * Пока срез не построен или после сбоя current() возвращает null, и чтения идут в БД.
+ */
+@Service
+public class TicketReadModel {
+
+    private final TicketRepository ticketRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final Executor executor;
+    private final Logger logger;
+    private final boolean enabled;
+
+    private volatile TicketSnapshot snapshot;
+
+    // защищены this: номер последнего среза, изменения, пришедшие во время полной загрузки,
+    // и очередь изменений к применению
+    private long version;
+    private boolean loading;
+    private final Set<Integer> changedWhileLoading = new HashSet<>();
+    private List<Change> queued = new ArrayList<>();
+    private boolean draining;
+
+    private record Change(Collection<Integer> ids, CompletableFuture<Void> applied) { }
+
+    public TicketReadModel(TicketRepository ticketRepository,
+                           EntityManager entityManager,
+                           PlatformTransactionManager transactionManager,
+                           @Qualifier(AsyncConfig.DB_EXECUTOR) Executor executor,
+                           Logger logger,
+                           MeterRegistry registry,
+                           TicketsProperties properties) {
+        this.ticketRepository = ticketRepository;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.executor = executor;
+        this.logger = logger;
+        this.enabled = properties.getReadModel().isEnabled();
+
+        Gauge.builder("tickets.readmodel.size", this, TicketReadModel::size)
+                .description("Билетов в срезе модели чтения")
+                .register(registry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (enabled) rebuild();
+    }
+
+    private int size() {
+        TicketSnapshot s = snapshot;
+        return s == null ? 0 : s.size();
+    }
+
+    // null - срез недоступен, читать из БД
+    public TicketSnapshot current() {
+        return snapshot;
+    }
+
+    /**
+     * Ставит в очередь перенос в срез текущего состояния билетов ids: найденные в БД заменяются,
+     * отсутствующие удаляются. Future завершается, когда срез учитывает изменение (или чтения ушли в БД).
+     * Изменения применяются одним потоком по порядку вызова, накопившиеся - одним перечитыванием.
+     */
+    public CompletableFuture<Void> apply(Collection<Integer> ids) {
+        if (!enabled || ids == null || ids.isEmpty()) return CompletableFuture.completedFuture(null);
+        Change change = new Change(List.copyOf(ids), new CompletableFuture<>());
+        boolean start;
+        synchronized (this) {
+            queued.add(change);
+            start = !draining;
+            draining = true;
+        }
+        if (start) {
+            try {
+                executor.execute(this::drain);
+            } catch (TaskRejectedException e) {
+                // исполнитель перегружен: применяем в потоке вызова, чтобы срез не отстал от рассылки
+                drain();
+            }
+        }
+        return change.applied();
+    }
+
+    private void drain() {
+        while (true) {
+            List<Change> batch;
+            synchronized (this) {
+                if (queued.isEmpty()) {
+                    draining = false;
+                    return;
+                }
+                batch = queued;
+                queued = new ArrayList<>();
+            }
+            Set<Integer> ids = new LinkedHashSet<>();
+            batch.forEach(c -> ids.addAll(c.ids()));
+            update(ids);
+            // по порядку постановки: события уходят подписчикам в том же порядке, что и изменения
+            batch.forEach(c -> c.applied().complete(null));
+        }
+    }
+
+    // писатель среза один: drain выполняется не более чем в одном потоке
+    private void update(Set<Integer> ids) {
+        TicketSnapshot current;
+        synchronized (this) {
+            current = snapshot;
+            if (current == null) {
+                // полная загрузка увидит это изменение сама, если начнётся после него
+                if (loading) changedWhileLoading.addAll(ids);
+                else rebuild();
+                return;
+            }
+        }
+        try {
+            List<Ticket> fresh = reload(ids);
+            synchronized (this) {
+                current.apply(++version, ids, fresh);
+            }
+        } catch (RuntimeException e) {
+            // срез разошёлся с БД: до пересборки чтения идут в БД
+            logger.warning("read model update failed, rebuilding: " + e.getMessage());
+            synchronized (this) {
+                snapshot = null;
+            }
+            rebuild();
+        }
+    }
+
+    private List<Ticket> reload(Collection<Integer> ids) {
+        return read(status -> ticketRepository.findAllByIdIn(List.copyOf(ids)));
+    }
+
+    // срез читает основную БД: отставшую реплику он запомнил бы до следующего изменения тех же билетов
+    private <T> T read(TransactionCallback<T> action) {
+        ReadYourWrites previous = ReadYourWrites.attach(ReadYourWrites.PRIMARY);
+        try {
+            return transactionTemplate.execute(action);
+        } finally {
+            ReadYourWrites.restore(previous);
+        }
+    }
+
+    private void rebuild() {
+        synchronized (this) {
+            if (loading) return;
+            loading = true;
+            changedWhileLoading.clear();
+        }
+        try {
+            executor.execute(this::load);
+        } catch (TaskRejectedException e) {
+            synchronized (this) {
+                loading = false;
+            }
+            logger.warning("read model rebuild rejected, will retry on next change");
+        }
+    }
+
+    private void load() {
+        try {
+            List<Ticket> all = read(status -> {
+                List<Ticket> rows = new ArrayList<>();
+                try (Stream<Ticket> stream = ticketRepository.streamForExport(null, null)) {
+                    stream.forEach(t -> {
+                        rows.add(t);
+                        // в срезе нужны отсоединённые билеты, контекст не должен расти вместе с таблицей
+                        if (rows.size() % TicketRepository.EXPORT_FETCH_SIZE == 0) entityManager.clear();
+                    });
+                }
+                return rows;
+            });
+            synchronized (this) {
+                TicketSnapshot loaded = TicketSnapshot.of(++version, all);
+                if (!changedWhileLoading.isEmpty()) {
+                    loaded.apply(++version, changedWhileLoading, reload(changedWhileLoading));
+                }
+                snapshot = loaded;
+                loading = false;
+                changedWhileLoading.clear();
+            }
+            logger.info("read model loaded " + all.size() + " tickets");
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                loading = false;
+            }
+            logger.warning("read model load failed: " + e.getMessage());
+        }
+    }
+}
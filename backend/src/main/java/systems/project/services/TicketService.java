@@ -1,68 +1,172 @@
 package systems.project.services;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.transaction.Transactional;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
+import systems.project.configuratons.TicketsProperties;
 import systems.project.models.Coordinates;
+import systems.project.models.Person;
 import systems.project.models.Ticket;
 import systems.project.models.TicketType;
+import systems.project.models.api.SellOutcome;
+import systems.project.models.api.TicketDTO;
+import systems.project.models.api.TicketFilter;
+import systems.project.models.api.TicketSort;
+import systems.project.models.api.UpdateOutcome;
+import systems.project.models.envelopes.TicketsEnvelope;
+import systems.project.models.envelopes.TicketsPageEnvelope;
 import systems.project.repositories.PersonRepository;
 import systems.project.repositories.TicketRepository;
+import systems.project.repositories.TicketSpecifications;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 import static java.util.concurrent.CompletableFuture.completedFuture;
+import static systems.project.services.Rejections.unlessRejected;
 
 @Service
 public class TicketService {
 
     private final TicketRepository ticketRepository;
     private final PersonRepository personRepository;
+    private final TicketBulkDeleter bulkDeleter;
+    private final TicketHolds holds;
+    private final TicketsProperties properties;
+    private final CollectionVersions versions;
 
-    public TicketService(TicketRepository ticketRepository, PersonRepository personRepository) {
+    private final Counter sellConflicts;
+    private final Counter sellRetries;
+
+    public TicketService(TicketRepository ticketRepository,
+                         PersonRepository personRepository,
+                         TicketBulkDeleter bulkDeleter,
+                         TicketHolds holds,
+                         TicketsProperties properties,
+                         CollectionVersions versions,
+                         MeterRegistry registry) {
         this.ticketRepository = ticketRepository;
         this.personRepository = personRepository;
+        this.bulkDeleter = bulkDeleter;
+        this.holds = holds;
+        this.properties = properties;
+        this.versions = versions;
+        this.sellConflicts = Counter.builder("tickets.sell.conflicts")
+                .description("Продажи, отклонённые проверкой версии билета")
+                .register(registry);
+        this.sellRetries = Counter.builder("tickets.sell.retries")
+                .description("Повторы продажи после конфликта версий")
+                .register(registry);
     }
 
-    public CompletableFuture<Map<String, List<Ticket>>> getTickets() {
-        return ticketRepository.findAllBy()
-                .thenApply(list -> Map.of("tickets", list))
-                .exceptionally(exc -> Map.of("tickets", null));
+    @Async
+    public CompletableFuture<TicketsEnvelope> getTickets() {
+        int limit = Math.max(1, properties.getListing().getLegacyLimit());
+        return ticketRepository.findAllByOrderByIdAsc(Limit.of(limit + 1))
+                .thenApply(list -> TicketsEnvelope.firstOf(TicketDTO.fromAll(list), limit))
+                .exceptionally(unlessRejected(exc -> new TicketsEnvelope()));
+    }
+
+    @Async
+    public CompletableFuture<TicketsPageEnvelope> getTicketsPage(TicketFilter filter,
+                                                                 String cursor,
+                                                                 Integer size,
+                                                                 TicketSort sort,
+                                                                 Sort.Direction direction) {
+        var listing = properties.getListing();
+        int pageSize = size == null ? listing.getDefaultPageSize() : size;
+        pageSize = Math.max(1, Math.min(pageSize, listing.getMaxPageSize()));
+        TicketSort by = sort == null ? TicketSort.ID : sort;
+        Sort.Direction dir = direction == null ? Sort.Direction.ASC : direction;
+
+        Specification<Ticket> spec = TicketSpecifications.matching(filter);
+        if (cursor != null && !cursor.isBlank()) {
+            TicketCursor after = TicketCursor.decode(cursor);
+            if (after.sort() != by || after.direction() != dir) {
+                throw new IllegalArgumentException("Курсор получен для другой сортировки");
+            }
+            spec = spec.and(TicketSpecifications.after(by, dir.isDescending(), after.typedValue(), after.id()));
+        }
+
+        Sort order = by == TicketSort.ID
+                ? Sort.by(dir, "id")
+                : Sort.by(dir, by.getAttribute()).and(Sort.by(dir, "id"));
+        int fetch = pageSize + 1;
+        List<Ticket> rows = ticketRepository.<Ticket, List<Ticket>>findBy(spec,
+                q -> q.project(Ticket.FULL_FETCH_PATHS).sortBy(order).limit(fetch).all());
+
+        boolean hasMore = rows.size() > pageSize;
+        List<Ticket> page = hasMore ? rows.subList(0, pageSize) : rows;
+
+        var envelope = new TicketsPageEnvelope();
+        envelope.setTicketList(TicketDTO.fromAll(page));
+        envelope.setHasMore(hasMore);
+        if (hasMore) {
+            envelope.setNextCursor(TicketCursor.after(page.get(page.size() - 1), by, dir).encode());
+        }
+        return completedFuture(envelope);
     }
 
     @Async
     public CompletableFuture<Map<String, Boolean>> addTicket(Ticket ticket) {
         try {
             ticketRepository.save(ticket);
+            versions.bump(CollectionVersions.Kind.TICKETS);
             return completedFuture(Map.of("status", true));
         } catch (Exception e) {
             return completedFuture(Map.of("status", false));
         }
     }
 
-    public CompletableFuture<Ticket> getTicket(Integer id) {
+    @Async
+    public CompletableFuture<TicketDTO> getTicket(Integer id) {
         return ticketRepository.findById(id)
-                .thenApply(res -> res.orElse(null))
-                .exceptionally(exc -> null);
+                .thenApply(res -> res.map(TicketDTO::from).orElse(null))
+                .exceptionally(unlessRejected(exc -> null));
     }
 
     @Async
-    public CompletableFuture<Boolean> updateTicket(Integer id, Ticket ticket) {
+    public CompletableFuture<UpdateOutcome> updateTicket(Integer id, Ticket ticket) {
+        var event = new TicketJfrEvents.Update();
+        event.begin();
+        return update(id, ticket).whenComplete((outcome, exc) -> {
+            if (!event.shouldCommit()) return;
+            event.ticketId = id == null ? 0 : id;
+            event.updated = outcome == UpdateOutcome.UPDATED;
+            event.commit();
+        });
+    }
+
+    /**
+     * Обновление только с версией, с которой клиент прочитал билет: без неё изменение, сделанное
+     * после чтения, молча затёрлось бы. Если билет с тех пор изменили - CONFLICT, клиент перечитывает его.
+     */
+    private CompletableFuture<UpdateOutcome> update(Integer id, Ticket ticket) {
+        if (ticket.getVersion() == null) return completedFuture(UpdateOutcome.VERSION_REQUIRED);
         return ticketRepository.existsById(id)
                 .thenCompose(exists -> {
-                    if (!exists) return completedFuture(false);
+                    if (!exists) return completedFuture(UpdateOutcome.NOT_FOUND);
                     try {
                         ticket.setId(id);
                         ticketRepository.save(ticket);
-                        return completedFuture(true);
+                        versions.bump(CollectionVersions.Kind.TICKETS);
+                        return completedFuture(UpdateOutcome.UPDATED);
+                    } catch (OptimisticLockingFailureException e) {
+                        return completedFuture(UpdateOutcome.CONFLICT);
                     } catch (Exception e) {
-                        return completedFuture(false);
+                        return completedFuture(UpdateOutcome.FAILED);
                     }
                 })
-                .exceptionally(exc -> false);
+                .exceptionally(unlessRejected(exc -> UpdateOutcome.FAILED));
     }
 
     @Async
@@ -72,65 +176,154 @@ public class TicketService {
                 .thenCompose(exists -> {
                     if (!exists) return completedFuture(false);
                     try {
-                        ticketRepository.deleteById(id);
-                        return completedFuture(true);
+                        // ответ и номер версии - только после завершения удаления
+                        return ticketRepository.deleteById(id).thenApply(v -> {
+                            versions.bump(CollectionVersions.Kind.TICKETS);
+                            return true;
+                        });
                     } catch (Exception e) {
                         return completedFuture(false);
                     }
                 })
-                .exceptionally(exc -> false);
+                .exceptionally(unlessRejected(exc -> false));
     }
 
+    /**
+     * Удаление по comment чанками, см. {@link TicketBulkDeleter}: каждый удалённый чанк сразу
+     * увеличивает версию списка и передаётся в onChunk.
+     *
+     * @return id удалённых билетов; пустой список - таких билетов нет
+     */
     @Async
-    @Transactional
-    public CompletableFuture<Boolean> deleteAllByComment(String comment) {
+    public CompletableFuture<List<Integer>> deleteAllByComment(String comment, Consumer<List<Integer>> onChunk) {
         String c = comment == null ? "" : comment.trim();
-        if (c.isEmpty()) return completedFuture(false);
-        return ticketRepository.deleteByComment(c)
-                .thenApply(removed -> removed != null && removed > 0)
-                .exceptionally(exc -> false);
+        if (c.isEmpty()) return completedFuture(List.of());
+        var event = new TicketJfrEvents.DeleteByComment();
+        event.begin();
+        int[] chunks = new int[1];
+        try {
+            List<Integer> deleted = bulkDeleter.deleteByComment(c, chunk -> {
+                chunks[0]++;
+                versions.bump(CollectionVersions.Kind.TICKETS);
+                onChunk.accept(chunk);
+            });
+            commit(event, c, deleted.size(), chunks[0], false);
+            return completedFuture(deleted);
+        } catch (Exception e) {
+            commit(event, c, 0, chunks[0], true);
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private static void commit(TicketJfrEvents.DeleteByComment event, String comment, int rows, int chunks,
+                               boolean failed) {
+        if (!event.shouldCommit()) return;
+        event.comment = comment;
+        event.rows = rows;
+        event.chunks = chunks;
+        event.failed = failed;
+        event.commit();
     }
 
     @Async
-    public CompletableFuture<Ticket> getWithMinEvent() {
+    public CompletableFuture<TicketDTO> getWithMinEvent() {
         return ticketRepository.findFirstByEventIsNotNullOrderByEventIdAsc()
-                .thenApply(res -> res.orElse(null))
-                .exceptionally(exc -> null);
+                .thenApply(res -> res.map(TicketDTO::from).orElse(null))
+                .exceptionally(unlessRejected(exc -> null));
     }
 
     @Async
     public CompletableFuture<Map<String, Long>> countByCommentLess(String comment) {
         return ticketRepository.countByCommentLessThan(comment)
                 .thenApply(res -> Map.of("count", res == null ? 0L : res))
-                .exceptionally(ex -> Map.of("count", 0L));
+                .exceptionally(unlessRejected(ex -> Map.of("count", 0L)));
     }
 
+    /**
+     * Продажа с оптимистической блокировкой: билет сохраняется с версией, с которой был прочитан.
+     * Билет продаётся один раз: у билета с владельцем продажа - CONFLICT, даже тому же покупателю
+     * (повтор запроса после обрыва связи покрывает Idempotency-Key). При конфликте версий билет
+     * перечитывается, и продажа повторяется, только если у него всё ещё нет владельца.
+     * Билет под чужой бронью не продаётся; бронь самого покупателя закрывается продажей.
+     */
     @Async
-    public CompletableFuture<Boolean> sellTicket(Integer ticketId, Integer personId, float amount) {
-        if (amount <= 0f) return completedFuture(false);
+    public CompletableFuture<SellOutcome> sellTicket(Integer ticketId, Integer personId, float amount) {
+        var event = new TicketJfrEvents.Sell();
+        event.begin();
+        return attemptSale(ticketId, personId, amount).whenComplete((outcome, exc) -> {
+            if (!event.shouldCommit()) return;
+            event.ticketId = ticketId == null ? 0 : ticketId;
+            event.personId = personId == null ? 0 : personId;
+            event.amount = amount;
+            event.outcome = outcome == null ? SellOutcome.FAILED.name() : outcome.name();
+            event.commit();
+        });
+    }
+
+    private CompletableFuture<SellOutcome> attemptSale(Integer ticketId, Integer personId, float amount) {
+        if (amount <= 0f) return completedFuture(SellOutcome.INVALID_AMOUNT);
+        if (holds.isHeldByOther(ticketId, personId)) return completedFuture(SellOutcome.HELD_BY_OTHER);
 
         return ticketRepository.findById(ticketId)
-                .thenCompose(tOpt ->
-                        tOpt.map(ticket ->
-                                personRepository.findById(personId)
-                                        .thenCompose(pOpt -> {
-                                            if (pOpt.isEmpty()) return completedFuture(false);
-                                            try {
-                                                ticket.setPrice(amount);
-                                                ticket.setPerson(pOpt.get());
-                                                ticketRepository.save(ticket);
-                                                return completedFuture(true);
-                                            } catch (Exception e) {
-                                                return completedFuture(false);
-                                            }
-                                        })
-                        ).orElseGet(() -> completedFuture(false))
-                )
-                .exceptionally(exc -> false);
+                .thenCompose(tOpt -> {
+                    if (tOpt.isEmpty()) return completedFuture(SellOutcome.TICKET_NOT_FOUND);
+                    Ticket ticket = tOpt.get();
+                    if (ownerId(ticket) != null) return completedFuture(SellOutcome.CONFLICT);
+                    return personRepository.findById(personId)
+                            .thenCompose(pOpt -> pOpt.isEmpty()
+                                    ? completedFuture(SellOutcome.PERSON_NOT_FOUND)
+                                    : sell(ticketId, ticket, pOpt.get(), amount, 1));
+                })
+                .thenApply(outcome -> {
+                    if (outcome == SellOutcome.SOLD) holds.sold(ticketId, personId);
+                    return outcome;
+                })
+                .exceptionally(unlessRejected(exc -> SellOutcome.FAILED));
+    }
+
+    private CompletableFuture<SellOutcome> sell(Integer ticketId, Ticket ticket, Person buyer, float amount,
+                                               int attempt) {
+        try {
+            ticket.setPrice(amount);
+            ticket.setPerson(buyer);
+            ticketRepository.save(ticket);
+            versions.bump(CollectionVersions.Kind.TICKETS);
+            return completedFuture(SellOutcome.SOLD);
+        } catch (OptimisticLockingFailureException e) {
+            sellConflicts.increment();
+            if (attempt >= Math.max(1, properties.getSell().getMaxAttempts())) {
+                return completedFuture(SellOutcome.CONFLICT);
+            }
+            // перечитывается по id из запроса: сохранённый объект после неудачной записи не надёжен
+            return ticketRepository.findById(ticketId)
+                    .thenCompose(fresh -> {
+                        if (fresh.isEmpty()) return completedFuture(SellOutcome.TICKET_NOT_FOUND);
+                        if (ownerId(fresh.get()) != null) return completedFuture(SellOutcome.CONFLICT);
+                        sellRetries.increment();
+                        return sell(ticketId, fresh.get(), buyer, amount, attempt + 1);
+                    });
+        } catch (Exception e) {
+            return completedFuture(SellOutcome.FAILED);
+        }
+    }
+
+    private static Long ownerId(Ticket ticket) {
+        return ticket.getPerson() == null ? null : ticket.getPerson().getId();
     }
 
     @Async
-    public CompletableFuture<Ticket> cloneVip(Integer ticketId) {
+    public CompletableFuture<TicketDTO> cloneVip(Integer ticketId) {
+        var event = new TicketJfrEvents.CloneVip();
+        event.begin();
+        return cloneAsVip(ticketId).thenApply(TicketDTO::from).whenComplete((copy, exc) -> {
+            if (!event.shouldCommit()) return;
+            event.ticketId = ticketId == null ? 0 : ticketId;
+            event.cloneId = copy == null || copy.getId() == null ? 0 : copy.getId();
+            event.commit();
+        });
+    }
+
+    private CompletableFuture<Ticket> cloneAsVip(Integer ticketId) {
         return ticketRepository.findById(ticketId)
                 .thenCompose(srcOpt -> {
                     if (srcOpt.isEmpty()) return completedFuture(null);
@@ -160,11 +353,12 @@ public class TicketService {
 
                     try {
                         var saved = ticketRepository.save(copy);
+                        versions.bump(CollectionVersions.Kind.TICKETS);
                         return completedFuture(saved);
                     } catch (Exception e) {
                         return completedFuture(null);
                     }
                 })
-                .exceptionally(ex -> null);
+                .exceptionally(unlessRejected(ex -> null));
     }
 }
\ No newline at end of file
@@ -0,0 +1,126 @@
+package systems.project.services;
+
+import systems.project.models.Ticket;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Срез всех билетов с индексами по id, событию, месту и владельцу.
+ * Читается без блокировок; изменение правит индексы на месте только для своих id, за O(log N) на билет,
+ * поэтому запись не копирует таблицу. Писатель один - поток обновления TicketReadModel. Каждое чтение
+ * видит состояние билета целиком до или после изменения, но запрос из нескольких чтений может застать
+ * срез между изменениями. Билеты в срезе общие для всех читателей и не должны изменяться.
+ */
+public final class TicketSnapshot {
+
+    private final NavigableMap<Integer, Ticket> byId = new ConcurrentSkipListMap<>();
+    private final NavigableMap<Integer, NavigableMap<Integer, Ticket>> byEvent = new ConcurrentSkipListMap<>();
+    private final Map<Long, NavigableMap<Integer, Ticket>> byVenue = new ConcurrentHashMap<>();
+    private final Map<Long, NavigableMap<Integer, Ticket>> byPerson = new ConcurrentHashMap<>();
+
+    private volatile long version;
+
+    private TicketSnapshot(long version) {
+        this.version = version;
+    }
+
+    public static TicketSnapshot of(long version, Collection<Ticket> tickets) {
+        TicketSnapshot snapshot = new TicketSnapshot(version);
+        for (Ticket t : tickets) snapshot.put(t);
+        return snapshot;
+    }
+
+    /**
+     * Билеты ids заменяются на fresh; id, которых нет в fresh, удаляются. Вызывает только TicketReadModel,
+     * по одному изменению за раз.
+     */
+    void apply(long newVersion, Collection<Integer> ids, Collection<Ticket> fresh) {
+        Map<Integer, Ticket> found = new HashMap<>();
+        for (Ticket t : fresh) found.put(t.getId(), t);
+        for (Integer id : ids) {
+            if (!found.containsKey(id)) unindex(byId.remove(id));
+        }
+        for (Ticket t : found.values()) put(t);
+        version = newVersion;
+    }
+
+    private void put(Ticket t) {
+        // новая запись ставится раньше, чем снимается старая: билет не пропадает из индекса, где остаётся
+        Ticket old = byId.put(t.getId(), t);
+        index(byEvent, t.getEvent() == null ? null : t.getEvent().getId(), t);
+        index(byVenue, t.getVenue() == null ? null : t.getVenue().getId(), t);
+        index(byPerson, t.getPerson() == null ? null : t.getPerson().getId(), t);
+        unindex(old);
+    }
+
+    private void unindex(Ticket old) {
+        if (old == null) return;
+        unindex(byEvent, old.getEvent() == null ? null : old.getEvent().getId(), old);
+        unindex(byVenue, old.getVenue() == null ? null : old.getVenue().getId(), old);
+        unindex(byPerson, old.getPerson() == null ? null : old.getPerson().getId(), old);
+    }
+
+    private static <K> void index(Map<K, NavigableMap<Integer, Ticket>> index, K key, Ticket t) {
+        if (key != null) index.computeIfAbsent(key, k -> new ConcurrentSkipListMap<>()).put(t.getId(), t);
+    }
+
+    // снимается только тот же объект: если put уже положил под этот id новый билет, он остаётся.
+    // Сравнение по ссылке, а не equals: писатель один, проверка и удаление не разойдутся
+    private static <K> void unindex(Map<K, NavigableMap<Integer, Ticket>> index, K key, Ticket old) {
+        if (key == null) return;
+        NavigableMap<Integer, Ticket> tickets = index.get(key);
+        if (tickets == null || tickets.get(old.getId()) != old) return;
+        tickets.remove(old.getId());
+        if (tickets.isEmpty()) index.remove(key);
+    }
+
+    public long version() {
+        return version;
+    }
+
+    public int size() {
+        return byId.size();
+    }
+
+    public Ticket get(Integer id) {
+        return id == null ? null : byId.get(id);
+    }
+
+    // как findAllByOrderByIdAsc(Limit.of(limit))
+    public List<Ticket> firstById(int limit) {
+        return byId.values().stream().limit(limit).toList();
+    }
+
+    // как findFirstByEventIsNotNullOrderByEventIdAsc, при равных событиях - меньший id
+    public Ticket minEventTicket() {
+        // список события мог опустеть между удалением последнего билета и удалением ключа
+        for (NavigableMap<Integer, Ticket> tickets : byEvent.values()) {
+            var first = tickets.firstEntry();
+            if (first != null) return first.getValue();
+        }
+        return null;
+    }
+
+    public List<Ticket> byEvent(Integer eventId) {
+        return list(byEvent, eventId);
+    }
+
+    public List<Ticket> byVenue(Long venueId) {
+        return list(byVenue, venueId);
+    }
+
+    public List<Ticket> byPerson(Long personId) {
+        return list(byPerson, personId);
+    }
+
+    private static <K> List<Ticket> list(Map<K, NavigableMap<Integer, Ticket>> index, K key) {
+        NavigableMap<Integer, Ticket> tickets = key == null ? null : index.get(key);
+        return tickets == null ? List.of() : List.copyOf(tickets.values());
+    }
+}
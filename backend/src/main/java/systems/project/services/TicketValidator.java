@@ -0,0 +1,32 @@
+package systems.project.services;
+
+import systems.project.models.Ticket;
+
+/**
+ * Проверка ограничений билета до вставки: при пакетной загрузке одна невалидная строка
+ * не должна откатывать весь чанк.
+ */
+final class TicketValidator {
+
+    private TicketValidator() { }
+
+    // текст первой найденной ошибки или null, если билет корректен
+    static String validate(Ticket ticket) {
+        if (ticket == null) return "Пустая запись";
+        if (ticket.getName() == null || ticket.getName().isBlank()) return "Поле name не может быть пустым";
+        if (ticket.getCoordinates() == null) return "Поле coordinates обязательно";
+        if (ticket.getCoordinates().getY() == null) return "Поле coordinates.y обязательно";
+        if (ticket.getPrice() <= 0) return "Поле price должно быть больше 0";
+        if (ticket.getType() == null) return "Поле type обязательно";
+        Float discount = ticket.getDiscount();
+        if (discount != null && (discount <= 0 || discount > 100)) {
+            return "Поле discount должно быть больше 0 и не больше 100";
+        }
+        if (ticket.getNumber() <= 0) return "Поле number должно быть больше 0";
+        // связанные сущности не каскадируются - ссылаться можно только на существующие
+        if (ticket.getPerson() != null && ticket.getPerson().getId() == null) return "Ссылка person без id";
+        if (ticket.getEvent() != null && ticket.getEvent().getId() == null) return "Ссылка event без id";
+        if (ticket.getVenue() != null && ticket.getVenue().getId() == null) return "Ссылка venue без id";
+        return null;
+    }
+}
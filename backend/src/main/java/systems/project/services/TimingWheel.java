@@ -0,0 +1,77 @@
+package systems.project.services;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+
+/**
+ * Хешированное колесо таймеров: по ячейке на тик, элемент с дедлайном попадает в ячейку своего тика
+ * по модулю размера колеса. Постановка - O(1) без блокировок, advance обходит только ячейки прошедших
+ * тиков. Элемент дальше одного оборота лежит в своей ячейке, пока не наступит его круг.
+ * Отмены нет: владелец сам отбрасывает неактуальные элементы, когда колесо их вернёт.
+ */
+public final class TimingWheel<T> {
+
+    private static final int MAX_SIZE = 1 << 20;
+
+    private record Slot<T>(T item, long tick) { }
+
+    private final ConcurrentLinkedQueue<Slot<T>>[] buckets;
+    private final long tickNanos;
+    private final long origin;
+    private final int mask;
+
+    // последний обработанный тик; пишется только в advance
+    private volatile long processed;
+
+    @SuppressWarnings("unchecked")
+    public TimingWheel(Duration tick, int size, long originNanos) {
+        int n = 2;
+        while (n < Math.min(size, MAX_SIZE)) n <<= 1;
+        this.buckets = new ConcurrentLinkedQueue[n];
+        for (int i = 0; i < n; i++) {
+            buckets[i] = new ConcurrentLinkedQueue<>();
+        }
+        this.mask = n - 1;
+        this.tickNanos = Math.max(1L, tick.toNanos());
+        this.origin = originNanos;
+    }
+
+    public void schedule(T item, long deadlineNanos) {
+        // тик округляется вверх: элемент не вернётся раньше дедлайна
+        long elapsed = deadlineNanos - origin;
+        long tick = elapsed <= 0 ? 0 : (elapsed + tickNanos - 1) / tickNanos;
+        tick = Math.max(tick, processed + 1);
+        buckets[(int) (tick & mask)].add(new Slot<>(item, tick));
+    }
+
+    /**
+     * Передаёт в expired элементы, дедлайн которых наступил к nowNanos. Вызывается из одного потока;
+     * элемент, поставленный в уже обрабатываемую ячейку, может вернуться на оборот позже.
+     */
+    public synchronized void advance(long nowNanos, Consumer<T> expired) {
+        long now = Math.floorDiv(nowNanos - origin, tickNanos);
+        long from = processed + 1;
+        if (now < from) return;
+        // после простоя дольше оборота достаточно обойти каждую ячейку один раз
+        if (now - from >= buckets.length) from = now - buckets.length + 1;
+
+        List<Slot<T>> later = new ArrayList<>();
+        for (long t = from; t <= now; t++) {
+            ConcurrentLinkedQueue<Slot<T>> bucket = buckets[(int) (t & mask)];
+            Slot<T> slot = bucket.poll();
+            while (slot != null) {
+                if (slot.tick() <= now) expired.accept(slot.item());
+                else later.add(slot);
+                slot = bucket.poll();
+            }
+            if (!later.isEmpty()) {
+                bucket.addAll(later);
+                later.clear();
+            }
+        }
+        processed = now;
+    }
+}
@@ -3,35 +3,42 @@ package systems.project.services;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import systems.project.models.Venue;
+import systems.project.models.api.VenueDTO;
 import systems.project.repositories.VenueRepository;
 
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 
 import static java.util.concurrent.CompletableFuture.completedFuture;
+import static systems.project.services.Rejections.unlessRejected;
 
 @Service
 public class VenueService {
 
     private final VenueRepository venueRepository;
 
-    public VenueService(VenueRepository venueRepository) {
+    private final CollectionVersions versions;
+
+    public VenueService(VenueRepository venueRepository, CollectionVersions versions) {
         this.venueRepository = venueRepository;
+        this.versions = versions;
     }
 
 
     @Async
-    public CompletableFuture<Map<String, List<Venue>>> getVenues() {
+    public CompletableFuture<Map<String, List<VenueDTO>>> getVenues() {
         return venueRepository.findAllBy()
-                .thenApply(venues -> Map.of("venues", venues))
-                    .exceptionally(exc -> Map.of("status", null));
+                .thenApply(venues -> Map.of("venues", venues.stream().map(VenueDTO::from).toList()))
+                .exceptionally(unlessRejected(exc -> Collections.singletonMap("venues", null)));
     }
 
 
     public CompletableFuture<Map<String, Boolean>> addVenue(Venue venue) {
         try {
             venueRepository.save(venue);
+            versions.bump(CollectionVersions.Kind.VENUES);
             return completedFuture(Map.of("status", true));
         } catch (Exception e) {
             return completedFuture(Map.of("status", false));
@@ -0,0 +1,90 @@
+-- Схема сущностей, которую раньше при каждом старте пересоздавал Hibernate (ddl-auto: create).
+-- Теперь Hibernate её только проверяет (ddl-auto: validate), любое изменение сущностей - новая миграция.
+-- Скрипт повторяет то, что создавал Hibernate, и идемпотентен: на БД прежней версии Flyway ставит
+-- baseline 0 (spring.flyway.baseline-on-migrate), и V1 лишь дополняет недостающее.
+
+-- Последовательности выдают id блоками IdAllocation.BLOCK_SIZE (оптимизатор pooled-lo).
+CREATE SEQUENCE IF NOT EXISTS coordinates_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS location_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS person_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS event_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS venue_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS ticket_seq START WITH 1 INCREMENT BY 50;
+
+-- БД, где последовательности шли с шагом 1, переводится на блоки: следующий nextval вернёт
+-- last_value + 50, новые блоки не пересекаются с уже выданными id.
+ALTER SEQUENCE coordinates_seq INCREMENT BY 50;
+ALTER SEQUENCE location_seq INCREMENT BY 50;
+ALTER SEQUENCE person_seq INCREMENT BY 50;
+ALTER SEQUENCE event_seq INCREMENT BY 50;
+ALTER SEQUENCE venue_seq INCREMENT BY 50;
+ALTER SEQUENCE ticket_seq INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS coordinates (
+    id bigint NOT NULL,
+    x integer NOT NULL,
+    y real NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS location (
+    id bigint NOT NULL,
+    x integer NOT NULL,
+    y real NOT NULL,
+    z real NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS person (
+    id bigint NOT NULL,
+    eye_color varchar(255) CHECK (eye_color IN ('GREEN', 'RED', 'ORANGE', 'WHITE', 'BROWN')),
+    hair_color varchar(255) CHECK (hair_color IN ('GREEN', 'RED', 'ORANGE', 'WHITE', 'BROWN')),
+    location_id bigint UNIQUE REFERENCES location (id),
+    weight double precision NOT NULL CHECK (weight > 0),
+    passportid varchar(255) NOT NULL,
+    nationality varchar(255) CHECK (nationality IN ('GERMANY', 'INDIA', 'THAILAND', 'SOUTH_KOREA', 'JAPAN')),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS event (
+    id integer NOT NULL,
+    name varchar(255) NOT NULL CHECK (char_length(name) > 0),
+    tickets_count integer NOT NULL CHECK (tickets_count > 0),
+    event_type varchar(255) CHECK (event_type IN ('CONCERT', 'FOOTBALL', 'BASEBALL', 'BASKETBALL', 'OPERA')),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS venue (
+    id bigint NOT NULL,
+    name varchar(255) NOT NULL CHECK (char_length(name) > 0),
+    capacity integer NOT NULL CHECK (capacity > 0),
+    type varchar(255) CHECK (type IN ('LOFT', 'OPEN_AREA', 'STADIUM')),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS ticket (
+    id integer NOT NULL,
+    version bigint NOT NULL DEFAULT 0,
+    name varchar(255) NOT NULL,
+    coordinates_id bigint NOT NULL UNIQUE REFERENCES coordinates (id),
+    creation_date timestamp(6),
+    person_id bigint REFERENCES person (id),
+    event_id integer REFERENCES event (id),
+    price real NOT NULL CHECK (price > 0),
+    type varchar(255) NOT NULL CHECK (type IN ('VIP', 'USUAL', 'BUDGETARY', 'CHEAP')),
+    discount real CHECK (discount > 0 AND discount <= 100),
+    number integer NOT NULL CHECK (number > 0),
+    comment varchar(255),
+    venue_id bigint REFERENCES venue (id),
+    PRIMARY KEY (id)
+);
+
+-- ticket из БД до оптимистической блокировки (Ticket.version) CREATE TABLE IF NOT EXISTS не меняет:
+-- столбец добавляется отдельно, существующие билеты получают начальную версию 0
+ALTER TABLE ticket ADD COLUMN IF NOT EXISTS version bigint;
+UPDATE ticket SET version = 0 WHERE version IS NULL;
+ALTER TABLE ticket ALTER COLUMN version SET DEFAULT 0;
+ALTER TABLE ticket ALTER COLUMN version SET NOT NULL;
+
+-- Event.tickets без mappedBy создавал таблицу связи, в которую никто не писал; связь хранит ticket.event_id
+DROP TABLE IF EXISTS event_tickets;
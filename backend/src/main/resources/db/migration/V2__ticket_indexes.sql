@@ -0,0 +1,14 @@
+-- Индексы под запросы TicketRepository и внешние ключи. PostgreSQL сам индексирует только
+-- первичные ключи и UNIQUE; без индекса на FK удаление person/event/venue сканирует всю ticket.
+
+-- comment = ? order by id (чанки TicketBulkDeleter) и comment < ? (countByCommentLessThan)
+CREATE INDEX IF NOT EXISTS ticket_comment_id_idx ON ticket (comment, id);
+
+-- event_id is not null order by event_id limit 1 (findFirstByEventIsNotNullOrderByEventIdAsc) и FK
+CREATE INDEX IF NOT EXISTS ticket_event_id_idx ON ticket (event_id);
+
+CREATE INDEX IF NOT EXISTS ticket_person_id_idx ON ticket (person_id);
+
+CREATE INDEX IF NOT EXISTS ticket_venue_id_idx ON ticket (venue_id);
+
+CREATE INDEX IF NOT EXISTS person_passportid_idx ON person (passportid);
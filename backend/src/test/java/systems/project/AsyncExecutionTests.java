@@ -0,0 +1,187 @@
+package systems.project;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import systems.project.configuratons.AsyncConfig;
+import systems.project.configuratons.BoundedExecutor;
+import systems.project.configuratons.TicketsProperties;
+import systems.project.controllers.IdempotentRequests;
+import systems.project.controllers.TicketsApiController;
+import systems.project.models.Coordinates;
+import systems.project.models.Ticket;
+import systems.project.models.TicketType;
+import systems.project.models.api.TicketDTO;
+import systems.project.repositories.EventRepository;
+import systems.project.repositories.PersonRepository;
+import systems.project.repositories.TicketRepository;
+import systems.project.repositories.VenueRepository;
+import systems.project.services.CollectionVersions;
+import systems.project.services.TicketBulkDeleter;
+import systems.project.services.TicketEventService;
+import systems.project.services.TicketExportService;
+import systems.project.services.TicketHolds;
+import systems.project.services.TicketImportService;
+import systems.project.services.TicketReadModel;
+import systems.project.services.TicketService;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Сервисы через прокси @Async на настоящем dbExecutor из двух потоков: одновременных вызовов
+ * больше, чем потоков в пуле, и все они должны завершиться, а не ждать друг друга.
+ * Переполненный исполнитель отвечает через контроллер 429, а не пустым результатом.
+ * Репозитории сами на dbExecutor не переходят: их future завершается в потоке сервиса.
+ */
+@DataJpaTest(properties = {
+    "tickets.async.db-threads=" + AsyncExecutionTests.THREADS,
+    "tickets.async.db-queue-capacity=" + AsyncExecutionTests.QUEUE
+})
+@ActiveProfiles("test")
+@Import({AsyncConfig.class, AsyncExecutionTests.Services.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class AsyncExecutionTests {
+
+    static final int THREADS = 2;
+
+    static final int QUEUE = 32;
+
+    private static final int CALLS = 4 * THREADS;
+
+    @TestConfiguration
+    @EnableConfigurationProperties(TicketsProperties.class)
+    static class Services {
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
+        @Bean
+        TicketService ticketService(TicketRepository ticketRepository,
+                                    PersonRepository personRepository,
+                                    TicketsProperties properties,
+                                    MeterRegistry registry) {
+            return new TicketService(ticketRepository, personRepository,
+                    mock(TicketBulkDeleter.class), mock(TicketHolds.class),
+                    properties, new CollectionVersions(), registry);
+        }
+    }
+
+    @Autowired
+    TicketService ticketService;
+
+    @Autowired
+    TicketRepository ticketRepository;
+
+    @Autowired
+    @Qualifier(AsyncConfig.DB_EXECUTOR)
+    BoundedExecutor dbExecutor;
+
+    Integer ticketId;
+
+    @BeforeEach
+    void setUp() {
+        var coordinates = new Coordinates();
+        coordinates.setX(1);
+        coordinates.setY(1f);
+
+        var t = new Ticket();
+        t.setName("async");
+        t.setCoordinates(coordinates);
+        t.setPrice(10f);
+        t.setType(TicketType.USUAL);
+        t.setNumber(1);
+        ticketId = ticketRepository.save(t).getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        ticketRepository.deleteAll();
+    }
+
+    @Test
+    void testRepositoriesRunOnCallerThread() {
+        // Then: @Async здесь занимал бы второй поток пула, пока поток сервиса ждёт результата
+        for (Class<?> repository : List.of(TicketRepository.class, PersonRepository.class,
+                EventRepository.class, VenueRepository.class)) {
+            for (Method method : repository.getDeclaredMethods()) {
+                assertFalse(method.isAnnotationPresent(Async.class),
+                        repository.getSimpleName() + "." + method.getName());
+            }
+        }
+    }
+
+    @Test
+    void testMoreConcurrentCallsThanThreadsComplete() throws Exception {
+        // Given
+        List<CompletableFuture<TicketDTO>> calls = new ArrayList<>();
+
+        // When
+        for (int i = 0; i < CALLS; i++) {
+            calls.add(ticketService.getTicket(ticketId));
+        }
+        CompletableFuture.allOf(calls.toArray(CompletableFuture[]::new)).get(10, TimeUnit.SECONDS);
+
+        // Then
+        for (var call : calls) {
+            TicketDTO dto = call.join();
+            assertNotNull(dto);
+            assertEquals(ticketId, dto.getId());
+        }
+    }
+
+    @Test
+    void testSaturatedExecutorAnswers429() throws Exception {
+        // Given: все потоки и вся очередь dbExecutor заняты
+        var controller = new TicketsApiController(ticketService, mock(TicketEventService.class),
+                mock(TicketImportService.class), mock(TicketExportService.class), mock(TicketReadModel.class),
+                mock(IdempotentRequests.class), mock(TicketHolds.class), new TicketsProperties());
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            for (int i = 0; i < THREADS + QUEUE; i++) {
+                dbExecutor.execute(() -> {
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+            }
+
+            // When
+            var res = controller.getTicketById(ticketId).get(10, TimeUnit.SECONDS);
+
+            // Then
+            assertEquals(HttpStatus.TOO_MANY_REQUESTS, res.getStatusCode());
+            assertEquals("1", res.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        } finally {
+            release.countDown();
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package systems.project;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.support.AnnotationConfigWebApplicationContext;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.EnableWebMvc;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import systems.project.configuratons.AsyncConfig;
+import systems.project.configuratons.AsyncTimeoutInterceptor;
+import systems.project.configuratons.BoundedExecutor;
+import systems.project.configuratons.WebConfig;
+import systems.project.services.CollectionVersions;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+public class AsyncTimeoutInterceptorTests {
+
+    static final long DEFAULT_TIMEOUT = 30_000;
+
+    static final long OWN_TIMEOUT = 120_000;
+
+    @RestController
+    static class SlowController {
+
+        @GetMapping("/future")
+        CompletableFuture<String> future(HttpServletRequest request) {
+            request.setAttribute(AsyncTimeoutInterceptor.TIMEOUT_ATTRIBUTE, OWN_TIMEOUT);
+            return new CompletableFuture<>();
+        }
+
+        @GetMapping("/stream")
+        StreamingResponseBody stream(HttpServletRequest request) {
+            request.setAttribute(AsyncTimeoutInterceptor.TIMEOUT_ATTRIBUTE, OWN_TIMEOUT);
+            return out -> { };
+        }
+
+        @GetMapping("/plain")
+        CompletableFuture<String> plain() {
+            return new CompletableFuture<>();
+        }
+    }
+
+    // WebConfig, как в приложении, плюс общий таймаут вместо spring.mvc.async.request-timeout
+    @Configuration
+    @EnableWebMvc
+    @Import(WebConfig.class)
+    static class Mvc implements WebMvcConfigurer {
+
+        @Bean
+        SlowController slowController() {
+            return new SlowController();
+        }
+
+        @Bean(AsyncConfig.DB_EXECUTOR)
+        BoundedExecutor dbExecutor() {
+            return new BoundedExecutor("db", Runnable::run, 1, new SimpleMeterRegistry());
+        }
+
+        @Bean
+        CollectionVersions versions() {
+            return new CollectionVersions();
+        }
+
+        @Override
+        public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+            configurer.setDefaultTimeout(DEFAULT_TIMEOUT);
+        }
+    }
+
+    AnnotationConfigWebApplicationContext context;
+
+    MockMvc mvc;
+
+    @BeforeEach
+    void setUp() {
+        context = new AnnotationConfigWebApplicationContext();
+        context.setServletContext(new MockServletContext());
+        context.register(Mvc.class);
+        context.refresh();
+        mvc = MockMvcBuilders.webAppContextSetup(context).build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        context.close();
+    }
+
+    private long asyncTimeout(String path) throws Exception {
+        var result = mvc.perform(get(path))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return result.getRequest().getAsyncContext().getTimeout();
+    }
+
+    @Test
+    void testCompletableFutureGetsOwnTimeout() throws Exception {
+        assertEquals(OWN_TIMEOUT, asyncTimeout("/future"));
+    }
+
+    @Test
+    void testStreamingBodyGetsOwnTimeout() throws Exception {
+        assertEquals(OWN_TIMEOUT, asyncTimeout("/stream"));
+    }
+
+    @Test
+    void testHandlerWithoutAttributeKeepsDefault() throws Exception {
+        assertEquals(DEFAULT_TIMEOUT, asyncTimeout("/plain"));
+    }
+}
@@ -0,0 +1,108 @@
+package systems.project;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.validation.BeanPropertyBindingResult;
+import systems.project.configuratons.BoundedExecutor;
+import systems.project.configuratons.TicketsProperties;
+import systems.project.models.api.AsyncMode;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BoundedExecutorTests {
+
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    ExecutorService pool = Executors.newFixedThreadPool(1);
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    void testRejectsWhenSaturated() throws Exception {
+        // Given
+        var executor = new BoundedExecutor("test", pool, 2, registry);
+        var release = new CountDownLatch(1);
+        var started = new CountDownLatch(1);
+        executor.execute(() -> {
+            started.countDown();
+            await(release);
+        });
+        executor.execute(() -> { });
+        started.await(5, TimeUnit.SECONDS);
+
+        // When / Then
+        assertTrue(executor.isSaturated());
+        assertThrows(TaskRejectedException.class, () -> executor.execute(() -> { }));
+        assertEquals(1.0, registry.get("tickets.executor.rejected").counter().count());
+        assertEquals(1.0, registry.get("tickets.executor.active").gauge().value());
+        assertEquals(1.0, registry.get("tickets.executor.queued").gauge().value());
+
+        release.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(5, TimeUnit.SECONDS));
+        assertFalse(executor.isSaturated());
+    }
+
+    @Test
+    void testReleasesPermitWhenDelegateRejects() {
+        // Given
+        pool.shutdown();
+        var executor = new BoundedExecutor("test", pool, 1, registry);
+
+        // When / Then
+        assertThrows(TaskRejectedException.class, () -> executor.execute(() -> { }));
+        assertFalse(executor.isSaturated());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Test
+    @EnabledForJreRange(max = JRE.JAVA_20)
+    void testVirtualModeIsRejectedBeforeJava21() {
+        // Given
+        var properties = new TicketsProperties();
+        properties.getAsync().setMode(AsyncMode.VIRTUAL);
+        var errors = new BeanPropertyBindingResult(properties, "tickets");
+
+        // When
+        properties.validate(properties, errors);
+
+        // Then
+        assertTrue(errors.hasFieldErrors("async.mode"));
+        assertTrue(errors.getFieldError("async.mode").getDefaultMessage().contains("Java 21"));
+    }
+
+    @Test
+    void testPlatformModeIsValid() {
+        // Given
+        var properties = new TicketsProperties();
+        var errors = new BeanPropertyBindingResult(properties, "tickets");
+
+        // When
+        properties.validate(properties, errors);
+
+        // Then
+        assertFalse(errors.hasErrors());
+    }
+}
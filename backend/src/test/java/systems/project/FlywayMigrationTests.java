@@ -0,0 +1,112 @@
+package systems.project;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Миграции db/migration на H2 в режиме PostgreSQL с настройками baseline из application.yaml:
+ * пустая БД и БД, которую до Flyway создавал Hibernate (ticket ещё без столбца version).
+ */
+class FlywayMigrationTests {
+
+    // схема, которую строил Hibernate до оптимистической блокировки; последовательности с шагом 1
+    private static final String BASELINE = """
+            CREATE SEQUENCE coordinates_seq START WITH 1 INCREMENT BY 1;
+            CREATE SEQUENCE ticket_seq START WITH 1 INCREMENT BY 1;
+            CREATE TABLE coordinates (
+                id bigint NOT NULL,
+                x integer NOT NULL,
+                y real NOT NULL,
+                PRIMARY KEY (id)
+            );
+            CREATE TABLE ticket (
+                id integer NOT NULL,
+                name varchar(255) NOT NULL,
+                coordinates_id bigint NOT NULL UNIQUE REFERENCES coordinates (id),
+                creation_date timestamp(6),
+                person_id bigint,
+                event_id integer,
+                price real NOT NULL,
+                type varchar(255) NOT NULL,
+                discount real,
+                number integer NOT NULL,
+                comment varchar(255),
+                venue_id bigint,
+                PRIMARY KEY (id)
+            );
+            INSERT INTO coordinates (id, x, y) VALUES (1, 1, 1);
+            INSERT INTO ticket (id, name, coordinates_id, price, type, number) VALUES (1, 'old', 1, 10, 'USUAL', 1);
+            """;
+
+    private static String url() {
+        return "jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+    }
+
+    private static void migrate(String url) {
+        Flyway.configure()
+                .dataSource(url, "sa", "")
+                .locations("classpath:db/migration")
+                .baselineOnMigrate(true)
+                .baselineVersion("0")
+                .load()
+                .migrate();
+    }
+
+    private static void insertTicket(Statement st, int id) throws SQLException {
+        st.execute("INSERT INTO coordinates (id, x, y) VALUES (" + id + ", 1, 1)");
+        st.execute("INSERT INTO ticket (id, name, coordinates_id, price, type, number)"
+                + " VALUES (" + id + ", 'new', " + id + ", 10, 'USUAL', 1)");
+    }
+
+    private static long version(Statement st, int id) throws SQLException {
+        try (ResultSet rs = st.executeQuery("SELECT version FROM ticket WHERE id = " + id)) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    @Test
+    void testBaselineSchemaGetsTicketVersion() throws Exception {
+        // Given
+        String url = url();
+        try (Connection con = DriverManager.getConnection(url, "sa", "");
+             Statement st = con.createStatement()) {
+            st.execute(BASELINE);
+
+            // When
+            migrate(url);
+
+            // Then: старый билет получил версию 0, новые без версии - тоже, null не допускается
+            assertEquals(0L, version(st, 1));
+            insertTicket(st, 2);
+            assertEquals(0L, version(st, 2));
+            assertThrows(SQLException.class, () -> st.execute("UPDATE ticket SET version = NULL WHERE id = 1"));
+        }
+    }
+
+    @Test
+    void testEmptyDatabaseMigrates() throws Exception {
+        // Given
+        String url = url();
+
+        // When
+        migrate(url);
+
+        // Then
+        try (Connection con = DriverManager.getConnection(url, "sa", "");
+             Statement st = con.createStatement()) {
+            insertTicket(st, 1);
+            assertEquals(0L, version(st, 1));
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package systems.project;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import systems.project.repositories.PersonRepository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Схема из миграций против сущностей: контекст поднимается, как в рабочем профиле, с Flyway
+ * и ddl-auto: validate. Столбец, названный в миграции не так, как его именует Hibernate, не даст контексту стартовать.
+ */
+@DataJpaTest(properties = {
+    "spring.flyway.enabled=true",
+    "spring.jpa.hibernate.ddl-auto=validate"
+})
+@ActiveProfiles("test")
+class FlywaySchemaTests {
+
+    @Autowired
+    Flyway flyway;
+
+    @Autowired
+    PersonRepository personRepository;
+
+    @Test
+    void testEntitiesMatchMigratedSchema() {
+        // When
+        var info = flyway.info();
+
+        // Then
+        assertEquals(0, info.pending().length);
+        assertTrue(personRepository.findAllBy().join().isEmpty());
+    }
+}
@@ -1,10 +1,14 @@
 package systems.project;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import systems.project.configuratons.TicketsProperties;
 import systems.project.models.Event;
 import systems.project.models.Ticket;
 import systems.project.models.Person;
@@ -17,22 +21,28 @@ import systems.project.repositories.VenueRepository;
 import systems.project.repositories.LocationRepository;
 
 
+import systems.project.services.CollectionVersions;
 import systems.project.services.EventService;
 import systems.project.services.PersonService;
+import systems.project.services.TicketHolds;
 import systems.project.services.TicketService;
 import systems.project.services.VenueService;
 
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.when;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.same;
@@ -70,27 +80,57 @@ class GetAndSaveTests {
     @Mock
     LocationRepository locationRepository;
 
+    @Mock
+    TicketHolds holds;
+
+    @Spy
+    TicketsProperties properties = new TicketsProperties();
+
+    @Spy
+    CollectionVersions versions = new CollectionVersions();
+
+    @Spy
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
 
 
     @Test void testGetAllTickets() throws ExecutionException, InterruptedException {
         //Given
-        List<Ticket> tickets = mock();
+        List<Ticket> tickets = List.of(new Ticket());
 
         //When
-        when(ticketRepository.findAllBy()).thenReturn(CompletableFuture.completedFuture(tickets));
+        when(ticketRepository.findAllByOrderByIdAsc(any(Limit.class)))
+                .thenReturn(CompletableFuture.completedFuture(tickets));
         var res = ticketService.getTickets().get();
 
 
         //Then
-        assertNotNull(res.get("tickets"));
-        verify(ticketRepository).findAllBy();
+        assertEquals(1, res.getTicketList().size());
+        assertFalse(res.isTruncated());
+        verify(ticketRepository).findAllByOrderByIdAsc(
+                argThat(limit -> limit.max() == properties.getListing().getLegacyLimit() + 1));
 
     }
 
+    @Test void testGetAllTicketsMarksTruncatedList() throws ExecutionException, InterruptedException {
+        //Given
+        properties.getListing().setLegacyLimit(2);
+        List<Ticket> tickets = List.of(new Ticket(), new Ticket(), new Ticket());
+
+        //When
+        when(ticketRepository.findAllByOrderByIdAsc(any(Limit.class)))
+                .thenReturn(CompletableFuture.completedFuture(tickets));
+        var res = ticketService.getTickets().get();
+
+        //Then
+        assertEquals(2, res.getTicketList().size());
+        assertTrue(res.isTruncated());
+    }
+
     @Test
     void testGetAllEvents() throws ExecutionException, InterruptedException {
         //Given
-        List<Event> events = mock();
+        List<Event> events = List.of(new Event());
 
         //When
         when(eventRepository.findAllBy()).thenReturn(CompletableFuture.completedFuture(events));
@@ -119,7 +159,7 @@ class GetAndSaveTests {
     @Test
     void testGetAllVenues() throws ExecutionException, InterruptedException {
         //Given
-        List<Venue> venues = mock();
+        List<Venue> venues = List.of(new Venue());
 
         //When
         when(venueRepository.findAllBy()).thenReturn(CompletableFuture.completedFuture(venues));
@@ -134,6 +174,25 @@ class GetAndSaveTests {
     }
 
 
+    @Test
+    void testFailGetListsKeepShape() throws ExecutionException, InterruptedException {
+        //When
+        when(eventRepository.findAllBy()).thenReturn(CompletableFuture.failedFuture(new RuntimeException("fail")));
+        when(personRepository.findAllBy()).thenReturn(CompletableFuture.failedFuture(new RuntimeException("fail")));
+        when(venueRepository.findAllBy()).thenReturn(CompletableFuture.failedFuture(new RuntimeException("fail")));
+        var events = eventService.getEvents().get();
+        var persons = personService.getPersons().get();
+        var venues = venueService.getVenues().get();
+
+        //Then: тот же ключ, что и у успешного ответа, список - null
+        assertTrue(events.containsKey("events"));
+        assertNull(events.get("events"));
+        assertTrue(persons.containsKey("persons"));
+        assertNull(persons.get("persons"));
+        assertTrue(venues.containsKey("venues"));
+        assertNull(venues.get("venues"));
+    }
+
     @Test
     void testAddTicket() throws ExecutionException, InterruptedException {
         // Given
@@ -165,6 +224,7 @@ class GetAndSaveTests {
         //Then
         assertTrue(res.get("status"));
         verify(eventRepository).save(same(event));
+        verify(versions).bump(CollectionVersions.Kind.EVENTS);
     }
 
     @Test
@@ -186,6 +246,7 @@ class GetAndSaveTests {
         assertTrue(res.get("status"));
         verify(locationRepository).save(same(loc));
         verify(personRepository).save(same(person));
+        verify(versions).bump(CollectionVersions.Kind.PERSONS);
     }
 
     @Test
@@ -200,6 +261,7 @@ class GetAndSaveTests {
         //Then
         assertTrue(res.get("status"));
         verify(venueRepository).save(same(venue));
+        verify(versions).bump(CollectionVersions.Kind.VENUES);
     }
 
     @Test
@@ -279,6 +341,7 @@ class GetAndSaveTests {
 
         assertFalse(res.get("status"));
         verify(venueRepository).save(same(venue));
+        verify(versions, never()).bump(any());
     }
 
 
@@ -0,0 +1,101 @@
+package systems.project;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import systems.project.configuratons.TicketsProperties;
+import systems.project.controllers.IdempotentRequests;
+import systems.project.models.api.AbstractResponse;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class IdempotentRequestsTests {
+
+    IdempotentRequests requests;
+
+    AtomicInteger calls = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        requests = new IdempotentRequests(new TicketsProperties(), new SimpleMeterRegistry());
+    }
+
+    private Supplier<CompletableFuture<ResponseEntity<AbstractResponse<Void>>>> respond(HttpStatus status) {
+        return () -> {
+            calls.incrementAndGet();
+            return CompletableFuture.completedFuture(ResponseEntity.status(status)
+                    .body(AbstractResponse.<Void>builder().status("ok").message("#" + calls.get()).build()));
+        };
+    }
+
+    @Test
+    void testRetryGetsOriginalResponse() {
+        // Given
+        var first = requests.execute("sell", "k1", "1:2:3.0", respond(HttpStatus.OK)).join();
+
+        // When
+        var second = requests.execute("sell", "k1", "1:2:3.0", respond(HttpStatus.OK)).join();
+
+        // Then
+        assertEquals(1, calls.get());
+        assertSame(first.getBody(), second.getBody());
+        assertNull(first.getHeaders().getFirst(IdempotentRequests.REPLAYED_HEADER));
+        assertEquals("true", second.getHeaders().getFirst(IdempotentRequests.REPLAYED_HEADER));
+    }
+
+    @Test
+    void testSameKeyWithOtherRequestIsRejected() {
+        // Given
+        requests.execute("sell", "k1", "1:2:3.0", respond(HttpStatus.OK)).join();
+
+        // When
+        var res = requests.execute("sell", "k1", "1:2:4.0", respond(HttpStatus.OK)).join();
+
+        // Then
+        assertEquals(1, calls.get());
+        assertEquals(HttpStatus.BAD_REQUEST, res.getStatusCode());
+    }
+
+    @Test
+    void testTransientFailureIsNotRemembered() {
+        // Given
+        requests.execute("sell", "k1", "1:2:3.0", respond(HttpStatus.TOO_MANY_REQUESTS)).join();
+
+        // When
+        var res = requests.execute("sell", "k1", "1:2:3.0", respond(HttpStatus.OK)).join();
+
+        // Then
+        assertEquals(2, calls.get());
+        assertEquals(HttpStatus.OK, res.getStatusCode());
+    }
+
+    @Test
+    void testRetryInFlightWaitsForFirst() {
+        // Given
+        var pending = new CompletableFuture<ResponseEntity<AbstractResponse<Void>>>();
+        var first = requests.execute("sell", "k1", "1:2:3.0", () -> {
+            calls.incrementAndGet();
+            return pending;
+        });
+
+        // When
+        var second = requests.execute("sell", "k1", "1:2:3.0", respond(HttpStatus.OK));
+
+        // Then
+        assertFalse(second.isDone());
+        pending.complete(ResponseEntity.ok(AbstractResponse.<Void>builder().status("ok").build()));
+        assertTrue(first.isDone());
+        assertEquals(HttpStatus.OK, second.join().getStatusCode());
+        assertEquals(1, calls.get());
+    }
+}
@@ -0,0 +1,95 @@
+package systems.project;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import systems.project.configuratons.ListingEtagInterceptor;
+import systems.project.services.CollectionVersions;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ListingEtagInterceptorTests {
+
+    CollectionVersions versions;
+
+    ListingEtagInterceptor interceptor;
+
+    @BeforeEach
+    void setUp() {
+        versions = new CollectionVersions();
+        interceptor = new ListingEtagInterceptor(versions);
+    }
+
+    private static MockHttpServletRequest get(String path, String ifNoneMatch) {
+        var request = new MockHttpServletRequest("GET", path);
+        request.setServletPath(path);
+        if (ifNoneMatch != null) request.addHeader("If-None-Match", ifNoneMatch);
+        return request;
+    }
+
+    @Test
+    void testFirstRequestGetsEtag() {
+        // Given
+        var response = new MockHttpServletResponse();
+
+        // When
+        boolean proceed = interceptor.preHandle(get("/get_venues", null), response, null);
+
+        // Then
+        assertTrue(proceed);
+        assertNotNull(response.getHeader("ETag"));
+        assertEquals("no-cache", response.getHeader("Cache-Control"));
+    }
+
+    @Test
+    void testSameEtagIsNotModified() {
+        // Given
+        var first = new MockHttpServletResponse();
+        interceptor.preHandle(get("/get_tickets", null), first, null);
+        var second = new MockHttpServletResponse();
+
+        // When
+        boolean proceed = interceptor.preHandle(get("/get_tickets", "W/" + first.getHeader("ETag")), second, null);
+
+        // Then
+        assertFalse(proceed);
+        assertEquals(304, second.getStatus());
+        assertEquals(first.getHeader("ETag"), second.getHeader("ETag"));
+    }
+
+    @Test
+    void testWriteChangesEtag() {
+        // Given
+        var first = new MockHttpServletResponse();
+        interceptor.preHandle(get("/get_events", null), first, null);
+        versions.bump(CollectionVersions.Kind.EVENTS);
+        var second = new MockHttpServletResponse();
+
+        // When
+        boolean proceed = interceptor.preHandle(get("/get_events", first.getHeader("ETag")), second, null);
+
+        // Then
+        assertTrue(proceed);
+        assertNotEquals(first.getHeader("ETag"), second.getHeader("ETag"));
+    }
+
+    @Test
+    void testOtherCollectionsKeepEtag() {
+        // Given
+        var first = new MockHttpServletResponse();
+        interceptor.preHandle(get("/get_persons", null), first, null);
+        versions.bump(CollectionVersions.Kind.TICKETS);
+
+        // When
+        boolean proceed = interceptor.preHandle(get("/get_persons", first.getHeader("ETag")),
+                new MockHttpServletResponse(), null);
+
+        // Then
+        assertFalse(proceed);
+    }
+}
@@ -0,0 +1,162 @@
+package systems.project;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+import systems.project.configuratons.ReadWriteRouting;
+import systems.project.configuratons.ReadYourWrites;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class ReadWriteRoutingTests {
+
+    private static final long SECOND = 1_000L;
+
+    @Mock
+    DataSource primary;
+
+    @Mock
+    DataSource replica;
+
+    AtomicLong now = new AtomicLong(100 * SECOND);
+
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    ReadWriteRouting routing;
+
+    // клиент текущего запроса, без записей
+    ReadYourWrites client = new ReadYourWrites(0);
+
+    @BeforeEach
+    void setUp() {
+        routing = new ReadWriteRouting(primary, replica, Duration.ofSeconds(2), registry, now::get);
+        ReadYourWrites.attach(client);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReadYourWrites.restore(null);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    // соединение пишущей транзакции, затем её фиксация
+    private void commitWrite() throws Exception {
+        TransactionSynchronizationManager.initSynchronization();
+        routing.writes().getConnection();
+        TransactionSynchronizationUtils.invokeAfterCommit(TransactionSynchronizationManager.getSynchronizations());
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    @Test
+    void testReadsGoToReplica() throws Exception {
+        // Given
+        Connection replicaConnection = mock(Connection.class);
+        when(replica.getConnection()).thenReturn(replicaConnection);
+
+        // When
+        Connection con = routing.reads().getConnection();
+
+        // Then
+        assertSame(replicaConnection, con);
+        assertEquals(1, registry.counter("tickets.datasource.reads", "target", "replica").count());
+    }
+
+    @Test
+    void testReadsAfterWriteStayOnPrimary() throws Exception {
+        // Given
+        Connection primaryConnection = mock(Connection.class);
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        commitWrite();
+
+        // When
+        now.addAndGet(SECOND);
+        Connection con = routing.reads().getConnection();
+
+        // Then
+        assertSame(primaryConnection, con);
+        assertEquals(1, registry.counter("tickets.datasource.reads", "target", "primary").count());
+        assertTrue(client.wrote());
+        assertEquals(100 * SECOND, client.lastWrite());
+    }
+
+    @Test
+    void testOtherClientsReadReplicaAfterWrite() throws Exception {
+        // Given
+        Connection replicaConnection = mock(Connection.class);
+        when(replica.getConnection()).thenReturn(replicaConnection);
+        commitWrite();
+
+        // When: следующий запрос другого клиента, без X-Last-Write
+        ReadYourWrites.attach(ReadYourWrites.fromHeader(null));
+        Connection con = routing.reads().getConnection();
+
+        // Then
+        assertSame(replicaConnection, con);
+        assertFalse(routing.withinWindow(ReadYourWrites.current()));
+    }
+
+    @Test
+    void testClientWriteTimeKeepsReadsOnPrimary() {
+        // Given: время записи пришло от клиента - его ответ с другого узла или событие SSE
+        var recent = ReadYourWrites.fromHeader(Long.toString(now.get() - SECOND));
+        var old = ReadYourWrites.fromHeader(Long.toString(now.get() - 3 * SECOND));
+
+        // Then
+        assertTrue(routing.withinWindow(recent));
+        assertFalse(routing.withinWindow(old));
+        assertFalse(routing.withinWindow(ReadYourWrites.fromHeader("abc")));
+        assertFalse(routing.withinWindow(null));
+        assertTrue(routing.withinWindow(ReadYourWrites.PRIMARY));
+    }
+
+    @Test
+    void testWindowCloses() throws Exception {
+        // Given
+        commitWrite();
+
+        // When
+        now.addAndGet(3 * SECOND);
+
+        // Then
+        assertFalse(routing.withinWindow(client));
+    }
+
+    @Test
+    void testOnlyCommittedWritesOpenWindow() throws Exception {
+        // Given: соединение вне транзакции и read-only транзакция окно не открывают
+        routing.writes().getConnection();
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        routing.writes().getConnection();
+
+        // When
+        boolean afterReads = routing.withinWindow(client) || client.wrote();
+        TransactionSynchronizationManager.clearSynchronization();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        commitWrite();
+
+        // Then
+        assertFalse(afterReads);
+        assertTrue(routing.withinWindow(client));
+    }
+}
@@ -0,0 +1,87 @@
+package systems.project;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import systems.project.models.Venue;
+import systems.project.repositories.VenueRepository;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Кэш второго уровня для справочников: повторный findAllBy не идёт в БД,
+ * а запись через репозиторий сбрасывает закэшированный результат.
+ * Без общей транзакции теста: кэш заполняется и сбрасывается только при фиксации.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ReferenceCacheTests {
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    VenueRepository venueRepository;
+
+    Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        venueRepository.save(venue("main hall"));
+        entityManagerFactory.getCache().evictAll();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        venueRepository.deleteAll();
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    private static Venue venue(String name) {
+        var venue = new Venue();
+        venue.setName(name);
+        venue.setCapacity(100);
+        return venue;
+    }
+
+    @Test
+    void testRepeatedListIsServedFromCache() {
+        // When
+        List<Venue> first = venueRepository.findAllBy().join();
+        long statements = statistics.getPrepareStatementCount();
+        List<Venue> second = venueRepository.findAllBy().join();
+
+        // Then
+        assertEquals(1, first.size());
+        assertEquals(1, second.size());
+        assertEquals(statements, statistics.getPrepareStatementCount());
+        assertEquals(1, statistics.getQueryCacheHitCount());
+    }
+
+    @Test
+    void testWriteInvalidatesCachedList() {
+        // Given
+        venueRepository.findAllBy().join();
+
+        // When
+        venueRepository.save(venue("small hall"));
+        List<Venue> venues = venueRepository.findAllBy().join();
+
+        // Then
+        assertEquals(2, venues.size());
+        assertEquals(0, statistics.getQueryCacheHitCount());
+    }
+}
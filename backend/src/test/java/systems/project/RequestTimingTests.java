@@ -0,0 +1,94 @@
+package systems.project;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import systems.project.configuratons.BoundedExecutor;
+import systems.project.configuratons.RequestTiming;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RequestTimingTests {
+
+    ExecutorService pool = Executors.newFixedThreadPool(1);
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+        RequestTiming.restore(null);
+    }
+
+    @Test
+    void testServerTimingHeader() {
+        // Given
+        var timing = new RequestTiming();
+        RequestTiming.attach(timing);
+
+        // When
+        RequestTiming.record(RequestTiming.DB, 1_500_000);
+        RequestTiming.record(RequestTiming.DB, 500_000);
+        RequestTiming.statementExecuted();
+        RequestTiming.entityLoaded();
+        RequestTiming.entityLoaded();
+        RequestTiming.record(RequestTiming.SSE, 300_000);
+
+        // Then
+        String header = timing.serverTiming();
+        assertTrue(header.startsWith("db;dur=2.0;desc=\"1 statements, 2 rows\", sse;dur=0.3, total;dur="), header);
+        assertTrue(timing.summary().contains("db=2.0ms sse=0.3ms statements=1 rows=2"), timing.summary());
+    }
+
+    @Test
+    void testNothingIsRecordedOutsideRequest() {
+        // When
+        RequestTiming.record(RequestTiming.DB, 1_000_000);
+        RequestTiming.statementExecuted();
+
+        // Then
+        assertNull(RequestTiming.current());
+    }
+
+    @Test
+    void testExecutorCarriesTimingToWorker() throws Exception {
+        // Given
+        var executor = new BoundedExecutor("test", pool, 4, new SimpleMeterRegistry(), true);
+        var timing = new RequestTiming();
+        RequestTiming.attach(timing);
+
+        // When
+        var seen = new CompletableFuture<RequestTiming>();
+        executor.execute(() -> seen.complete(RequestTiming.current()));
+        var after = new CompletableFuture<RequestTiming>();
+        RequestTiming.restore(null);
+        executor.execute(() -> after.complete(RequestTiming.current()));
+
+        // Then: поток пула не сохраняет разбивку чужого запроса
+        assertSame(timing, seen.get(5, TimeUnit.SECONDS));
+        assertNull(after.get(5, TimeUnit.SECONDS));
+        assertTrue(timing.phaseNanos(RequestTiming.QUEUE) > 0);
+    }
+
+    @Test
+    void testExecutorWithoutRequestScopeDoesNotCarryTiming() throws Exception {
+        // Given
+        var executor = new BoundedExecutor("test", pool, 4, new SimpleMeterRegistry());
+        var timing = new RequestTiming();
+        RequestTiming.attach(timing);
+
+        // When
+        var seen = new CompletableFuture<RequestTiming>();
+        executor.execute(() -> seen.complete(RequestTiming.current()));
+
+        // Then
+        assertNull(seen.get(5, TimeUnit.SECONDS));
+        assertEquals(0L, timing.phaseNanos(RequestTiming.QUEUE));
+    }
+}
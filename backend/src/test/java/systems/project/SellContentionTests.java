@@ -0,0 +1,183 @@
+package systems.project;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import systems.project.configuratons.TicketsProperties;
+import systems.project.models.Color;
+import systems.project.models.Coordinates;
+import systems.project.models.Country;
+import systems.project.models.Location;
+import systems.project.models.Person;
+import systems.project.models.Ticket;
+import systems.project.models.TicketType;
+import systems.project.models.api.SellOutcome;
+import systems.project.repositories.LocationRepository;
+import systems.project.repositories.PersonRepository;
+import systems.project.repositories.TicketRepository;
+import systems.project.services.CollectionVersions;
+import systems.project.services.TicketBulkDeleter;
+import systems.project.services.TicketHolds;
+import systems.project.services.TicketService;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Нагрузочная проверка продажи под конкуренцией: несколько покупателей одновременно продают
+ * два билета. Каждая успешная продажа должна увеличить версию билета ровно на один - иначе
+ * одна продажа затёрла другую. Пропускная способность и доля конфликтов пишутся в лог.
+ * Без общей транзакции теста: каждая продажа фиксируется сама, как в приложении.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SellContentionTests {
+
+    private static final int BUYERS = 8;
+
+    private static final int SALES_PER_BUYER = 40;
+
+    private static final int TICKETS = 2;
+
+    @Autowired
+    TicketRepository ticketRepository;
+
+    @Autowired
+    PersonRepository personRepository;
+
+    @Autowired
+    LocationRepository locationRepository;
+
+    SimpleMeterRegistry registry;
+
+    TicketService service;
+
+    List<Integer> ticketIds = new ArrayList<>();
+
+    List<Integer> buyerIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        service = new TicketService(ticketRepository, personRepository,
+                mock(TicketBulkDeleter.class), mock(TicketHolds.class),
+                new TicketsProperties(), new CollectionVersions(), registry);
+        for (int i = 1; i <= TICKETS; i++) {
+            ticketIds.add(ticketRepository.save(ticket(i)).getId());
+        }
+        for (int i = 1; i <= BUYERS; i++) {
+            buyerIds.add(person(i).getId().intValue());
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        ticketRepository.deleteAll();
+        personRepository.deleteAll();
+        locationRepository.deleteAll();
+    }
+
+    private Person person(int i) {
+        var location = new Location();
+        location.setX(i);
+        location.setY(i);
+        location.setZ((float) i);
+
+        var person = new Person();
+        person.setHairColor(Color.BROWN);
+        person.setLocation(locationRepository.save(location));
+        person.setWeight(70.0 + i);
+        person.setPassportID("S" + i);
+        person.setNationality(Country.JAPAN);
+        return personRepository.save(person);
+    }
+
+    private static Ticket ticket(int i) {
+        var coordinates = new Coordinates();
+        coordinates.setX(i);
+        coordinates.setY((float) i);
+
+        var t = new Ticket();
+        t.setName("rush " + i);
+        t.setCoordinates(coordinates);
+        t.setPrice(10f);
+        t.setType(TicketType.USUAL);
+        t.setNumber(i);
+        return t;
+    }
+
+    @Test
+    void testNoLostUpdatesUnderContention() throws Exception {
+        // Given
+        Map<Integer, Long> versionsBefore = new HashMap<>();
+        for (Integer id : ticketIds) {
+            versionsBefore.put(id, ticketRepository.findById(id).join().orElseThrow().getVersion());
+        }
+        ExecutorService pool = Executors.newFixedThreadPool(BUYERS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Map<SellOutcome, Integer>>> results = new ArrayList<>();
+
+        // When
+        for (int b = 0; b < BUYERS; b++) {
+            int buyer = b;
+            results.add(pool.submit(() -> {
+                Map<SellOutcome, Integer> outcomes = new EnumMap<>(SellOutcome.class);
+                start.await();
+                for (int i = 0; i < SALES_PER_BUYER; i++) {
+                    // цена уникальна для каждой продажи: запись всегда меняет строку и версию
+                    float amount = buyer * 1000 + i + 1;
+                    SellOutcome outcome = service.sellTicket(ticketIds.get(i % TICKETS), buyerIds.get(buyer), amount)
+                            .join();
+                    outcomes.merge(outcome, 1, Integer::sum);
+                }
+                return outcomes;
+            }));
+        }
+        long began = System.nanoTime();
+        start.countDown();
+        Map<SellOutcome, Integer> total = new EnumMap<>(SellOutcome.class);
+        for (Future<Map<SellOutcome, Integer>> f : results) {
+            f.get().forEach((k, v) -> total.merge(k, v, Integer::sum));
+        }
+        double seconds = (System.nanoTime() - began) / 1e9;
+        pool.shutdown();
+
+        // Then
+        int sold = total.getOrDefault(SellOutcome.SOLD, 0);
+        int rejected = total.getOrDefault(SellOutcome.CONFLICT, 0);
+        long versionDelta = 0;
+        for (Integer id : ticketIds) {
+            versionDelta += ticketRepository.findById(id).join().orElseThrow().getVersion() - versionsBefore.get(id);
+        }
+        double conflicts = registry.counter("tickets.sell.conflicts").count();
+        double retries = registry.counter("tickets.sell.retries").count();
+        Logger.getLogger(getClass().getName()).info(String.format(
+                "sell contention: %d sales in %.2fs (%.0f/s), sold %d, rejected %d, "
+                        + "version conflicts %.0f (%.1f%% of writes), retries %.0f",
+                BUYERS * SALES_PER_BUYER, seconds, BUYERS * SALES_PER_BUYER / seconds, sold, rejected,
+                conflicts, 100.0 * conflicts / (sold + conflicts), retries));
+
+        assertEquals(BUYERS * SALES_PER_BUYER, sold + rejected);
+        // каждый билет продан ровно один раз, остальные продажи отклонены
+        assertEquals(TICKETS, sold);
+        assertEquals(sold, versionDelta);
+    }
+}
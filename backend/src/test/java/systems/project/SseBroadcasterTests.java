@@ -0,0 +1,181 @@
+package systems.project;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import systems.project.configuratons.TicketsProperties;
+import systems.project.exceptions.TooManySubscribersException;
+import systems.project.models.api.SseOverflowPolicy;
+import systems.project.services.SseBroadcaster;
+import systems.project.services.SseMessage;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+@ExtendWith(MockitoExtension.class)
+public class SseBroadcasterTests {
+
+    @Mock
+    TaskScheduler scheduler;
+
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    ExecutorService dispatcher = Executors.newFixedThreadPool(2);
+
+    SseBroadcaster broadcaster;
+
+    // эмиттер, зависающий на отправке, как на полуоткрытом соединении
+    static class StuckEmitter extends SseEmitter {
+        final CountDownLatch entered = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            entered.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    // зависающий эмиттер, который запоминает текст каждого отправленного кадра
+    static class RecordingEmitter extends StuckEmitter {
+        final List<String> sent = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            super.send(builder);
+            sent.add(builder.build().stream().map(d -> String.valueOf(d.getData())).collect(Collectors.joining()));
+        }
+    }
+
+    private SseBroadcaster broadcaster(TicketsProperties properties) {
+        broadcaster = new SseBroadcaster(properties, Logger.getAnonymousLogger(), scheduler, registry, dispatcher);
+        return broadcaster;
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (broadcaster != null) broadcaster.shutdown();
+        dispatcher.shutdownNow();
+    }
+
+    @Test
+    void testSubscriberLimit() {
+        // Given
+        var properties = new TicketsProperties();
+        properties.getSse().setMaxSubscribers(1);
+        var broadcaster = broadcaster(properties);
+
+        // When
+        broadcaster.register(new SseEmitter(), List.of());
+
+        // Then
+        assertThrows(TooManySubscribersException.class, () -> broadcaster.register(new SseEmitter(), List.of()));
+        assertEquals(1, broadcaster.size());
+        assertEquals(1.0, registry.get("tickets.sse.subscribers").gauge().value());
+    }
+
+    @Test
+    void testStalledSubscriberIsReaped() throws Exception {
+        // Given
+        var properties = new TicketsProperties();
+        properties.getSse().setSendDeadline(Duration.ZERO);
+        var broadcaster = broadcaster(properties);
+        var stuck = new StuckEmitter();
+
+        // When
+        broadcaster.register(stuck, List.of(new SseMessage(1, "{}")));
+        assertTrue(stuck.entered.await(5, TimeUnit.SECONDS));
+        Thread.sleep(5);
+        broadcaster.reap();
+        stuck.release.countDown();
+
+        // Then
+        assertEquals(0, broadcaster.size());
+        assertEquals(1.0, registry.get("tickets.sse.evicted").tag("reason", "stalled").counter().count());
+    }
+
+    @Test
+    void testIdleSubscriberIsNotReaped() {
+        // Given
+        var properties = new TicketsProperties();
+        properties.getSse().setSendDeadline(Duration.ZERO);
+        var broadcaster = broadcaster(properties);
+
+        // When
+        broadcaster.register(new SseEmitter(), List.of());
+        broadcaster.reap();
+
+        // Then
+        assertEquals(1, broadcaster.size());
+    }
+
+    @Test
+    void testSendsAreTimed() throws Exception {
+        // Given: эмиттер отпущен заранее и отправляет без задержки
+        var broadcaster = broadcaster(new TicketsProperties());
+        var emitter = new StuckEmitter();
+        emitter.release.countDown();
+
+        // When
+        broadcaster.register(emitter, List.of(new SseMessage(1, "{}")));
+        assertTrue(emitter.entered.await(5, TimeUnit.SECONDS));
+
+        // Then: время записывается после возврата из send
+        var timer = registry.get("tickets.sse.send").timer();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (timer.count() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertEquals(1, timer.count());
+    }
+
+    @Test
+    void testDropOldestPutsResetInPlaceOfDroppedEvents() throws Exception {
+        // Given: подписчик завис на первом событии, в очереди два места
+        var properties = new TicketsProperties();
+        properties.getSse().setQueueCapacity(2);
+        properties.getSse().setOverflowPolicy(SseOverflowPolicy.DROP_OLDEST);
+        var broadcaster = broadcaster(properties);
+        var emitter = new RecordingEmitter();
+        broadcaster.register(emitter, List.of(new SseMessage(1, "{}")));
+        assertTrue(emitter.entered.await(5, TimeUnit.SECONDS));
+
+        // When: четвёртое событие не помещается
+        broadcaster.broadcast(new SseMessage(2, "{}"));
+        broadcaster.broadcast(new SseMessage(3, "{}"));
+        broadcaster.broadcast(new SseMessage(4, "{}"));
+        emitter.release.countDown();
+
+        // Then: вместо 2 и 3 приходит reset, после него - 4
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (emitter.sent.size() < 3 && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertEquals(3, emitter.sent.size());
+        assertTrue(emitter.sent.get(0).contains("id:1"));
+        assertTrue(emitter.sent.get(1).contains("\"action\":\"reset\"") && emitter.sent.get(1).contains("id:3"));
+        assertTrue(emitter.sent.get(2).contains("id:4"));
+        assertEquals(1, broadcaster.size());
+    }
+}
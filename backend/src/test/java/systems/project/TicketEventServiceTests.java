@@ -0,0 +1,191 @@
+package systems.project;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.scheduling.TaskScheduler;
+import systems.project.configuratons.TicketsProperties;
+import systems.project.models.api.HoldStatus;
+import systems.project.models.api.TicketDTO;
+import systems.project.models.api.TicketHold;
+import systems.project.services.CollectionVersions;
+import systems.project.services.SseBroadcaster;
+import systems.project.services.SseMessage;
+import systems.project.services.TicketEventService;
+import systems.project.services.TicketReadModel;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+
+@ExtendWith(MockitoExtension.class)
+public class TicketEventServiceTests {
+
+    @Mock
+    SseBroadcaster broadcaster;
+
+    @Mock
+    TaskScheduler scheduler;
+
+    @Mock
+    TicketReadModel readModel;
+
+    ObjectMapper mapper = new ObjectMapper().findAndRegisterModules();
+
+    SimpleMeterRegistry registry;
+
+    TicketsProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        properties = new TicketsProperties();
+        lenient().when(readModel.apply(any())).thenReturn(CompletableFuture.completedFuture(null));
+    }
+
+    private TicketEventService service(Duration window) {
+        properties.getSse().setCoalesceWindow(window);
+        return new TicketEventService(broadcaster, readModel, new CollectionVersions(), Logger.getAnonymousLogger(),
+                mapper, scheduler, registry, properties);
+    }
+
+    private static TicketDTO ticket(int id) {
+        return TicketDTO.builder().id(id).build();
+    }
+
+    @Test
+    void testPublishWithoutWindow() throws Exception {
+        // Given
+        var service = service(Duration.ZERO);
+
+        // When
+        service.publishChange("update", List.of(1), List.of(ticket(1)));
+
+        // Then
+        var captor = ArgumentCaptor.forClass(SseMessage.class);
+        verify(broadcaster).broadcast(captor.capture());
+        JsonNode data = mapper.readTree(captor.getValue().data());
+        assertEquals("update", data.get("action").asText());
+        assertEquals(1, data.get("tickets").get(0).get("id").asInt());
+        verify(scheduler, never()).schedule(any(Runnable.class), any(Instant.class));
+    }
+
+    @Test
+    void testReadModelIsUpdatedBeforeBroadcast() {
+        // Given
+        var service = service(Duration.ZERO);
+
+        // When
+        service.publishChange("update", List.of(1), List.of(ticket(1)));
+
+        // Then
+        InOrder order = inOrder(readModel, broadcaster);
+        order.verify(readModel).apply(List.of(1));
+        order.verify(broadcaster).broadcast(any(SseMessage.class));
+    }
+
+    @Test
+    void testBroadcastWaitsForReadModel() {
+        // Given: срез ещё перечитывает билет
+        var applied = new CompletableFuture<Void>();
+        when(readModel.apply(any())).thenReturn(applied);
+        var service = service(Duration.ZERO);
+
+        // When
+        service.publishChange("update", List.of(1), List.of(ticket(1)));
+
+        // Then: поток записи вернулся сразу, событие ушло только после обновления среза
+        verify(broadcaster, never()).broadcast(any(SseMessage.class));
+        applied.complete(null);
+        verify(broadcaster).broadcast(any(SseMessage.class));
+    }
+
+    @Test
+    void testHoldsAreCoalescedWithoutTouchingTickets() throws Exception {
+        // Given
+        var service = service(Duration.ofMillis(100));
+
+        // When
+        service.publishHold(TicketHold.builder().ticketId(5).personId(1).status(HoldStatus.HELD).build());
+        service.publishHold(TicketHold.builder().ticketId(5).personId(1).status(HoldStatus.RELEASED).build());
+        service.flush();
+
+        // Then: от брони остаётся последнее состояние, список билетов клиенту перечитывать не нужно
+        var captor = ArgumentCaptor.forClass(SseMessage.class);
+        verify(broadcaster, times(1)).broadcast(captor.capture());
+        JsonNode data = mapper.readTree(captor.getValue().data());
+        assertEquals(0, data.get("ids").size());
+        assertEquals(0, data.get("tickets").size());
+        assertEquals(1, data.get("holds").size());
+        assertEquals("RELEASED", data.get("holds").get(0).get("status").asText());
+        assertTrue(data.get("writtenAt").isNull());
+        verifyNoInteractions(readModel);
+    }
+
+    @Test
+    void testBurstIsCoalesced() throws Exception {
+        // Given
+        var service = service(Duration.ofMillis(100));
+        long before = System.currentTimeMillis();
+
+        // When
+        service.publishChange("add", List.of(1), List.of(ticket(1)));
+        service.publishChange("update", List.of(2), List.of(ticket(2)));
+        service.publishChange("delete", List.of(1), List.of());
+        service.flush();
+
+        // Then
+        verify(scheduler, times(1)).schedule(any(Runnable.class), any(Instant.class));
+        var captor = ArgumentCaptor.forClass(SseMessage.class);
+        verify(broadcaster, times(1)).broadcast(captor.capture());
+
+        JsonNode data = mapper.readTree(captor.getValue().data());
+        assertEquals("batch", data.get("action").asText());
+        assertEquals(2, data.get("ids").size());
+        assertEquals(1, data.get("tickets").size());
+        assertEquals(2, data.get("tickets").get(0).get("id").asInt());
+        assertEquals(3, data.get("changes").size());
+        // клиент перечитывает после самой поздней записи пачки
+        assertTrue(data.get("writtenAt").asLong() >= before);
+        assertEquals(3.0, registry.get("tickets.sse.coalesced.events").summary().max());
+    }
+
+    @Test
+    void testBatchWithoutPayloadAsksForReload() throws Exception {
+        // Given
+        var service = service(Duration.ofMillis(100));
+
+        // When
+        service.publishChange("update", List.of(2), List.of(ticket(2)));
+        service.publishChange("import", List.of(3, 4), null);
+        service.flush();
+
+        // Then
+        var captor = ArgumentCaptor.forClass(SseMessage.class);
+        verify(broadcaster).broadcast(captor.capture());
+        JsonNode data = mapper.readTree(captor.getValue().data());
+        assertTrue(data.get("tickets").isNull());
+        assertEquals(3, data.get("ids").size());
+    }
+}
@@ -0,0 +1,117 @@
+package systems.project;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import systems.project.models.Coordinates;
+import systems.project.models.Person;
+import systems.project.models.Ticket;
+import systems.project.models.TicketType;
+import systems.project.models.api.TicketDTO;
+import systems.project.models.api.TicketExportFormat;
+import systems.project.repositories.TicketRepository;
+import systems.project.services.TicketExportService;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class TicketExportServiceTests {
+
+    @Mock
+    TicketRepository ticketRepository;
+
+    @Mock
+    EntityManager entityManager;
+
+    @Mock
+    PlatformTransactionManager transactionManager;
+
+    TicketExportService service;
+
+    AtomicBoolean closed = new AtomicBoolean();
+
+    @BeforeEach
+    void setUp() {
+        service = new TicketExportService(ticketRepository, entityManager, transactionManager,
+                new ObjectMapper().findAndRegisterModules());
+    }
+
+    private static Ticket ticket(int id, String name) {
+        var coordinates = new Coordinates();
+        coordinates.setX(1);
+        coordinates.setY(2.5f);
+        var t = new Ticket();
+        t.setId(id);
+        t.setName(name);
+        t.setCoordinates(coordinates);
+        t.setPrice(10f);
+        t.setType(TicketType.VIP);
+        t.setNumber(3);
+        return t;
+    }
+
+    private Stream<Ticket> rows(Ticket... tickets) {
+        return Stream.of(tickets).onClose(() -> closed.set(true));
+    }
+
+    @Test
+    void testExportCsvEscapesFields() {
+        // Given
+        var person = new Person();
+        person.setId(7L);
+        var quoted = ticket(2, "Ряд \"A\", место 1");
+        quoted.setPerson(person);
+        when(ticketRepository.streamForExport(null, null)).thenReturn(rows(ticket(1, "plain"), quoted));
+        var out = new ByteArrayOutputStream();
+
+        // When
+        long count = service.export(TicketExportFormat.CSV, null, null, out);
+
+        // Then
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, count);
+        assertEquals(3, lines.length);
+        assertTrue(lines[0].startsWith("id,name,"));
+        assertTrue(lines[1].startsWith("1,plain,1,2.5,,10.0,VIP,,3,,,,"));
+        assertTrue(lines[2].startsWith("2,\"Ряд \"\"A\"\", место 1\",1,2.5,"));
+        assertTrue(lines[2].endsWith(",7,,"));
+        assertTrue(closed.get());
+    }
+
+    @Test
+    void testExportNdjsonOneTicketPerLine() throws Exception {
+        // Given
+        var person = new Person();
+        person.setId(7L);
+        var owned = ticket(2, "b");
+        owned.setPerson(person);
+        when(ticketRepository.streamForExport(5, null)).thenReturn(rows(ticket(1, "a"), owned));
+        var out = new ByteArrayOutputStream();
+
+        // When
+        long count = service.export(TicketExportFormat.NDJSON, 5, null, out);
+
+        // Then
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, count);
+        assertEquals(2, lines.length);
+        var mapper = new ObjectMapper().findAndRegisterModules();
+        var second = mapper.readTree(lines[1]);
+        assertEquals("b", second.get("name").asText());
+        assertEquals(7L, second.get("person").get("id").asLong());
+        assertEquals(mapper.readTree(mapper.writeValueAsString(TicketDTO.from(owned))), second);
+        assertTrue(closed.get());
+    }
+}
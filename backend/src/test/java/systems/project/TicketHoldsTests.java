@@ -0,0 +1,232 @@
+package systems.project;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.TaskScheduler;
+import systems.project.configuratons.TicketsProperties;
+import systems.project.models.api.HoldStatus;
+import systems.project.models.api.TicketHold;
+import systems.project.services.TicketEventService;
+import systems.project.services.TicketHolds;
+import systems.project.services.TimingWheel;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+public class TicketHoldsTests {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    @Mock
+    TicketEventService events;
+
+    @Mock
+    TaskScheduler scheduler;
+
+    // часы теста: время идёт только вручную
+    AtomicLong now = new AtomicLong(SECOND);
+
+    TicketsProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        properties = new TicketsProperties();
+        properties.getHolds().setTtl(Duration.ofSeconds(10));
+        properties.getHolds().setTick(Duration.ofSeconds(1));
+        properties.getHolds().setWheelSize(4);
+    }
+
+    private TicketHolds holds() {
+        return new TicketHolds(events, scheduler, new SimpleMeterRegistry(), properties, now::get);
+    }
+
+    private List<HoldStatus> published(int times) {
+        var captor = ArgumentCaptor.forClass(TicketHold.class);
+        verify(events, times(times)).publishHold(captor.capture());
+        return captor.getAllValues().stream().map(TicketHold::getStatus).toList();
+    }
+
+    @Test
+    void testHoldBlocksOtherBuyers() {
+        // Given
+        var holds = holds();
+
+        // When
+        TicketHold mine = holds.hold(1, 10);
+        TicketHold theirs = holds.hold(1, 20);
+
+        // Then
+        assertNotNull(mine.getToken());
+        assertNull(theirs);
+        assertTrue(holds.isHeldByOther(1, 20));
+        assertFalse(holds.isHeldByOther(1, 10));
+        assertEquals(10, holds.holder(1, mine.getToken()));
+        assertNull(holds.holder(1, "forged"));
+    }
+
+    @Test
+    void testRenewKeepsToken() {
+        // Given
+        var holds = holds();
+        TicketHold first = holds.hold(1, 10);
+
+        // When
+        now.addAndGet(5 * SECOND);
+        TicketHold renewed = holds.hold(1, 10);
+
+        // Then: после срока первой брони продлённая ещё действует
+        assertEquals(first.getToken(), renewed.getToken());
+        now.addAndGet(7 * SECOND);
+        assertEquals(10, holds.holder(1, first.getToken()));
+    }
+
+    @Test
+    void testReleaseNeedsToken() {
+        // Given
+        var holds = holds();
+        TicketHold hold = holds.hold(1, 10);
+
+        // When
+        boolean forged = holds.release(1, "forged");
+        boolean released = holds.release(1, hold.getToken());
+
+        // Then
+        assertFalse(forged);
+        assertTrue(released);
+        assertFalse(holds.isHeldByOther(1, 20));
+        assertEquals(List.of(HoldStatus.HELD, HoldStatus.RELEASED), published(2));
+    }
+
+    @Test
+    void testExpiredHoldIsRemovedAndPublished() {
+        // Given: срок дольше оборота колеса (4 тика по секунде) - бронь ждёт своего круга
+        var holds = holds();
+        holds.hold(1, 10);
+
+        // When
+        now.addAndGet(9 * SECOND);
+        holds.advance();
+        boolean heldBeforeDeadline = holds.isHeldByOther(1, 20);
+        now.addAndGet(2 * SECOND);
+        holds.advance();
+
+        // Then
+        assertTrue(heldBeforeDeadline);
+        assertFalse(holds.isHeldByOther(1, 20));
+        assertEquals(List.of(HoldStatus.HELD, HoldStatus.EXPIRED), published(2));
+    }
+
+    @Test
+    void testLateTickDoesNotExtendHold() {
+        // Given
+        var holds = holds();
+        holds.hold(1, 10);
+
+        // When: тик ещё не прошёл, но срок истёк
+        now.addAndGet(10 * SECOND);
+
+        // Then
+        assertFalse(holds.isHeldByOther(1, 20));
+        assertNotNull(holds.hold(1, 20));
+    }
+
+    @Test
+    void testRenewedHoldOutlivesOldDeadline() {
+        // Given
+        var holds = holds();
+        holds.hold(1, 10);
+        now.addAndGet(8 * SECOND);
+        holds.hold(1, 10);
+
+        // When: прошёл срок первой брони, но не продлённой
+        now.addAndGet(4 * SECOND);
+        holds.advance();
+
+        // Then
+        assertTrue(holds.isHeldByOther(1, 20));
+        assertEquals(List.of(HoldStatus.HELD, HoldStatus.HELD), published(2));
+    }
+
+    @Test
+    void testSaleClosesBuyersHold() {
+        // Given
+        var holds = holds();
+        holds.hold(1, 10);
+
+        // When
+        holds.sold(1, 10);
+
+        // Then
+        assertFalse(holds.isHeldByOther(1, 20));
+        assertEquals(List.of(HoldStatus.HELD, HoldStatus.CONFIRMED), published(2));
+    }
+
+    @Test
+    void testSaleDropsOtherBuyersHold() {
+        // Given: бронь поставлена другим покупателем, пока шла продажа
+        var holds = holds();
+        var hold = holds.hold(1, 10);
+
+        // When
+        holds.sold(1, 20);
+
+        // Then
+        assertNull(holds.holder(1, hold.getToken()));
+        assertFalse(holds.isHeldByOther(1, 20));
+        assertEquals(List.of(HoldStatus.HELD, HoldStatus.RELEASED), published(2));
+    }
+
+    @Test
+    void testLimitRejectsNewHolds() {
+        // Given
+        properties.getHolds().setMaxHolds(1);
+        var holds = holds();
+        holds.hold(1, 10);
+
+        // When / Then: продление своей брони в лимит не упирается
+        assertThrows(TaskRejectedException.class, () -> holds.hold(2, 10));
+        assertNotNull(holds.hold(1, 10));
+    }
+
+    @Test
+    void testWheelThroughput() {
+        // Given
+        int n = 200_000;
+        var wheel = new TimingWheel<Integer>(Duration.ofMillis(100), 4096, 0);
+        List<Integer> expired = new ArrayList<>(n);
+
+        // When: дедлайны разбросаны на 10 минут, колесо крутится по тикам
+        long began = System.nanoTime();
+        for (int i = 0; i < n; i++) {
+            wheel.schedule(i, (i % 6000 + 1) * 100_000_000L);
+        }
+        for (long t = 1; t <= 6000; t++) {
+            wheel.advance(t * 100_000_000L, expired::add);
+        }
+        double seconds = (System.nanoTime() - began) / 1e9;
+
+        // Then
+        Logger.getLogger(getClass().getName()).info(String.format(
+                "timing wheel: %d holds scheduled and expired in %.3fs (%.0f/s)", n, seconds, n / seconds));
+        assertEquals(n, expired.size());
+    }
+}
@@ -0,0 +1,171 @@
+package systems.project;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import systems.project.configuratons.AsyncTimeoutInterceptor;
+import systems.project.configuratons.TicketsProperties;
+import systems.project.controllers.IdempotentRequests;
+import systems.project.controllers.TicketsApiController;
+import systems.project.models.Ticket;
+import systems.project.models.envelopes.TicketImportReport;
+import systems.project.services.TicketBatchWriter;
+import systems.project.services.TicketEventService;
+import systems.project.services.TicketExportService;
+import systems.project.services.TicketHolds;
+import systems.project.services.TicketImportService;
+import systems.project.services.TicketReadModel;
+import systems.project.services.TicketService;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class TicketImportServiceTests {
+
+    @Mock
+    TicketBatchWriter writer;
+
+    @Mock
+    TicketEventService events;
+
+    TicketsProperties properties;
+
+    TicketImportService service;
+
+    AtomicInteger nextId = new AtomicInteger(100);
+
+    @BeforeEach
+    void setUp() {
+        properties = new TicketsProperties();
+        properties.getBulkImport().setChunkSize(2);
+        service = new TicketImportService(new ObjectMapper().findAndRegisterModules(), writer, events,
+                properties, Logger.getAnonymousLogger());
+    }
+
+    private static String ticket(String name, float price, String type) {
+        return "{\"name\":\"" + name + "\",\"coordinates\":{\"x\":1,\"y\":2.0},"
+                + "\"price\":" + price + ",\"type\":\"" + type + "\",\"number\":1}";
+    }
+
+    private TicketImportReport run(String body) {
+        return service.importTickets(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8))).join();
+    }
+
+    private List<Integer> assignIds(List<Ticket> tickets) {
+        List<Integer> ids = new ArrayList<>();
+        tickets.forEach(t -> ids.add(nextId.getAndIncrement()));
+        return ids;
+    }
+
+    @Test
+    void testImportJsonArrayInChunks() {
+        // Given
+        when(writer.insert(anyList())).thenAnswer(inv -> assignIds(inv.getArgument(0)));
+        String body = "[" + String.join(",",
+                ticket("a", 10, "VIP"),
+                ticket("b", 0, "VIP"),
+                ticket("c", 10, "USUAL"),
+                ticket("d", 10, "CHEAP")) + "]";
+
+        // When
+        TicketImportReport report = run(body);
+
+        // Then
+        assertEquals(4, report.getTotal());
+        assertEquals(3, report.getImported());
+        assertEquals(1, report.getFailed());
+        assertEquals(2, report.getRows().get(1).getRow());
+        assertNull(report.getRows().get(1).getId());
+        assertTrue(report.getRows().get(1).getError().contains("price"));
+        assertNotNull(report.getRows().get(3).getId());
+        verify(writer, times(2)).insert(anyList());
+        verify(events, times(2)).publishChange(eq("import"), anyList(), isNull());
+    }
+
+    @Test
+    void testImportNdjsonSkipsUnmappableRow() {
+        // Given
+        when(writer.insert(anyList())).thenAnswer(inv -> assignIds(inv.getArgument(0)));
+        String body = ticket("a", 10, "VIP") + "\n"
+                + ticket("b", 10, "NO_SUCH_TYPE") + "\n"
+                + ticket("c", 10, "USUAL") + "\n";
+
+        // When
+        TicketImportReport report = run(body);
+
+        // Then
+        assertEquals(3, report.getTotal());
+        assertEquals(2, report.getImported());
+        assertNotNull(report.getRows().get(1).getError());
+        assertEquals(List.of(100, 101), List.of(report.getRows().get(0).getId(), report.getRows().get(2).getId()));
+        verify(events).publishChange("import", List.of(100, 101), null);
+    }
+
+    @Test
+    void testFailedChunkIsRetriedRowByRow() {
+        // Given
+        when(writer.insert(anyList())).thenAnswer(inv -> {
+            List<Ticket> chunk = inv.getArgument(0);
+            if (chunk.size() > 1 || "bad".equals(chunk.get(0).getName())) {
+                throw new IllegalStateException("violates foreign key");
+            }
+            return assignIds(chunk);
+        });
+        String body = "[" + ticket("good", 10, "VIP") + "," + ticket("bad", 10, "VIP") + "]";
+
+        // When
+        TicketImportReport report = run(body);
+
+        // Then
+        assertEquals(1, report.getImported());
+        assertEquals(1, report.getFailed());
+        assertEquals("violates foreign key", report.getRows().get(1).getError());
+        verify(writer, times(3)).insert(anyList());
+        verify(events).publishChange("import", List.of(100), null);
+    }
+
+    @Test
+    void testImportRequestGetsOwnTimeout() {
+        // Given
+        properties.getBulkImport().setTimeout(Duration.ofMinutes(7));
+        var importService = mock(TicketImportService.class);
+        when(importService.importTickets(any()))
+                .thenReturn(CompletableFuture.completedFuture(new TicketImportReport()));
+        var controller = new TicketsApiController(mock(TicketService.class), events, importService,
+                mock(TicketExportService.class), mock(TicketReadModel.class), mock(IdempotentRequests.class),
+                mock(TicketHolds.class), properties);
+        var request = new MockHttpServletRequest("POST", "/import_tickets");
+
+        // When
+        var res = controller.importTickets(new ByteArrayInputStream(new byte[0]), request).join();
+
+        // Then: таймаут ответа - tickets.bulk-import.timeout, а не общий spring.mvc.async.request-timeout
+        assertEquals(HttpStatus.OK, res.getStatusCode());
+        assertEquals(Duration.ofMinutes(7).toMillis(), request.getAttribute(AsyncTimeoutInterceptor.TIMEOUT_ATTRIBUTE));
+    }
+}
@@ -0,0 +1,209 @@
+package systems.project;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import systems.project.configuratons.TicketsProperties;
+import systems.project.models.Color;
+import systems.project.models.Coordinates;
+import systems.project.models.Country;
+import systems.project.models.Event;
+import systems.project.models.Location;
+import systems.project.models.Person;
+import systems.project.models.Ticket;
+import systems.project.models.TicketType;
+import systems.project.models.Venue;
+import systems.project.models.api.TicketDTO;
+import systems.project.models.api.TicketFilter;
+import systems.project.repositories.PersonRepository;
+import systems.project.repositories.TicketRepository;
+import systems.project.services.CollectionVersions;
+import systems.project.services.TicketBulkDeleter;
+import systems.project.services.TicketHolds;
+import systems.project.services.TicketService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Число SQL-запросов на каждое чтение билетов: связи должны подтягиваться тем же запросом.
+ * Если тест упал с числом больше 1, в план загрузки добавили связь без fetch (N+1).
+ * Массовое удаление не должно загружать сущности вовсе.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+class TicketQueryCountTests {
+
+    private static final int TICKETS = 5;
+
+    @Autowired
+    TestEntityManager em;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    TicketRepository ticketRepository;
+
+    @Autowired
+    PersonRepository personRepository;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    Statistics statistics;
+
+    Integer someId;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 1; i <= TICKETS; i++) {
+            someId = em.persist(ticket(i)).getId();
+        }
+        em.flush();
+        em.clear();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    private Ticket ticket(int i) {
+        var location = new Location();
+        location.setX(i);
+        location.setY(i);
+        location.setZ((float) i);
+        em.persist(location);
+
+        var person = new Person();
+        person.setHairColor(Color.BROWN);
+        person.setLocation(location);
+        person.setWeight(70.0 + i);
+        person.setPassportID("P" + i);
+        person.setNationality(Country.JAPAN);
+        em.persist(person);
+
+        var event = new Event();
+        event.setName("event " + i);
+        event.setTicketsCount(100);
+        em.persist(event);
+
+        var venue = new Venue();
+        venue.setName("venue " + i);
+        venue.setCapacity(1000);
+        em.persist(venue);
+
+        var coordinates = new Coordinates();
+        coordinates.setX(i);
+        coordinates.setY((float) i);
+
+        var t = new Ticket();
+        t.setName("ticket " + i);
+        t.setCoordinates(coordinates);
+        t.setPerson(person);
+        t.setEvent(event);
+        t.setVenue(venue);
+        t.setPrice(10f * i);
+        t.setType(TicketType.USUAL);
+        t.setNumber(i);
+        return t;
+    }
+
+    // обращение ко всем связям, как при сериализации ответа
+    private static void touch(Ticket t) {
+        assertNotNull(t.getCoordinates().getY());
+        assertNotNull(t.getPerson().getLocation().getZ());
+        assertNotNull(t.getEvent().getName());
+        assertNotNull(t.getVenue().getName());
+    }
+
+    // DTO собирается в сервисе: все связи должны быть прочитаны тем же запросом
+    private static void touch(TicketDTO t) {
+        assertNotNull(t.getCoordinates().getY());
+        assertNotNull(t.getPerson().getLocation().getZ());
+        assertNotNull(t.getEvent().getName());
+        assertNotNull(t.getVenue().getName());
+    }
+
+    @Test
+    void testListIsSingleStatement() {
+        // When
+        List<Ticket> tickets = ticketRepository.findAllByOrderByIdAsc(Limit.of(100)).join();
+        tickets.forEach(TicketQueryCountTests::touch);
+
+        // Then
+        assertEquals(TICKETS, tickets.size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void testByIdIsSingleStatement() {
+        // When
+        Ticket t = ticketRepository.findById(someId).join().orElseThrow();
+        touch(t);
+
+        // Then
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void testMinEventIsSingleStatement() {
+        // When
+        Ticket t = ticketRepository.findFirstByEventIsNotNullOrderByEventIdAsc().join().orElseThrow();
+        touch(t);
+
+        // Then
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void testPageIsSingleStatement() {
+        // Given
+        var service = new TicketService(ticketRepository, personRepository,
+                mock(TicketBulkDeleter.class), mock(TicketHolds.class),
+                new TicketsProperties(), new CollectionVersions(), new SimpleMeterRegistry());
+
+        // When
+        var page = service.getTicketsPage(new TicketFilter(), null, 3, null, null).join();
+        page.getTicketList().forEach(TicketQueryCountTests::touch);
+
+        // Then
+        assertEquals(3, page.getTicketList().size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void testBulkDeleteLoadsNoEntities() {
+        // Given: у всех билетов один comment, чанки по 2 -> три чанка
+        em.getEntityManager().createQuery("update Ticket t set t.comment = 'gone'").executeUpdate();
+        statistics.clear();
+        var properties = new TicketsProperties();
+        properties.getBulkDelete().setChunkSize(2);
+        var deleter = new TicketBulkDeleter(ticketRepository, transactionManager, properties,
+                Logger.getAnonymousLogger());
+        List<List<Integer>> chunks = new ArrayList<>();
+
+        // When
+        List<Integer> deleted = deleter.deleteByComment("gone", chunks::add);
+
+        // Then: на чанк - выбор id, выбор координат и два DELETE, без загрузки сущностей
+        assertEquals(TICKETS, deleted.size());
+        assertEquals(List.of(2, 2, 1), chunks.stream().map(List::size).toList());
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertEquals(3 * 4, statistics.getPrepareStatementCount());
+        assertEquals(0L, em.getEntityManager().createQuery("select count(t) from Ticket t").getSingleResult());
+        assertEquals(0L, em.getEntityManager().createQuery("select count(c) from Coordinates c").getSingleResult());
+    }
+}
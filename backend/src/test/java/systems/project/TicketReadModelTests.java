@@ -0,0 +1,179 @@
+package systems.project;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import systems.project.configuratons.TicketsProperties;
+import systems.project.models.Event;
+import systems.project.models.Ticket;
+import systems.project.repositories.TicketRepository;
+import systems.project.services.TicketReadModel;
+import systems.project.services.TicketSnapshot;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class TicketReadModelTests {
+
+    @Mock
+    TicketRepository ticketRepository;
+
+    @Mock
+    EntityManager entityManager;
+
+    @Mock
+    PlatformTransactionManager transactionManager;
+
+    TicketsProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        properties = new TicketsProperties();
+        properties.getReadModel().setEnabled(true);
+    }
+
+    // исполнитель в потоке вызова: полная загрузка завершается внутри start()
+    private TicketReadModel model() {
+        return new TicketReadModel(ticketRepository, entityManager, transactionManager, Runnable::run,
+                Logger.getAnonymousLogger(), new SimpleMeterRegistry(), properties);
+    }
+
+    private static Ticket ticket(int id, Integer eventId, String comment) {
+        var t = new Ticket();
+        t.setId(id);
+        t.setComment(comment);
+        if (eventId != null) {
+            var event = new Event();
+            event.setId(eventId);
+            t.setEvent(event);
+        }
+        return t;
+    }
+
+    @Test
+    void testDisabledModelStaysOnDatabase() {
+        // Given
+        properties.getReadModel().setEnabled(false);
+        var model = model();
+
+        // When
+        model.start();
+        model.apply(List.of(1));
+
+        // Then
+        assertNull(model.current());
+        verifyNoInteractions(ticketRepository);
+    }
+
+    @Test
+    void testSnapshotAnswersReadQueries() {
+        // Given
+        when(ticketRepository.streamForExport(null, null)).thenReturn(Stream.of(
+                ticket(3, 7, "b"), ticket(1, 9, "a"), ticket(2, 7, null)));
+        var model = model();
+
+        // When
+        model.start();
+        TicketSnapshot snapshot = model.current();
+
+        // Then
+        assertNotNull(snapshot);
+        assertEquals(List.of(1, 2), snapshot.firstById(2).stream().map(Ticket::getId).toList());
+        assertEquals(2, snapshot.minEventTicket().getId());
+        assertEquals(List.of(2, 3), snapshot.byEvent(7).stream().map(Ticket::getId).toList());
+    }
+
+    @Test
+    void testChangeReplacesAndRemovesTickets() {
+        // Given
+        when(ticketRepository.streamForExport(null, null)).thenReturn(Stream.of(
+                ticket(1, 7, "a"), ticket(2, 7, "a")));
+        var model = model();
+        model.start();
+        TicketSnapshot before = model.current();
+        Ticket updated = ticket(1, 5, "z");
+        when(ticketRepository.findAllByIdIn(any())).thenReturn(List.of(updated));
+
+        long versionBefore = before.version();
+
+        // When: билет 1 изменён, билет 2 удалён
+        var applied = model.apply(List.of(1, 2));
+        TicketSnapshot after = model.current();
+
+        // Then: срез тот же, индексы поправлены только для изменённых id
+        assertTrue(applied.isDone());
+        assertSame(before, after);
+        assertEquals(versionBefore + 1, after.version());
+        assertEquals(1, after.size());
+        assertSame(updated, after.get(1));
+        assertEquals(5, after.minEventTicket().getEvent().getId());
+        assertEquals(List.of(), after.byEvent(7));
+        assertEquals(List.of(updated), after.byEvent(5));
+    }
+
+    @Test
+    void testQueuedChangesAreAppliedTogetherInOrder() {
+        // Given: исполнитель, задачи которого запускаются вручную
+        Deque<Runnable> tasks = new ArrayDeque<>();
+        var model = new TicketReadModel(ticketRepository, entityManager, transactionManager, tasks::add,
+                Logger.getAnonymousLogger(), new SimpleMeterRegistry(), properties);
+        when(ticketRepository.streamForExport(null, null)).thenReturn(Stream.of(ticket(1, 7, "a")));
+        model.start();
+        tasks.poll().run();
+        when(ticketRepository.findAllByIdIn(any())).thenReturn(List.of(ticket(2, 7, "b"), ticket(3, 7, "c")));
+
+        // When: пока поток обновления не запущен, приходят два изменения
+        var first = model.apply(List.of(2));
+        var second = model.apply(List.of(3));
+
+        // Then: вызывающий не ждёт, оба изменения - одна задача и одно перечитывание
+        assertFalse(first.isDone());
+        assertEquals(1, tasks.size());
+        List<Integer> completed = new ArrayList<>();
+        first.thenRun(() -> completed.add(1));
+        second.thenRun(() -> completed.add(2));
+        tasks.poll().run();
+        verify(ticketRepository).findAllByIdIn(List.of(2, 3));
+        assertEquals(List.of(1, 2), completed);
+        assertEquals(List.of(1, 2, 3), model.current().byEvent(7).stream().map(Ticket::getId).toList());
+    }
+
+    @Test
+    void testFailedUpdateFallsBackToDatabaseAndRebuilds() {
+        // Given
+        when(ticketRepository.streamForExport(null, null))
+                .thenReturn(Stream.of(ticket(1, 7, "a")))
+                .thenReturn(Stream.of(ticket(1, 7, "a"), ticket(2, 7, "a")));
+        var model = model();
+        model.start();
+        when(ticketRepository.findAllByIdIn(any())).thenThrow(new RuntimeException("db down"));
+
+        // When
+        model.apply(List.of(2));
+
+        // Then: пересборка прочитала таблицу целиком заново
+        assertNotNull(model.current());
+        assertEquals(2, model.current().size());
+    }
+}
@@ -1,36 +1,78 @@
 package systems.project;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.scheduling.TaskScheduler;
+import systems.project.configuratons.TicketsProperties;
+import systems.project.controllers.IdempotentRequests;
+import systems.project.controllers.TicketsApiController;
 import systems.project.models.Coordinates;
 import systems.project.models.Person;
 import systems.project.models.Ticket;
 import systems.project.models.TicketType;
+import systems.project.models.api.ConfirmHoldRequest;
+import systems.project.models.api.SellOutcome;
+import systems.project.models.api.TicketDTO;
+import systems.project.models.api.TicketFilter;
+import systems.project.models.api.TicketHold;
+import systems.project.models.api.TicketSort;
+import systems.project.models.api.UpdateOutcome;
 import systems.project.repositories.PersonRepository;
 import systems.project.repositories.TicketRepository;
+import systems.project.services.CollectionVersions;
+import systems.project.services.TicketBulkDeleter;
+import systems.project.services.TicketCursor;
+import systems.project.services.TicketEventService;
+import systems.project.services.TicketExportService;
+import systems.project.services.TicketHolds;
+import systems.project.services.TicketImportService;
+import systems.project.services.TicketJfrEvents;
+import systems.project.services.TicketReadModel;
 import systems.project.services.TicketService;
+import systems.project.services.TicketSnapshot;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
 
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 
 
+import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.when;
 import static org.mockito.Mockito.verify;
@@ -45,13 +87,28 @@ public class TicketServiceTests {
     @Mock
     PersonRepository personRepository;
 
+    @Mock
+    TicketBulkDeleter bulkDeleter;
+
+    @Mock
+    TicketHolds holds;
+
+    @Spy
+    TicketsProperties properties = new TicketsProperties();
+
+    @Spy
+    CollectionVersions versions = new CollectionVersions();
+
+    @Spy
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
     @InjectMocks
     TicketService service;
 
     @Test
     void testGetTicket() throws ExecutionException, InterruptedException {
         //Given
-        Ticket ticket = mock();
+        Ticket ticket = ticketWithId(5);
 
         //When
         when(ticketRepository.findById(any(Integer.class))).thenReturn(CompletableFuture.
@@ -59,7 +116,7 @@ public class TicketServiceTests {
         var res = service.getTicket(5).get();
 
         //Then
-        assertEquals(res, ticket);
+        assertEquals(TicketDTO.from(ticket), res);
     }
 
     @Test
@@ -83,10 +140,93 @@ public class TicketServiceTests {
         assertNull(res);
     }
 
+    @Test
+    void testRejectedGetTicketAnswers429() throws Exception {
+        // Given: чтение отклонено перегруженным исполнителем
+        when(ticketRepository.findById(any(Integer.class))).
+                thenReturn(CompletableFuture.failedFuture(new TaskRejectedException("db")));
+        var controller = new TicketsApiController(service, mock(TicketEventService.class),
+                mock(TicketImportService.class), mock(TicketExportService.class), mock(TicketReadModel.class),
+                mock(IdempotentRequests.class), holds, properties);
+
+        // When
+        var res = controller.getTicketById(5).get();
+
+        // Then
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, res.getStatusCode());
+        assertEquals("1", res.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+    }
+
+    @Test
+    void testCountCommentLessIsAnsweredByDatabase() throws Exception {
+        // Given: модель чтения построена, но порядок строк задаёт сортировка БД
+        var readModel = mock(TicketReadModel.class);
+        lenient().when(readModel.current()).thenReturn(TicketSnapshot.of(1, List.of()));
+        when(ticketRepository.countByCommentLessThan("b")).thenReturn(CompletableFuture.completedFuture(3L));
+        var controller = new TicketsApiController(service, mock(TicketEventService.class),
+                mock(TicketImportService.class), mock(TicketExportService.class), readModel,
+                mock(IdempotentRequests.class), holds, properties);
+
+        // When
+        var res = controller.countCommentLess("b").get();
+
+        // Then
+        assertEquals(3, res.getBody().getData());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testGetTicketsPage() throws Exception {
+        // Given
+        List<Ticket> rows = List.of(ticketWithId(1), ticketWithId(2), ticketWithId(3));
+
+        // When
+        when(ticketRepository.findBy(any(Specification.class), any())).thenReturn(rows);
+        var page = service.getTicketsPage(new TicketFilter(), null, 2, TicketSort.ID, Sort.Direction.ASC).get();
+
+        // Then
+        assertEquals(2, page.getTicketList().size());
+        assertTrue(page.isHasMore());
+        assertNotNull(page.getNextCursor());
+        var cursor = TicketCursor.decode(page.getNextCursor());
+        assertEquals(2, cursor.id());
+        assertEquals(TicketSort.ID, cursor.sort());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testGetTicketsLastPage() throws Exception {
+        // When
+        when(ticketRepository.findBy(any(Specification.class), any())).thenReturn(List.of(ticketWithId(7)));
+        var page = service.getTicketsPage(null, null, 2, null, null).get();
+
+        // Then
+        assertEquals(1, page.getTicketList().size());
+        assertFalse(page.isHasMore());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void testGetTicketsPageCursorForOtherSort() {
+        // Given
+        String cursor = new TicketCursor(TicketSort.PRICE, Sort.Direction.ASC, 3, "10.0").encode();
+
+        // Then
+        assertThrows(IllegalArgumentException.class,
+                () -> service.getTicketsPage(null, cursor, 10, TicketSort.ID, Sort.Direction.ASC));
+    }
+
+    private static Ticket ticketWithId(int id) {
+        var ticket = new Ticket();
+        ticket.setId(id);
+        return ticket;
+    }
+
     @Test
     void testUpdateTicket() throws ExecutionException, InterruptedException {
         //Given
         Ticket ticket = mock();
+        when(ticket.getVersion()).thenReturn(3L);
 
         //When
         when(ticketRepository.existsById(any(Integer.class))).
@@ -94,7 +234,7 @@ public class TicketServiceTests {
         var res = service.updateTicket(5, ticket).get();
 
         //Then
-        assertTrue(res);
+        assertEquals(UpdateOutcome.UPDATED, res);
 
     }
 
@@ -102,6 +242,7 @@ public class TicketServiceTests {
     void testNotFountWhileUpdateTicket() throws ExecutionException, InterruptedException {
         //Given
         Ticket ticket = mock();
+        when(ticket.getVersion()).thenReturn(3L);
 
         //When
         when(ticketRepository.existsById(any(Integer.class))).
@@ -109,13 +250,14 @@ public class TicketServiceTests {
         var res = service.updateTicket(5, ticket).get();
 
         //Then
-        assertFalse(res);
+        assertEquals(UpdateOutcome.NOT_FOUND, res);
     }
 
     @Test
     void testFailUpdateTicket() throws ExecutionException, InterruptedException {
         //Given
         Ticket ticket = mock();
+        when(ticket.getVersion()).thenReturn(3L);
 
         //When
         when(ticketRepository.existsById(any(Integer.class))).
@@ -123,7 +265,40 @@ public class TicketServiceTests {
         var res = service.updateTicket(5, ticket).get();
 
         //Then
-        assertFalse(res);
+        assertEquals(UpdateOutcome.FAILED, res);
+    }
+
+    @Test
+    void testUpdateWithoutVersionIsRejected() throws Exception {
+        // Given: клиент не прислал версию, с которой читал билет
+        var ticket = new Ticket();
+
+        // When
+        var res = service.updateTicket(5, ticket).get();
+
+        // Then: поверх чужого изменения не пишется
+        assertEquals(UpdateOutcome.VERSION_REQUIRED, res);
+        verify(ticketRepository, never()).save(any(Ticket.class));
+    }
+
+    @Test
+    void testUpdateWithStaleVersionIsConflict() throws Exception {
+        // Given: билет изменили после того, как клиент его прочитал
+        var ticket = new Ticket();
+        ticket.setVersion(1L);
+        when(ticketRepository.existsById(5)).thenReturn(CompletableFuture.completedFuture(true));
+        when(ticketRepository.save(any(Ticket.class)))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Ticket.class, 5));
+        var controller = new TicketsApiController(service, mock(TicketEventService.class),
+                mock(TicketImportService.class), mock(TicketExportService.class), mock(TicketReadModel.class),
+                mock(IdempotentRequests.class), holds, properties);
+
+        // When
+        var res = controller.updateTicket(5, ticket).get();
+
+        // Then
+        assertEquals(HttpStatus.CONFLICT, res.getStatusCode());
+        verify(versions, never()).bump(any());
     }
 
     @Test
@@ -135,6 +310,20 @@ public class TicketServiceTests {
 
         //Then
         assertTrue(res);
+        verify(versions).bump(CollectionVersions.Kind.TICKETS);
+    }
+
+    @Test
+    void testFailedAsyncDeleteKeepsVersion() throws Exception {
+        // When
+        when(ticketRepository.existsById(anyInt())).thenReturn(CompletableFuture.completedFuture(true));
+        when(ticketRepository.deleteById(anyInt()))
+                .thenReturn(CompletableFuture.failedFuture(new RuntimeException("db down")));
+        var res = service.removeTicket(5).get();
+
+        // Then
+        assertFalse(res);
+        verify(versions, never()).bump(any());
     }
 
     @Test
@@ -162,41 +351,50 @@ public class TicketServiceTests {
 
     @Test
     void testDeleteAllByComment() throws Exception {
+        // Given
+        List<List<Integer>> published = new ArrayList<>();
+        when(bulkDeleter.deleteByComment(eq("abc"), any())).thenAnswer(inv -> {
+            Consumer<List<Integer>> onChunk = inv.getArgument(1);
+            onChunk.accept(List.of(1, 2));
+            onChunk.accept(List.of(3));
+            return List.of(1, 2, 3);
+        });
+
         // When
-        when(ticketRepository.deleteByComment("abc")).
-                thenReturn(CompletableFuture.completedFuture(5L));
-        var res = service.deleteAllByComment("abc").get();
+        var res = service.deleteAllByComment("abc", published::add).get();
 
-        // Then
-        assertTrue(res);
+        // Then: каждый чанк виден сразу, версия списка растёт вместе с ним
+        assertEquals(List.of(1, 2, 3), res);
+        assertEquals(List.of(List.of(1, 2), List.of(3)), published);
+        verify(versions, times(2)).bump(CollectionVersions.Kind.TICKETS);
     }
 
     @Test
     void testDeleteAllByCommentNone() throws Exception {
         // When
-        when(ticketRepository.deleteByComment("abc")).
-                thenReturn(CompletableFuture.completedFuture(0L));
-        var res = service.deleteAllByComment("abc").get();
+        when(bulkDeleter.deleteByComment(eq("abc"), any())).thenReturn(List.of());
+        var res = service.deleteAllByComment("abc", chunk -> { }).get();
 
         // Then
-        assertFalse(res);
+        assertTrue(res.isEmpty());
+        verify(versions, never()).bump(any());
     }
 
     @Test
     void testDeleteAllByCommentEmpty() throws Exception {
         // When
-        var res = service.deleteAllByComment("   ").get();
+        var res = service.deleteAllByComment("   ", chunk -> { }).get();
 
         // Then
-        assertFalse(res);
-        verify(ticketRepository, never()).deleteByComment(any());
+        assertTrue(res.isEmpty());
+        verify(bulkDeleter, never()).deleteByComment(any(), any());
     }
 
 
     @Test
     void testGetWithMinEvent() throws Exception {
         // Given
-        Ticket ticket = mock();
+        Ticket ticket = ticketWithId(3);
 
         // When
         when(ticketRepository.findFirstByEventIsNotNullOrderByEventIdAsc()).
@@ -205,7 +403,7 @@ public class TicketServiceTests {
         var res = service.getWithMinEvent().get();
 
         // Then
-        assertEquals(ticket, res);
+        assertEquals(TicketDTO.from(ticket), res);
     }
 
     @Test
@@ -260,9 +458,154 @@ public class TicketServiceTests {
         var res = service.sellTicket(1, 1, 100f).get();
 
         // Then
-        assertTrue(res);
+        assertEquals(SellOutcome.SOLD, res);
         assertEquals(100f, ticket.getPrice());
         assertEquals(person, ticket.getPerson());
+        verify(holds).sold(1, 1);
+    }
+
+    @Test
+    void testSellEmitsJfrEvent() throws Exception {
+        // Given
+        when(ticketRepository.findById(1)).thenReturn(CompletableFuture.completedFuture(Optional.of(new Ticket())));
+        when(personRepository.findById(2)).thenReturn(CompletableFuture.completedFuture(Optional.of(new Person())));
+        Path file = Files.createTempFile("tickets", ".jfr");
+
+        // When
+        try (var recording = new Recording()) {
+            recording.enable(TicketJfrEvents.Sell.class);
+            recording.start();
+            service.sellTicket(1, 2, 100f).get();
+            recording.stop();
+            recording.dump(file);
+        }
+
+        // Then
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file).stream()
+                .filter(e -> e.getEventType().getName().equals("systems.project.TicketSell"))
+                .toList();
+        Files.delete(file);
+        assertEquals(1, events.size());
+        assertEquals(1, events.get(0).getInt("ticketId"));
+        assertEquals(2, events.get(0).getInt("personId"));
+        assertEquals("SOLD", events.get(0).getString("outcome"));
+    }
+
+    @Test
+    void testSellRejectedWhileHeldByOther() throws Exception {
+        // Given
+        when(holds.isHeldByOther(1, 2)).thenReturn(true);
+
+        // When
+        var res = service.sellTicket(1, 2, 100f).get();
+
+        // Then
+        assertEquals(SellOutcome.HELD_BY_OTHER, res);
+        verify(ticketRepository, never()).save(any(Ticket.class));
+        verify(holds, never()).sold(any(), any());
+    }
+
+    @Test
+    void testSellRetriesAfterUnrelatedConflict() throws Exception {
+        // Given: билет изменили между чтением и записью, но владелец прежний
+        var person = new Person();
+        when(ticketRepository.findById(1)).thenReturn(
+                CompletableFuture.completedFuture(Optional.of(new Ticket())),
+                CompletableFuture.completedFuture(Optional.of(new Ticket())));
+        when(personRepository.findById(1)).thenReturn(CompletableFuture.completedFuture(Optional.of(person)));
+        when(ticketRepository.save(any(Ticket.class)))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Ticket.class, 1))
+                .thenAnswer(inv -> inv.getArgument(0));
+
+        // When
+        var res = service.sellTicket(1, 1, 100f).get();
+
+        // Then
+        assertEquals(SellOutcome.SOLD, res);
+        verify(ticketRepository, times(2)).save(any(Ticket.class));
+        assertEquals(1.0, registry.counter("tickets.sell.conflicts").count());
+        assertEquals(1.0, registry.counter("tickets.sell.retries").count());
+    }
+
+    @Test
+    void testSellConflictWhenSoldToAnother() throws Exception {
+        // Given: пока шла продажа, билет купил другой
+        var other = new Person();
+        other.setId(7L);
+        var sold = new Ticket();
+        sold.setPerson(other);
+        when(ticketRepository.findById(1)).thenReturn(
+                CompletableFuture.completedFuture(Optional.of(new Ticket())),
+                CompletableFuture.completedFuture(Optional.of(sold)));
+        when(personRepository.findById(1)).thenReturn(CompletableFuture.completedFuture(Optional.of(new Person())));
+        when(ticketRepository.save(any(Ticket.class)))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Ticket.class, 1));
+
+        // When
+        var res = service.sellTicket(1, 1, 100f).get();
+
+        // Then
+        assertEquals(SellOutcome.CONFLICT, res);
+        verify(ticketRepository, times(1)).save(any(Ticket.class));
+        verify(versions, never()).bump(any());
+    }
+
+    @Test
+    void testSellRejectedWhenAlreadyOwned() throws Exception {
+        // Given: билет уже продан, конфликта версий нет
+        var owner = new Person();
+        owner.setId(7L);
+        var sold = new Ticket();
+        sold.setPerson(owner);
+        when(ticketRepository.findById(1)).thenReturn(CompletableFuture.completedFuture(Optional.of(sold)));
+
+        // When: ни другой покупатель, ни сам владелец купить его снова не могут
+        var other = service.sellTicket(1, 8, 100f).get();
+        var same = service.sellTicket(1, 7, 100f).get();
+
+        // Then
+        assertEquals(SellOutcome.CONFLICT, other);
+        assertEquals(SellOutcome.CONFLICT, same);
+        assertEquals(owner, sold.getPerson());
+        verify(ticketRepository, never()).save(any(Ticket.class));
+        verify(holds, never()).sold(any(), any());
+    }
+
+    @Test
+    void testHoldPlacedDuringSaleCannotBeConfirmed() throws Exception {
+        // Given: настоящие брони; A прошёл проверку isHeldByOther, и до записи билет забронировал B
+        var realHolds = new TicketHolds(mock(TicketEventService.class), mock(TaskScheduler.class),
+                new SimpleMeterRegistry(), properties, System::nanoTime);
+        var sales = new TicketService(ticketRepository, personRepository, bulkDeleter, realHolds,
+                properties, versions, registry);
+        var controller = new TicketsApiController(sales, mock(TicketEventService.class),
+                mock(TicketImportService.class), mock(TicketExportService.class), mock(TicketReadModel.class),
+                mock(IdempotentRequests.class), realHolds, properties);
+        var buyer = new Person();
+        buyer.setId(1L);
+        var ticket = new Ticket();
+        TicketHold[] bHold = new TicketHold[1];
+        when(ticketRepository.findById(5)).thenAnswer(inv -> {
+            if (bHold[0] == null) bHold[0] = realHolds.hold(5, 2);
+            return CompletableFuture.completedFuture(Optional.of(ticket));
+        });
+        when(personRepository.findById(1)).thenReturn(CompletableFuture.completedFuture(Optional.of(buyer)));
+
+        // When: продажа A проходит, затем B подтверждает свою бронь
+        var sale = sales.sellTicket(5, 1, 100f).get();
+        var confirm = new ConfirmHoldRequest();
+        confirm.setTicketId(5);
+        confirm.setToken(bHold[0].getToken());
+        confirm.setAmount(50f);
+        var res = controller.confirmHold(confirm, null).get();
+
+        // Then: продажа A не перезаписана
+        assertEquals(SellOutcome.SOLD, sale);
+        assertEquals(HttpStatus.CONFLICT, res.getStatusCode());
+        assertNull(realHolds.holder(5, bHold[0].getToken()));
+        assertEquals(buyer, ticket.getPerson());
+        assertEquals(100f, ticket.getPrice());
+        verify(ticketRepository, times(1)).save(any(Ticket.class));
     }
 
     @Test
@@ -271,7 +614,7 @@ public class TicketServiceTests {
         var res = service.sellTicket(1, 1, -5f).get();
 
         // Then
-        assertFalse(res);
+        assertEquals(SellOutcome.INVALID_AMOUNT, res);
     }
 
     @Test
@@ -282,7 +625,19 @@ public class TicketServiceTests {
         var res = service.sellTicket(1, 1, 50f).get();
 
         // Then
-        assertFalse(res);
+        assertEquals(SellOutcome.TICKET_NOT_FOUND, res);
+    }
+
+    @Test
+    void testRejectedSaleIsNotReportedAsFailed() {
+        // When
+        when(ticketRepository.findById(1)).
+                thenReturn(CompletableFuture.failedFuture(new TaskRejectedException("db")));
+        var res = service.sellTicket(1, 1, 50f);
+
+        // Then
+        var exc = assertThrows(ExecutionException.class, res::get);
+        assertInstanceOf(TaskRejectedException.class, exc.getCause());
     }
 
     @Test
@@ -298,7 +653,7 @@ public class TicketServiceTests {
         var res = service.sellTicket(1, 1, 50f).get();
 
         // Then
-        assertFalse(res);
+        assertEquals(SellOutcome.PERSON_NOT_FOUND, res);
     }
 
 
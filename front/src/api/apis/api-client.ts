@@ -1,5 +1,6 @@
 // src/apiClient.js
 
+import globalAxios from "axios";
 import {TicketsApi} from "./tickets-api";
 import {EventsApi} from "./events-api";
 import {Configuration} from "../configuration";
@@ -10,6 +11,26 @@ const config = new Configuration({
     basePath: process.env.REACT_APP_API_BASE || 'http://localhost:8080',
 });
 
+// время последней записи, которую должен видеть этот клиент (своей или из события SSE):
+// сервер по нему держит наши чтения на основной БД, пока реплика не догнала запись
+const LAST_WRITE = 'X-Last-Write';
+let lastWrite = 0;
+
+export const noteWrite = (at) => {
+    const t = Number(at);
+    if (Number.isFinite(t) && t > lastWrite) lastWrite = t;
+};
+
+globalAxios.interceptors.request.use((req) => {
+    if (lastWrite > 0) req.headers.set(LAST_WRITE, String(lastWrite));
+    return req;
+});
+
+globalAxios.interceptors.response.use((res) => {
+    noteWrite(res.headers?.[LAST_WRITE.toLowerCase()]);
+    return res;
+});
+
 const _tickets = new TicketsApi(config);
 const _events  = new EventsApi(config);
 const _persons = new PersonsApi(config);
@@ -65,6 +65,8 @@ export default function EditTicketPage() {
           personId: t?.person?.id ?? '',
           eventId: t?.event?.id ?? '',
           venueId: t?.venue?.id ?? '',
+          // версия, с которой билет прочитан: сервер не даст затереть чужое изменение
+          version: t?.version ?? null,
         });
 
         const personsRaw = pickArray(p, 'personList').map((pp) => ({
@@ -164,6 +166,7 @@ export default function EditTicketPage() {
       person: form.personId === '' ? null : { id: Number(form.personId) },
       event: form.eventId === '' ? null : { id: Number(form.eventId) },
       venue: form.venueId === '' ? null : { id: Number(form.venueId) },
+      version: form.version,
     };
   };
 
@@ -171,9 +174,6 @@ export default function EditTicketPage() {
 
     if (!form) return;
 
-    const payload = buildFullPayload();
-    await ticketsApi.update(Number(id), payload);
-
     const err = validateAll();
     if (Object.values(err).some(Boolean)) {
       setStatus('Проверь форму: исправь выделенные поля');
@@ -183,10 +183,11 @@ export default function EditTicketPage() {
     setBusy(true);
     setStatus(null);
     try {
-
+      await ticketsApi.update(Number(id), buildFullPayload());
       navigate('/');
     } catch (e) {
-      setStatus(`Ошибка сохранения: ${e?.response?.status || ''} ${e.message}`);
+      if (e?.response?.status === 409) setStatus('Билет изменили после загрузки формы: обновите страницу');
+      else setStatus(`Ошибка сохранения: ${e?.response?.status || ''} ${e.message}`);
     } finally {
       setBusy(false);
     }
@@ -3,7 +3,7 @@ import React, {useEffect, useState} from 'react';
 import { useNavigate } from 'react-router-dom';
 import Table from '../components/Table';
 import '../styles/main.scss';
-import { ticketsApi } from '../api/apis/api-client';
+import { noteWrite, ticketsApi } from '../api/apis/api-client';
 
 const parseTickets = (data) => {
     if (!data) return [];
@@ -14,8 +14,29 @@ const parseTickets = (data) => {
     return [];
 };
 
+const parseTruncated = (data) => {
+    if (!data || typeof data !== 'object') return false;
+    if ('data' in data) return parseTruncated(data.data);
+    return data.truncated === true;
+};
+
+const applyChange = (list, change) => {
+    const fresh = new Map(change.tickets.filter((t) => t && t.id != null).map((t) => [t.id, t]));
+    const affected = new Set([...change.ids, ...fresh.keys()]);
+    const next = [];
+    for (const t of list) {
+        if (!affected.has(t.id)) next.push(t);
+        else if (fresh.has(t.id)) {
+            next.push(fresh.get(t.id));
+            fresh.delete(t.id);
+        }
+    }
+    return next.concat([...fresh.values()]);
+};
+
 export default function MainPage() {
     const [tickets, setTickets] = useState([]);
+    const [truncated, setTruncated] = useState(false);
     const [reloadKey, setReloadKey] = useState(0);
     const [busy, setBusy] = useState(false);
     const [msg, setMsg] = useState(null);
@@ -42,8 +63,10 @@ export default function MainPage() {
         try {
             const list = await ticketsApi.list();
             setTickets(parseTickets(list));
+            setTruncated(parseTruncated(list));
         } catch (e) {
             setTickets([]);
+            setTruncated(false);
         }
     };
 
@@ -58,21 +81,25 @@ export default function MainPage() {
         const es = new EventSource(url, { withCredentials: false });
 
         es.onmessage = (ev) => {
-            console.log(ev)
+            if (ev?.data === 'connected') return;
             try {
-                const payload = ev?.data ? JSON.parse(ev.data) : null;
-                const type = payload?.event || payload?.type;
-                if (type) setReloadKey((k) => k + 1);
-                else setReloadKey((k) => k + 1);
+                const change = ev?.data ? JSON.parse(ev.data) : null;
+                // перечитывание по событию не должно попасть на реплику, ещё не видевшую эту запись
+                if (change?.writtenAt) noteWrite(change.writtenAt);
+                if (!change || !Array.isArray(change.ids) || !Array.isArray(change.tickets)) {
+                    // reset или событие без данных - перечитываем список целиком
+                    setReloadKey((k) => k + 1);
+                    return;
+                }
+                setTickets((prev) => applyChange(prev, change));
             } catch {
-                console.log(ev)
-
                 setReloadKey((k) => k + 1);
             }
         };
 
+        // не закрываем поток при ошибке: браузер переподключится сам и пришлёт Last-Event-ID
         es.onerror = () => {
-            if (!closed) es.close();
+            if (closed) es.close();
         };
 
         return () => {
@@ -254,6 +281,9 @@ export default function MainPage() {
                 </div>
             )}
 
+            {truncated && (
+                <span className="status-err">Показаны первые {tickets.length} билетов, список обрезан</span>
+            )}
             <Table tableName="mainTable" data={tickets} />
         </div>
     );